@@ -0,0 +1,28 @@
+package uk.ac.mmu.game.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of target/benchmarks.jar.
+ *
+ * <p>Accepts the usual JMH command line (e.g. a benchmark regex, -p entries=1000, -f 2) and always
+ * adds the GC profiler, so every result comes with allocation rate (gc.alloc.rate.norm =
+ * bytes per operation) next to throughput and average latency.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() { }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,40 @@
+package uk.ac.mmu.game.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import uk.ac.mmu.game.domain.Board;
+import uk.ac.mmu.game.domain.Player;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Board.labelFor over every progress value (home, main ring, tail and END), as printed for
+ * each move by the console adapter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardLabelBenchmark {
+
+    @Param({"false", "true"})
+    public boolean largeBoard;
+
+    private Board board;
+    private Player player;
+    private int progress;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = largeBoard ? new Board(36, 6) : new Board(18, 3);
+        player = new Player("Blue", 10, "B");
+    }
+
+    @Benchmark
+    public String labelFor() {
+        String label = board.labelFor(player, progress);
+        progress = progress == board.endProgress() ? 0 : progress + 1;
+        return label;
+    }
+}
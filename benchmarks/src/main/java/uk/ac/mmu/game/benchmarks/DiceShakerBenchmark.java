@@ -0,0 +1,54 @@
+package uk.ac.mmu.game.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import uk.ac.mmu.game.domain.DiceShaker;
+import uk.ac.mmu.game.domain.RecordingDiceShaker;
+import uk.ac.mmu.game.domain.SeededDiceShaker;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RecordingDiceShaker.shake (the roll-recording wrapper used for roll-list saves) against the
+ * seeded shaker it wraps, to show the cost of recording.
+ *
+ * <p>The recorder is replaced every 100,000 rolls - far longer than any real game - so its
+ * list stays bounded during a long measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiceShakerBenchmark {
+
+    private static final int ROLLS_PER_RECORDER = 100_000;
+
+    @Param({"true", "false"})
+    public boolean singleDie;
+
+    private DiceShaker seeded;
+    private RecordingDiceShaker recording;
+    private int recorded;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        seeded = new SeededDiceShaker(42L, singleDie);
+        recording = new RecordingDiceShaker(new SeededDiceShaker(42L, singleDie));
+        recorded = 0;
+    }
+
+    @Benchmark
+    public int seededShake() {
+        return seeded.shake();
+    }
+
+    @Benchmark
+    public int recordingShake() {
+        if (recorded++ == ROLLS_PER_RECORDER) {
+            recording = new RecordingDiceShaker(new SeededDiceShaker(recorded, singleDie));
+            recorded = 0;
+        }
+        return recording.shake();
+    }
+}
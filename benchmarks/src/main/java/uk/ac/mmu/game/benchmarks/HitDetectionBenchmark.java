@@ -0,0 +1,75 @@
+package uk.ac.mmu.game.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import uk.ac.mmu.game.domain.BasicRules;
+import uk.ac.mmu.game.domain.Board;
+import uk.ac.mmu.game.domain.Game;
+import uk.ac.mmu.game.domain.HitInfo;
+import uk.ac.mmu.game.domain.Player;
+import uk.ac.mmu.game.domain.RingOccupancy;
+import uk.ac.mmu.game.domain.SeededDiceShaker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HitInfo.detect against the number of players on a 36-square ring.
+ *
+ * <p>{@code indexed=true} asks the game's RingOccupancy (O(1)); {@code indexed=false} passes
+ * the player list, which is scanned (O(players)).
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HitDetectionBenchmark {
+
+    private static final int MAIN_SIZE = 36;
+    private static final int PROBES = 1024; // power of two
+
+    @Param({"2", "4", "8", "16", "32"})
+    public int players;
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    private Board board;
+    private List<Player> all;
+    private RingOccupancy occupancy;
+    private Player[] movers;
+    private int[] targets;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = new Board(MAIN_SIZE, 6);
+        all = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            all.add(new Player("P" + i, 1 + i * MAIN_SIZE / players, "P"));
+        }
+        // Scatter everyone over the ring, then probe random (mover, target) pairs.
+        SplittableRandom random = new SplittableRandom(42L);
+        for (Player p : all) {
+            p.setProgress(random.nextInt(MAIN_SIZE));
+        }
+        occupancy = new Game(board, all, new BasicRules(), new SeededDiceShaker(1L, true)).getRingOccupancy();
+        movers = new Player[PROBES];
+        targets = new int[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            movers[i] = all.get(random.nextInt(players));
+            targets[i] = Math.min(movers[i].getProgress() + 1 + random.nextInt(6), MAIN_SIZE - 1);
+        }
+    }
+
+    @Benchmark
+    public HitInfo detect() {
+        int i = next++ & (PROBES - 1);
+        return indexed
+                ? HitInfo.detect(board, movers[i], targets[i], occupancy)
+                : HitInfo.detect(board, movers[i], targets[i], all);
+    }
+}
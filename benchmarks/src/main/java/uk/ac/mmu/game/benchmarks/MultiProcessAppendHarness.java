@@ -0,0 +1,126 @@
+package uk.ac.mmu.game.benchmarks;
+
+import uk.ac.mmu.game.infrastructure.BinaryGameSaveRepository;
+import uk.ac.mmu.game.infrastructure.JsonLinesGameSaveRepository;
+import uk.ac.mmu.game.infrastructure.SaveLogPolicy;
+import uk.ac.mmu.game.infrastructure.WriteBehindAppender;
+import uk.ac.mmu.game.usecase.GameSave;
+import uk.ac.mmu.game.usecase.GameSaveRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Several JVMs saving into one save file at once, which JMH (one JVM per fork) cannot measure.
+ *
+ * <pre>
+ *   java -cp benchmarks/target/benchmarks.jar uk.ac.mmu.game.benchmarks.MultiProcessAppendHarness \
+ *       [processes=8] [records=20000] [format=json|binary] [segment-bytes]
+ * </pre>
+ *
+ * A segment size (JSON only) makes the writers seal and merge segments of the log while they
+ * append, as {@link SaveLogPolicy} describes.
+ *
+ * Each writer process saves {@code records} games with ids {@code UUID(process, i)} and exits.
+ * The parent then checks that every record parses, that no id is missing, and that a sample of
+ * them loads, and reports the combined saves per second (process start-up included).
+ */
+public final class MultiProcessAppendHarness {
+
+    private static final Path DATA_DIR = Paths.get(System.getProperty("user.dir"), "target", "bench-data");
+
+    private MultiProcessAppendHarness() { }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("writer")) {
+            write(Path.of(args[1]), args[2], Integer.parseInt(args[3]), Integer.parseInt(args[4]), policy(args[5]));
+            return;
+        }
+
+        int processes = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int records = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        String format = args.length > 2 ? args[2] : "json";
+        String segmentBytes = args.length > 3 ? args[3] : "0";
+
+        Files.createDirectories(DATA_DIR);
+        Path file = DATA_DIR.resolve("shared." + (format.equals("binary") ? "bin" : "json"));
+        try (Stream<Path> old = Files.list(DATA_DIR)) {
+            for (Path stale : old.filter(p -> p.getFileName().toString().startsWith("shared.")).toList()) {
+                Files.delete(stale);
+            }
+        }
+
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        long start = System.nanoTime();
+        List<Process> writers = new ArrayList<>();
+        for (int p = 0; p < processes; p++) {
+            writers.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    MultiProcessAppendHarness.class.getName(), "writer", file.toString(), format,
+                    String.valueOf(p), String.valueOf(records), segmentBytes)
+                    .inheritIO()
+                    .start());
+        }
+        for (Process writer : writers) {
+            if (writer.waitFor() != 0) throw new IllegalStateException("writer failed: " + writer.exitValue());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        try (GameSaveRepository repository = open(file, format, policy(segmentBytes))) {
+            List<UUID> ids = repository.listIds();
+            Set<UUID> distinct = new HashSet<>(ids);
+            int expected = processes * records;
+            long bytes = 0;
+            if (format.equals("json")) {
+                long lines = 0;
+                try (Stream<Path> files = Files.list(DATA_DIR)) {
+                    for (Path log : files.filter(p -> p.getFileName().toString().matches("shared(\\.\\d+)?\\.json")).toList()) {
+                        lines += Files.lines(log).count();
+                        bytes += Files.size(log);
+                    }
+                }
+                if (lines != ids.size()) throw new IllegalStateException(lines + " lines but " + ids.size() + " parse");
+            } else {
+                bytes = Files.size(file);
+            }
+            if (ids.size() != expected || distinct.size() != expected) {
+                throw new IllegalStateException("expected " + expected + " saves, found " + ids.size()
+                        + " (" + distinct.size() + " distinct)");
+            }
+            for (int p = 0; p < processes; p++) {
+                repository.load(new UUID(p, records - 1));
+            }
+
+            System.out.printf("%d processes x %d %s saves: %.2f s, %.0f saves/s, %d bytes, all records intact%n",
+                    processes, records, format, seconds, expected / seconds, bytes);
+        }
+    }
+
+    private static void write(Path file, String format, int process, int records, SaveLogPolicy policy) throws Exception {
+        try (GameSaveRepository repository = open(file, format, policy)) {
+            for (int i = 0; i < records; i++) {
+                GameSave save = new GameSave(new UUID(process, i), 36, 6, 4, true, false, false,
+                        List.of(3, 5, 2, 6, 1, 4, 4, 2, 6, 6, 3, 1, 5, 2, 4, 6, 1, 3, 2, 5));
+                repository.save(save);
+            }
+        }
+    }
+
+    private static GameSaveRepository open(Path file, String format, SaveLogPolicy policy) {
+        return format.equals("binary")
+                ? new BinaryGameSaveRepository(file)
+                : new JsonLinesGameSaveRepository(file, WriteBehindAppender.Durability.PERIODIC, Duration.ofSeconds(1), policy);
+    }
+
+    private static SaveLogPolicy policy(String segmentBytes) {
+        long bytes = Long.parseLong(segmentBytes);
+        return bytes > 0 ? new SaveLogPolicy(bytes, null, 0) : SaveLogPolicy.DEFAULT;
+    }
+}
@@ -0,0 +1,59 @@
+package uk.ac.mmu.game.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import uk.ac.mmu.game.domain.Game;
+import uk.ac.mmu.game.domain.MoveResult;
+import uk.ac.mmu.game.usecase.GameFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Game.playTurn for every combination of the rules decorators, on both boards.
+ *
+ * <p>Each game is played to the end (or 10,000 moves) and then replaced by a freshly seeded one,
+ * so the figures include the amortised cost of building a game every ~40-80 turns, exactly as a
+ * sequence of real games would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayTurnBenchmark {
+
+    private static final int MAX_MOVES = 10_000;
+
+    @Param({"false", "true"})
+    public boolean exactEnd;
+
+    @Param({"false", "true"})
+    public boolean forfeitOnHit;
+
+    @Param({"2", "4"})
+    public int players;
+
+    @Param({"false", "true"})
+    public boolean largeBoard;
+
+    private final GameFactory factory = new GameFactory();
+    private Game game;
+    private long seed;
+    private int moves;
+
+    @Setup(Level.Iteration)
+    public void newGame() {
+        game = factory.createGame(largeBoard ? 36 : 18, largeBoard ? 6 : 3, players,
+                true, exactEnd, forfeitOnHit, seed++);
+        moves = 0;
+    }
+
+    @Benchmark
+    public MoveResult playTurn() {
+        if (game.isOver() || moves == MAX_MOVES) {
+            newGame();
+        }
+        moves++;
+        return game.playTurn();
+    }
+}
@@ -0,0 +1,54 @@
+package uk.ac.mmu.game.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import uk.ac.mmu.game.domain.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Game.playTurn against the number of players on a very large ring, with forfeit-on-hit so
+ * every move runs hit detection. Per-turn cost should stay flat as players are added.
+ *
+ * <p>Games on a ring this size last hundreds of thousands of moves, so each is replaced by a
+ * freshly seeded one after {@value #MAX_MOVES} moves (bounding the timeline's memory).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerScalingBenchmark {
+
+    private static final int MAIN_SIZE = 100_000;
+    private static final int MAX_MOVES = 200_000;
+
+    @Param({"2", "8", "32", "64"})
+    public int players;
+
+    private Game game;
+    private long seed;
+    private int moves;
+
+    @Setup(Level.Iteration)
+    public void newGame() {
+        List<Player> all = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            all.add(new Player("P" + i, 1 + (int) ((long) i * MAIN_SIZE / players), "P" + i));
+        }
+        Rules rules = new ForfeitOnHitDecorator(new BasicRules());
+        game = new Game(new Board(MAIN_SIZE, 6), all, rules, new SeededDiceShaker(seed++, true));
+        moves = 0;
+    }
+
+    @Benchmark
+    public MoveResult playTurn() {
+        if (game.isOver() || moves == MAX_MOVES) {
+            newGame();
+        }
+        moves++;
+        return game.playTurn();
+    }
+}
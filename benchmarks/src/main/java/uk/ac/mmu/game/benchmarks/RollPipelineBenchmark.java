@@ -0,0 +1,49 @@
+package uk.ac.mmu.game.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import uk.ac.mmu.game.domain.Game;
+import uk.ac.mmu.game.domain.RecordingDiceShaker;
+import uk.ac.mmu.game.usecase.GameFactory;
+import uk.ac.mmu.game.usecase.GameSave;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The roll-list save path outside the repository: recording the rolls of a game as it is played,
+ * and rebuilding a game from a save and playing its rolls back. Run with {@code -prof gc} to see
+ * the allocation per game.
+ *
+ * <p>Large board, four players, single die and no rule variants, so a game is a few hundred rolls.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RollPipelineBenchmark {
+
+    private final GameFactory factory = new GameFactory();
+    private GameSave save;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        save = new GameSave(UUID.randomUUID(), 36, 6, 4, true, false, false, record());
+    }
+
+    @Benchmark
+    public List<Integer> record() {
+        Game game = factory.createGame(36, 6, 4, true, false, false);
+        while (!game.isOver()) game.playTurn();
+        return ((RecordingDiceShaker) game.getDice()).getRolls();
+    }
+
+    @Benchmark
+    public Game replay() {
+        Game game = factory.createFromSave(save);
+        while (!game.isOver()) game.playTurn();
+        return game;
+    }
+}
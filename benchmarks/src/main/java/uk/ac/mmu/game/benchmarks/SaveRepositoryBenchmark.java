@@ -0,0 +1,141 @@
+package uk.ac.mmu.game.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import uk.ac.mmu.game.domain.Game;
+import uk.ac.mmu.game.domain.RecordingDiceShaker;
+import uk.ac.mmu.game.infrastructure.BinaryGameSaveRepository;
+import uk.ac.mmu.game.infrastructure.JsonLinesGameSaveRepository;
+import uk.ac.mmu.game.infrastructure.SaveFormatConverter;
+import uk.ac.mmu.game.usecase.GameFactory;
+import uk.ac.mmu.game.usecase.GameSave;
+import uk.ac.mmu.game.usecase.GameSaveRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameSaveRepository save / load / listAll on save files of 10^3 to 10^6 entries, in both
+ * the JSON Lines and the binary format.
+ *
+ * <p>Each file holds roll-list saves of real games (the larger, legacy save kind) with ids
+ * {@code UUID(0, i)}, so {@code load} can ask for the entry in the middle of the file.
+ * Fixture files are generated once under target/bench-data and reused by later runs;
+ * every trial works on a fresh copy because {@code save} appends to it. Binary fixtures are
+ * converted from the JSON ones, so both formats hold the same saves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SaveRepositoryBenchmark {
+
+    private static final Path DATA_DIR = Paths.get(System.getProperty("user.dir"), "target", "bench-data");
+    private static final int TEMPLATE_GAMES = 64;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int entries;
+
+    @Param({"json", "binary"})
+    public String format;
+
+    private GameSaveRepository repository;
+    private Path workingFile;
+    private UUID middleId;
+    private GameSave template;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Path fixture = DATA_DIR.resolve("saves-" + entries + ".json");
+        if (!Files.exists(fixture)) {
+            writeFixture(fixture, entries);
+        }
+        if (format.equals("binary")) {
+            Path binary = DATA_DIR.resolve("saves-" + entries + ".bin");
+            if (!Files.exists(binary)) {
+                Path partial = binary.resolveSibling(binary.getFileName() + ".partial");
+                Files.deleteIfExists(partial);
+                new SaveFormatConverter(fixture, partial).jsonToBinary();
+                Files.move(partial, binary, StandardCopyOption.REPLACE_EXISTING);
+                Files.deleteIfExists(indexOf(partial));
+            }
+            fixture = binary;
+        }
+
+        // The copy has no index yet, so opening the repository builds it here, outside the measurement.
+        workingFile = DATA_DIR.resolve("work-" + entries + "." + (format.equals("binary") ? "bin" : "json"));
+        Files.copy(fixture, workingFile, StandardCopyOption.REPLACE_EXISTING);
+        Files.deleteIfExists(indexOf(workingFile));
+
+        repository = format.equals("binary")
+                ? new BinaryGameSaveRepository(workingFile)
+                : new JsonLinesGameSaveRepository(workingFile);
+        middleId = new UUID(0, entries / 2);
+        template = templates(1).get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        repository.close();
+        Files.deleteIfExists(workingFile);
+        Files.deleteIfExists(indexOf(workingFile));
+    }
+
+    private static Path indexOf(Path file) {
+        return file.resolveSibling(file.getFileName() + ".idx");
+    }
+
+    private static void writeFixture(Path fixture, int entries) throws Exception {
+        Path partial = fixture.resolveSibling(fixture.getFileName() + ".partial");
+        Files.deleteIfExists(partial);
+
+        JsonLinesGameSaveRepository writer = new JsonLinesGameSaveRepository(partial);
+        List<GameSave> games = templates(TEMPLATE_GAMES);
+        for (int i = 0; i < entries; i++) {
+            GameSave save = games.get(i % games.size());
+            save.id = new UUID(0, i);
+            writer.save(save);
+        }
+        writer.close();
+        Files.move(partial, fixture, StandardCopyOption.REPLACE_EXISTING);
+        Files.deleteIfExists(indexOf(partial));
+    }
+
+    private static List<GameSave> templates(int count) {
+        GameFactory factory = new GameFactory();
+        List<GameSave> saves = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            boolean large = i % 2 == 0;
+            int players = i % 4 < 2 ? 2 : 4;
+            Game game = factory.createGame(large ? 36 : 18, large ? 6 : 3, players, true, i % 3 == 0, i % 5 == 0);
+            while (!game.isOver()) game.playTurn();
+
+            saves.add(new GameSave(null, large ? 36 : 18, large ? 6 : 3, players, true, i % 3 == 0, i % 5 == 0,
+                    new ArrayList<>(((RecordingDiceShaker) game.getDice()).getRolls())));
+        }
+        return saves;
+    }
+
+    @Benchmark
+    public UUID save() throws Exception {
+        template.id = null;
+        return repository.save(template);
+    }
+
+    @Benchmark
+    public GameSave load() throws Exception {
+        return repository.load(middleId);
+    }
+
+    @Benchmark
+    public List<GameSave> listAll() throws Exception {
+        return repository.listAll();
+    }
+}
@@ -0,0 +1,64 @@
+package uk.ac.mmu.game.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.ac.mmu.game.domain.Game;
+import uk.ac.mmu.game.domain.GameKernel;
+import uk.ac.mmu.game.usecase.GameFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full Game engine against the primitive GameKernel: one operation plays a batch of 1,024
+ * seeded games, as one simulation leaf does. Both engines play exactly the same games.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationEngineBenchmark {
+
+    private static final int GAMES = 1024;
+    private static final long MAX_MOVES = 100_000;
+
+    @Param({"2", "4"})
+    public int players;
+
+    @Param({"false", "true"})
+    public boolean largeBoard;
+
+    private GameFactory factory;
+    private GameKernel kernel;
+    private int mainSize;
+    private int tailSize;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        factory = new GameFactory();
+        mainSize = largeBoard ? 36 : 18;
+        tailSize = largeBoard ? 6 : 3;
+        kernel = factory.createKernel(mainSize, tailSize, players, true, true);
+    }
+
+    @Benchmark
+    public void gameEngine(Blackhole bh) {
+        for (int g = 0; g < GAMES; g++) {
+            Game game = factory.createGame(mainSize, tailSize, players, true, true, true, seed++);
+            for (long m = 0; m < MAX_MOVES && !game.isOver(); m++) {
+                game.playTurn();
+            }
+            bh.consume(game.winner());
+        }
+    }
+
+    @Benchmark
+    public void kernelEngine(Blackhole bh) {
+        for (int g = 0; g < GAMES; g++) {
+            kernel.reset();
+            bh.consume(kernel.play(factory.createDice(true, seed++), MAX_MOVES));
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package uk.ac.mmu.game.domain;
 
-import java.util.List;
-
 /**
  * Basic game rules:
  * <ul>
@@ -15,7 +13,13 @@ import java.util.List;
 public class BasicRules implements Rules {
 
     @Override
-    public MoveResult apply(Board board, Player player, int roll, List<Player> allPlayers) {
+    public MoveResult apply(Board board, Player player, int roll, RingOccupancy occupancy) {
+        RulesEvaluationEvent event = new RulesEvaluationEvent();
+        event.begin();
+        return RulesEvaluationEvent.commit(event, "BasicRules", roll, decide(board, player, roll, occupancy));
+    }
+
+    private MoveResult decide(Board board, Player player, int roll, RingOccupancy occupancy) {
         int end = board.endProgress();
 
         int from = player.getProgress();
@@ -24,10 +28,11 @@ public class BasicRules implements Rules {
         boolean overshoot = proposedTo > end;
         int to = overshoot ? end : proposedTo;
 
-        HitInfo hitInfo = HitInfo.detect(board, player, to, allPlayers);
+        HitInfo hitInfo = HitInfo.detect(board, player, to, occupancy);
 
         // In basic rules, move always happens (even if it hits).
         player.setProgress(to);
+        occupancy.moved(player);
         boolean won = (to == end);
 
         return new MoveResult(
@@ -52,25 +52,22 @@ public class Board {
     }
 
     /**
-     * Converts abstract progress into the required label.
+     * The shared lookup tables for {@code player} on a board of this size, cached on the player.
      */
-    public String labelFor(Player player, int progress) {
-        if (progress == 0) {
-            return "Home (Position " + player.getHomeIndex() + ")";
-        }
-
-        // Main ring: progress < mainSize (because mainSize itself is the first tail square)
-        if (progress < mainSize) {
-            int ringPos = mainRingPosFor(player, progress);
-            return "Position " + ringPos;
+    public BoardGeometry geometryFor(Player player) {
+        BoardGeometry geometry = player.geometry();
+        if (geometry == null || !geometry.fits(this)) {
+            geometry = BoardGeometry.of(mainSize, tailSize, player.getHomeIndex(), player.getColourLetter());
+            player.cacheGeometry(geometry);
         }
+        return geometry;
+    }
 
-        // Tail: progress >= mainSize
-        int tailStep = progress - mainSize + 1;
-        if (tailStep == tailSize) {
-            return player.getColourLetter() + tailStep + " (End)";
-        }
-        return "Tail Position " + player.getColourLetter() + tailStep;
+    /**
+     * Converts abstract progress into the required label.
+     */
+    public String labelFor(Player player, int progress) {
+        return geometryFor(player).label(progress);
     }
 
     /**
@@ -80,6 +77,16 @@ public class Board {
      * 0 means "on home square on the ring".
      */
     public int mainRingPosFor(Player player, int ringProgress) {
-        return ((player.getHomeIndex() - 1 + ringProgress) % mainSize) + 1;
+        if (ringProgress >= 0 && ringProgress < mainSize) {
+            return geometryFor(player).square(ringProgress);
+        }
+        return ringSquare(player.getHomeIndex(), ringProgress, mainSize);
+    }
+
+    /**
+     * Absolute ring square (1..mainSize) reached from {@code homeIndex} after {@code ringProgress}.
+     */
+    static int ringSquare(int homeIndex, int ringProgress, int mainSize) {
+        return ((homeIndex - 1 + ringProgress) % mainSize) + 1;
     }
 }
@@ -0,0 +1,154 @@
+package uk.ac.mmu.game.domain;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * One player's view of a board, compiled into lookup tables indexed by progress (0..endProgress).
+ *
+ * <p>{@link #square} gives the absolute main-ring square (0 once in the tail), {@link #tailStep}
+ * the tail step (0 on the ring) and {@link #label} the label the console prints, so the per-move
+ * position mapping and label rendering are array loads instead of a modulo and string building.
+ * Labels are built on first use and then reused.
+ *
+ * <p>A geometry depends only on the board size and the player's home square and colour letter, so
+ * one instance serves every game with that board and colour. {@link Board#geometryFor} looks it up
+ * and caches it on the {@link Player}. Progress outside 0..endProgress is computed directly, as
+ * {@link Board} always did.
+ *
+ * <p>The main-ring tables do not depend on the player, so all players on a board size share one
+ * {@link Ring}: a player only adds an offset into it and its own tail labels. A ring of 100,000
+ * squares costs the same whether 2 or 64 players use it.
+ */
+public final class BoardGeometry {
+
+    /** Distinct geometries kept for sharing; beyond this, new ones are built but not kept. */
+    private static final int CACHE_LIMIT = 1024;
+    private static final ConcurrentMap<Key, BoardGeometry> CACHE = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Long, Ring> RINGS = new ConcurrentHashMap<>();
+
+    private record Key(int mainSize, int tailSize, int homeIndex, String colourLetter) { }
+
+    /**
+     * The player-independent tables for one board size.
+     */
+    private static final class Ring {
+        final int mainSize;
+        final int tailSize;
+        final int[] squares;   // k -> (k % mainSize) + 1, for k in 0..2*mainSize-1
+        final String[] labels; // absolute square -> "Position n", null until first asked for
+
+        Ring(int mainSize, int tailSize) {
+            this.mainSize = mainSize;
+            this.tailSize = tailSize;
+            this.squares = new int[2 * mainSize];
+            for (int k = 0; k < squares.length; k++) {
+                squares[k] = k < mainSize ? k + 1 : k - mainSize + 1;
+            }
+            this.labels = new String[mainSize + 1];
+        }
+
+        String label(int square) {
+            String label = labels[square];
+            if (label == null) {
+                label = "Position " + square; // a racing thread builds an equal String; either may win
+                labels[square] = label;
+            }
+            return label;
+        }
+    }
+
+    private final Ring ring;
+    private final int mainSize;
+    private final int homeIndex;
+    private final String colourLetter;
+    private final int offset;           // (homeIndex - 1) % mainSize: index of progress 0 in ring.squares
+    private final String homeLabel;
+    private final String[] tailLabels;  // tail step -> label, null until first asked for
+
+    private BoardGeometry(Ring ring, int homeIndex, String colourLetter) {
+        this.ring = ring;
+        this.mainSize = ring.mainSize;
+        this.homeIndex = homeIndex;
+        this.colourLetter = colourLetter;
+        this.offset = (homeIndex - 1) % mainSize;
+        this.homeLabel = "Home (Position " + homeIndex + ")";
+        this.tailLabels = new String[ring.tailSize + 1];
+    }
+
+    /**
+     * The shared geometry for a board size and player.
+     */
+    public static BoardGeometry of(int mainSize, int tailSize, int homeIndex, String colourLetter) {
+        if (mainSize <= 0 || tailSize <= 0) throw new IllegalArgumentException("board sizes must be > 0");
+        if (homeIndex <= 0) throw new IllegalArgumentException("homeIndex must be positive");
+        Key key = new Key(mainSize, tailSize, homeIndex, colourLetter);
+        BoardGeometry geometry = CACHE.get(key);
+        if (geometry != null) return geometry;
+
+        geometry = new BoardGeometry(ring(mainSize, tailSize), homeIndex, colourLetter);
+        if (CACHE.size() >= CACHE_LIMIT) return geometry;
+        BoardGeometry raced = CACHE.putIfAbsent(key, geometry);
+        return raced != null ? raced : geometry;
+    }
+
+    private static Ring ring(int mainSize, int tailSize) {
+        Long key = (long) mainSize << 32 | tailSize;
+        Ring ring = RINGS.get(key);
+        if (ring != null) return ring;
+
+        ring = new Ring(mainSize, tailSize);
+        if (RINGS.size() >= CACHE_LIMIT) return ring;
+        Ring raced = RINGS.putIfAbsent(key, ring);
+        return raced != null ? raced : ring;
+    }
+
+    /**
+     * Whether this geometry was built for a board of {@code board}'s size.
+     */
+    public boolean fits(Board board) {
+        return mainSize == board.mainSize() && ring.tailSize == board.tailSize();
+    }
+
+    /**
+     * Absolute main-ring square (1..mainSize) at {@code progress}, or 0 in the tail.
+     */
+    public int square(int progress) {
+        if (progress >= 0 && progress < mainSize) return ring.squares[offset + progress];
+        return progress < mainSize ? Board.ringSquare(homeIndex, progress, mainSize) : 0;
+    }
+
+    /**
+     * Tail step (1..tailSize, tailSize being End) at {@code progress}, or 0 on the main ring.
+     */
+    public int tailStep(int progress) {
+        return progress < mainSize ? 0 : progress - mainSize + 1;
+    }
+
+    /**
+     * The label printed for {@code progress}, e.g. "Home (Position 10)", "Position 11",
+     * "Tail Position B1" or "B3 (End)".
+     */
+    public String label(int progress) {
+        if (progress == 0) return homeLabel;
+        if (progress > 0 && progress < mainSize) return ring.label(ring.squares[offset + progress]);
+        if (progress < 0) return "Position " + Board.ringSquare(homeIndex, progress, mainSize);
+
+        int step = progress - mainSize + 1;
+        if (step >= tailLabels.length) return tailLabel(step); // past End
+
+        String label = tailLabels[step];
+        if (label == null) {
+            label = tailLabel(step);
+            tailLabels[step] = label;
+        }
+        return label;
+    }
+
+    private String tailLabel(int step) {
+        if (step == ring.tailSize) {
+            return colourLetter + step + " (End)";
+        }
+        return "Tail Position " + colourLetter + step;
+    }
+}
@@ -0,0 +1,189 @@
+package uk.ac.mmu.game.domain;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Append-only move history that stores each move as one packed {@code long} (see {@link PackedMove}).
+ *
+ * <p>Names are held once in the player list instead of once per move. The rare move that
+ * does not fit the packed layout is kept as a {@link MoveResult} in a side list and
+ * referenced from its slot, so every recorded move decodes back to an equal record.
+ *
+ * <p>Reading:
+ * <ul>
+ *   <li>primitive accessors ({@link #roll(int)}, {@link #toProgress(int)} ...) decode in place</li>
+ *   <li>{@link #get(int)} rebuilds the full MoveResult</li>
+ *   <li>{@link #asList()} is a live, read-only List view; it copies nothing</li>
+ * </ul>
+ */
+public final class CompactTimeline {
+
+    private final String[] playerNames;
+    private final Map<String, Integer> indexByName = new HashMap<>();
+    private final List<MoveResult> overflow = new ArrayList<>(0);
+    private final List<MoveResult> view = new View();
+
+    private long[] moves = new long[32];
+    private int size;
+
+    public CompactTimeline(List<String> playerNames) {
+        if (playerNames == null || playerNames.isEmpty()) {
+            throw new IllegalArgumentException("player names are required");
+        }
+        this.playerNames = playerNames.toArray(new String[0]);
+        for (int i = this.playerNames.length - 1; i >= 0; i--) {
+            indexByName.put(this.playerNames[i], i); // first player wins on duplicate names
+        }
+    }
+
+    /**
+     * Appends a move.
+     *
+     * @param playerIndexHint turn-order index of the mover if known (checked against the name), else -1
+     */
+    public void add(MoveResult result, int playerIndexHint) {
+        if (result == null) throw new IllegalArgumentException("move result is required");
+
+        long packed = pack(result, playerIndexHint);
+        if (PackedMove.isEscape(packed)) {
+            packed = PackedMove.escape(overflow.size());
+            overflow.add(result);
+        }
+
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = packed;
+    }
+
+    private long pack(MoveResult r, int playerIndexHint) {
+        if (!r.note().isEmpty()) return -1L;
+
+        int player = (playerIndexHint >= 0 && playerIndexHint < playerNames.length
+                && playerNames[playerIndexHint].equals(r.player()))
+                ? playerIndexHint
+                : indexOf(r.player());
+
+        int victim = -1;
+        int victimSquare = 0;
+        if (r.hitVictimName() != null || r.hitVictimPos() != null) {
+            if (r.hitVictimName() == null || r.hitVictimPos() == null) return -1L;
+            victim = indexOf(r.hitVictimName());
+            victimSquare = r.hitVictimPos();
+            if (victim < 0 || victimSquare <= 0) return -1L;
+        }
+
+        if (player < 0) return -1L;
+        return PackedMove.encode(player, r.roll(), r.fromProgress(), r.toProgress(),
+                r.hit(), r.overshoot(), r.won(), victim, victimSquare);
+    }
+
+    private int indexOf(String name) {
+        Integer index = name == null ? null : indexByName.get(name);
+        return index == null ? -1 : index;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Raw packed value of move {@code i}; escaped moves must be read via {@link #get(int)}.
+     */
+    public long packed(int i) {
+        return moves[checkIndex(i)];
+    }
+
+    public MoveResult get(int i) {
+        long p = moves[checkIndex(i)];
+        if (PackedMove.isEscape(p)) {
+            return overflow.get(PackedMove.overflowIndex(p));
+        }
+
+        int victim = PackedMove.victimIndex(p);
+        return new MoveResult(
+                playerNames[PackedMove.playerIndex(p)],
+                PackedMove.roll(p),
+                PackedMove.fromProgress(p),
+                PackedMove.toProgress(p),
+                PackedMove.hit(p),
+                PackedMove.overshoot(p),
+                PackedMove.won(p),
+                "",
+                victim < 0 ? null : playerNames[victim],
+                victim < 0 ? null : PackedMove.victimSquare(p)
+        );
+    }
+
+    public int roll(int i) {
+        long p = moves[checkIndex(i)];
+        return PackedMove.isEscape(p) ? get(i).roll() : PackedMove.roll(p);
+    }
+
+    public int fromProgress(int i) {
+        long p = moves[checkIndex(i)];
+        return PackedMove.isEscape(p) ? get(i).fromProgress() : PackedMove.fromProgress(p);
+    }
+
+    public int toProgress(int i) {
+        long p = moves[checkIndex(i)];
+        return PackedMove.isEscape(p) ? get(i).toProgress() : PackedMove.toProgress(p);
+    }
+
+    public String playerName(int i) {
+        long p = moves[checkIndex(i)];
+        return PackedMove.isEscape(p) ? get(i).player() : playerNames[PackedMove.playerIndex(p)];
+    }
+
+    public boolean hit(int i) {
+        long p = moves[checkIndex(i)];
+        return PackedMove.isEscape(p) ? get(i).hit() : PackedMove.hit(p);
+    }
+
+    public boolean overshoot(int i) {
+        long p = moves[checkIndex(i)];
+        return PackedMove.isEscape(p) ? get(i).overshoot() : PackedMove.overshoot(p);
+    }
+
+    public boolean won(int i) {
+        long p = moves[checkIndex(i)];
+        return PackedMove.isEscape(p) ? get(i).won() : PackedMove.won(p);
+    }
+
+    /**
+     * Live read-only view; reflects moves appended after the call.
+     */
+    public List<MoveResult> asList() {
+        return view;
+    }
+
+    private int checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("move " + i + " (size " + size + ")");
+        }
+        return i;
+    }
+
+    private final class View extends AbstractList<MoveResult> implements RandomAccess {
+
+        @Override
+        public MoveResult get(int index) {
+            return CompactTimeline.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
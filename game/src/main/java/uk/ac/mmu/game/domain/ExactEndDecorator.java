@@ -1,7 +1,5 @@
 package uk.ac.mmu.game.domain;
 
-import java.util.List;
-
 /**
  * Variation: player must land exactly on END to win.
  *
@@ -18,8 +16,21 @@ public class ExactEndDecorator implements Rules {
         this.inner = inner;
     }
 
+    /**
+     * The rules this decorator wraps.
+     */
+    public Rules getInner() {
+        return inner;
+    }
+
     @Override
-    public MoveResult apply(Board board, Player player, int roll, List<Player> allPlayers) {
+    public MoveResult apply(Board board, Player player, int roll, RingOccupancy occupancy) {
+        RulesEvaluationEvent event = new RulesEvaluationEvent();
+        event.begin();
+        return RulesEvaluationEvent.commit(event, "ExactEndDecorator", roll, decide(board, player, roll, occupancy));
+    }
+
+    private MoveResult decide(Board board, Player player, int roll, RingOccupancy occupancy) {
         int end = board.endProgress();
 
         int from = player.getProgress();
@@ -41,6 +52,6 @@ public class ExactEndDecorator implements Rules {
             );
         }
 
-        return inner.apply(board, player, roll, allPlayers);
+        return inner.apply(board, player, roll, occupancy);
     }
 }
@@ -6,20 +6,27 @@ package uk.ac.mmu.game.domain;
  */
 public class FixedSeqShaker implements DiceShaker {
 
-    private final int[] sequence;
+    private final RollSequence sequence;
     private int index = 0;
 
     public FixedSeqShaker(int... sequence) {
-        if (sequence == null || sequence.length == 0) {
+        this(sequence == null ? null : RollSequence.of(sequence));
+    }
+
+    /**
+     * Plays back {@code sequence} itself, without copying it (it is immutable).
+     */
+    public FixedSeqShaker(RollSequence sequence) {
+        if (sequence == null || sequence.isEmpty()) {
             throw new IllegalArgumentException("At least one roll is required");
         }
-        this.sequence = sequence.clone();
+        this.sequence = sequence;
     }
 
     @Override
     public int shake() {
-        int value = sequence[index % sequence.length];
-        index++;
+        int value = sequence.getInt(index);
+        index = index + 1 == sequence.size() ? 0 : index + 1;
         return value;
     }
 }
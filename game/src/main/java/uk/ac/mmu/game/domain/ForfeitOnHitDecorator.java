@@ -1,7 +1,5 @@
 package uk.ac.mmu.game.domain;
 
-import java.util.List;
-
 /**
  * Variation: forfeit if a HIT would occur.
  *
@@ -19,14 +17,27 @@ public class ForfeitOnHitDecorator implements Rules {
         this.inner = inner;
     }
 
+    /**
+     * The rules this decorator wraps.
+     */
+    public Rules getInner() {
+        return inner;
+    }
+
     @Override
-    public MoveResult apply(Board board, Player player, int roll, List<Player> allPlayers) {
+    public MoveResult apply(Board board, Player player, int roll, RingOccupancy occupancy) {
+        RulesEvaluationEvent event = new RulesEvaluationEvent();
+        event.begin();
+        return RulesEvaluationEvent.commit(event, "ForfeitOnHitDecorator", roll, decide(board, player, roll, occupancy));
+    }
+
+    private MoveResult decide(Board board, Player player, int roll, RingOccupancy occupancy) {
         int end = board.endProgress();
 
         int from = player.getProgress();
         int proposedTo = Math.min(from + roll, end);
 
-        HitInfo hitInfo = HitInfo.detect(board, player, proposedTo, allPlayers);
+        HitInfo hitInfo = HitInfo.detect(board, player, proposedTo, occupancy);
 
         if (hitInfo.hit()) {
             // Forfeit on hit: stay where you are.
@@ -44,6 +55,6 @@ public class ForfeitOnHitDecorator implements Rules {
             );
         }
 
-        return inner.apply(board, player, roll, allPlayers);
+        return inner.apply(board, player, roll, occupancy);
     }
 }
@@ -24,10 +24,15 @@ public class Game {
     private final TurnOrder turnOrder;
     private final Rules rules;
     private final DiceShaker dice;
+    private final RingOccupancy ringOccupancy;
 
-    private final List<MoveResult> timeline = new ArrayList<>();
+    private final CompactTimeline timeline;
     private GameState state = new ReadyState();
 
+    // Kept as moves are recorded, so nothing per turn (or at the end) walks the player list.
+    private Player winner;
+    private int totalTurns;
+
     private final List<GameStateObserver> stateObservers = new ArrayList<>();
     private final List<PlayerTurnObserver> turnObservers = new ArrayList<>();
     private final List<GameFinishedObserver> finishedObservers = new ArrayList<>();
@@ -40,8 +45,10 @@ public class Game {
 
         this.board = board;
         this.turnOrder = new TurnOrder(players);
+        this.ringOccupancy = new RingOccupancy(board, turnOrder.all());
         this.rules = rules;
         this.dice = dice;
+        this.timeline = new CompactTimeline(players.stream().map(Player::getName).toList());
     }
 
     public Board getBoard() {
@@ -56,6 +63,13 @@ public class Game {
         return List.copyOf(turnOrder.all());
     }
 
+    /**
+     * Index of who stands on each main-ring square; the rules keep it current as they move players.
+     */
+    public RingOccupancy getRingOccupancy() {
+        return ringOccupancy;
+    }
+
     public Rules getRules() {
         return rules;
     }
@@ -76,6 +90,15 @@ public class Game {
         addFinishedObserver(observer);
     }
 
+    /**
+     * Detaches an observer added with {@link #addObserver}; e.g. to stop rendering part-way through.
+     */
+    public void removeObserver(GameObserver observer) {
+        stateObservers.remove(observer);
+        turnObservers.remove(observer);
+        finishedObservers.remove(observer);
+    }
+
     public void addStateObserver(GameStateObserver observer) {
         if (observer != null) stateObservers.add(observer);
     }
@@ -91,6 +114,9 @@ public class Game {
     public void switchTo(GameState next) {
         if (next == null) throw new IllegalArgumentException("next state is required");
 
+        StateTransitionEvent event = new StateTransitionEvent();
+        event.begin();
+
         String from = state.name();
         String to = next.name();
 
@@ -100,6 +126,13 @@ public class Game {
         for (GameStateObserver obs : stateObservers) {
             obs.onStateChanged(this, from, to);
         }
+
+        if (event.shouldCommit()) {
+            event.fromState = from;
+            event.toState = to;
+            event.moves = timeline.size();
+            event.commit();
+        }
     }
 
     public MoveResult playTurn() {
@@ -110,18 +143,52 @@ public class Game {
         return state instanceof GameOverState;
     }
 
+    /**
+     * The player whose move reached End, once the game has been won.
+     */
     public Optional<Player> winner() {
-        return turnOrder.all().stream().filter(p -> p.isAtEnd(board)).findFirst();
+        return Optional.ofNullable(winner);
     }
 
+    /**
+     * Sum of every player's non-forfeited turns so far.
+     */
+    public int totalTurns() {
+        return totalTurns;
+    }
+
+    /**
+     * Counts a non-forfeited turn for {@code player} (see {@link InPlayState}).
+     */
+    void countTurn(Player player) {
+        player.incTurns();
+        totalTurns++;
+    }
+
+    /**
+     * Unmodifiable snapshot of the moves recorded so far; later moves do not appear in it.
+     * Copies the whole history, so hot paths read {@link #compactTimeline()} instead.
+     */
     public List<MoveResult> timeline() {
-        return List.copyOf(timeline);
+        return List.copyOf(timeline.asList());
+    }
+
+    /**
+     * The packed move history behind {@link #timeline()}, for allocation-free reads. Live: it
+     * grows as moves are recorded.
+     */
+    public CompactTimeline compactTimeline() {
+        return timeline;
     }
 
     public void record(MoveResult result) {
         if (result == null) throw new IllegalArgumentException("move result is required");
-        timeline.add(result);
-        validateInvariants();
+        timeline.add(result, turnOrder.currentIndex());
+        Player mover = turnOrder.current();
+        validateInvariants(mover);
+        if (result.won() && winner == null) {
+            winner = mover;
+        }
     }
 
     public void notifyTurnPlayed(Player current, MoveResult result) {
@@ -131,7 +198,6 @@ public class Game {
     }
 
     public void notifyGameFinished(Player winner) {
-        int totalTurns = turnOrder.all().stream().mapToInt(Player::getTurnsTaken).sum();
         int winnerTurns = (winner != null) ? winner.getTurnsTaken() : 0;
 
         for (GameFinishedObserver obs : finishedObservers) {
@@ -139,13 +205,15 @@ public class Game {
         }
     }
 
-    private void validateInvariants() {
+    /**
+     * Checks the player who just moved; a move changes no one else's progress (a hit does not
+     * send its victim back), so the others are unchanged since their own moves were checked.
+     */
+    private void validateInvariants(Player mover) {
         int end = board.endProgress();
-        for (Player p : turnOrder.all()) {
-            int prog = p.getProgress();
-            if (prog < 0 || prog > end) {
-                throw new IllegalStateException("Player progress out of range: " + p + " (end=" + end + ")");
-            }
+        int prog = mover.getProgress();
+        if (prog < 0 || prog > end) {
+            throw new IllegalStateException("Player progress out of range: " + mover + " (end=" + end + ")");
         }
     }
 }
@@ -0,0 +1,263 @@
+package uk.ac.mmu.game.domain;
+
+import java.util.Arrays;
+
+/**
+ * Allocation-free game engine for bulk simulation.
+ *
+ * <p>Plays exactly the same game as {@link Game} with {@link BasicRules} optionally wrapped in
+ * {@link ExactEndDecorator} and then {@link ForfeitOnHitDecorator} (the order GameFactory uses),
+ * but keeps all state in primitive arrays (struct-of-arrays) indexed by turn-order position:
+ * <ul>
+ *   <li>progress - abstract progress per player (0..endProgress)</li>
+ *   <li>turns - non-forfeited turns per player</li>
+ *   <li>homeOffset - homeIndex - 1 per player</li>
+ *   <li>occupancy - number of players standing on each absolute main-ring square</li>
+ * </ul>
+ *
+ * <p>There are no observers, no MoveResult records and no timeline; a turn performs no heap
+ * allocation. A kernel is reusable: {@link #reset()} starts a fresh game on the same board.
+ *
+ * <p>Not thread-safe: use one kernel per thread.
+ */
+public final class GameKernel {
+
+    /** Flag bits describing the last move, see {@link #lastMoveFlags()}. */
+    public static final int HIT = 1;
+    public static final int OVERSHOOT = 1 << 1;
+    public static final int WON = 1 << 2;
+    public static final int FORFEITED = 1 << 3;
+
+    private final int mainSize;
+    private final int end;
+    private final boolean exactEnd;
+    private final boolean forfeitOnHit;
+
+    private final int[] homeOffset;
+    private final int[] progress;
+    private final int[] turns;
+    private final int[] occupancy;
+
+    private int current;
+    private int winner;
+    private int totalTurns;
+    private long moves;
+    private long hits;
+    private long overshoots;
+    private long forfeits;
+
+    private int lastFrom;
+    private int lastTo;
+    private int lastFlags;
+
+    /**
+     * @param homeIndices absolute home square (1..mainSize) of each player, in turn order
+     */
+    public GameKernel(int mainSize, int tailSize, int[] homeIndices, boolean exactEnd, boolean forfeitOnHit) {
+        Board board = new Board(mainSize, tailSize); // same validation as the object engine
+        if (homeIndices == null || homeIndices.length == 0) {
+            throw new IllegalArgumentException("at least one player is required");
+        }
+
+        this.mainSize = mainSize;
+        this.end = board.endProgress();
+        this.exactEnd = exactEnd;
+        this.forfeitOnHit = forfeitOnHit;
+
+        this.homeOffset = new int[homeIndices.length];
+        for (int i = 0; i < homeIndices.length; i++) {
+            if (homeIndices[i] <= 0) {
+                throw new IllegalArgumentException("homeIndex must be positive");
+            }
+            // Same wrap as Board.mainRingPosFor for homes beyond the ring.
+            homeOffset[i] = (homeIndices[i] - 1) % mainSize;
+        }
+
+        this.progress = new int[homeIndices.length];
+        this.turns = new int[homeIndices.length];
+        this.occupancy = new int[mainSize];
+        reset();
+    }
+
+    /**
+     * Puts every player back on their home square and clears all counters.
+     */
+    public void reset() {
+        Arrays.fill(progress, 0);
+        Arrays.fill(turns, 0);
+        Arrays.fill(occupancy, 0);
+        for (int offset : homeOffset) {
+            occupancy[offset]++;
+        }
+
+        current = 0;
+        winner = -1;
+        totalTurns = 0;
+        moves = 0;
+        hits = 0;
+        overshoots = 0;
+        forfeits = 0;
+        lastFrom = 0;
+        lastTo = 0;
+        lastFlags = 0;
+    }
+
+    /**
+     * Plays until someone wins or {@code maxMoves} moves have been made.
+     *
+     * @return the winner's turn-order index, or -1 if the game is still unfinished
+     */
+    public int play(DiceShaker dice, long maxMoves) {
+        for (long m = 0; winner < 0 && m < maxMoves; m++) {
+            step(dice.shake());
+        }
+        return winner;
+    }
+
+    /**
+     * Plays one move for the current player with the given roll.
+     *
+     * @return flag bits for the move (same as {@link #lastMoveFlags()})
+     */
+    public int step(int roll) {
+        if (winner >= 0) throw new IllegalStateException("game is over");
+        if (roll <= 0) throw new IllegalArgumentException("roll must be positive");
+
+        int p = current;
+        int from = progress[p];
+        int proposed = from + roll;
+        int flags;
+
+        if (forfeitOnHit && occupiedByOther(p, Math.min(proposed, end))) {
+            flags = HIT | FORFEITED;
+            hits++;
+            forfeits++;
+        } else if (exactEnd && proposed > end) {
+            flags = OVERSHOOT | FORFEITED;
+            overshoots++;
+            forfeits++;
+        } else {
+            flags = 0;
+            int to = proposed;
+            if (proposed > end) {
+                flags |= OVERSHOOT;
+                overshoots++;
+                to = end;
+            }
+            if (occupiedByOther(p, to)) {
+                flags |= HIT;
+                hits++;
+            }
+
+            moveTo(p, from, to);
+            turns[p]++;
+            totalTurns++;
+
+            if (to == end) {
+                flags |= WON;
+                winner = p;
+            }
+        }
+
+        moves++;
+        lastFrom = from;
+        lastTo = progress[p];
+        lastFlags = flags;
+
+        if (winner < 0) {
+            current = (p + 1 == progress.length) ? 0 : p + 1;
+        }
+        return flags;
+    }
+
+    private boolean occupiedByOther(int player, int target) {
+        // Tail squares are not shared; a positive roll never lands on the mover's own square.
+        return target < mainSize && occupancy[ringSquare(player, target)] > 0;
+    }
+
+    private void moveTo(int player, int from, int to) {
+        if (from < mainSize) occupancy[ringSquare(player, from)]--;
+        if (to < mainSize) occupancy[ringSquare(player, to)]++;
+        progress[player] = to;
+    }
+
+    /**
+     * 0-based absolute ring square; equals Board.mainRingPosFor(...) - 1 without the modulo.
+     */
+    private int ringSquare(int player, int ringProgress) {
+        int sq = homeOffset[player] + ringProgress;
+        return sq >= mainSize ? sq - mainSize : sq;
+    }
+
+    public int players() {
+        return progress.length;
+    }
+
+    public int endProgress() {
+        return end;
+    }
+
+    public boolean isOver() {
+        return winner >= 0;
+    }
+
+    /**
+     * Turn-order index of the winner, or -1 while the game is unfinished.
+     */
+    public int winner() {
+        return winner;
+    }
+
+    /**
+     * Turn-order index of the player who moves next (the winner once the game is over).
+     */
+    public int currentPlayer() {
+        return current;
+    }
+
+    public int progress(int player) {
+        return progress[player];
+    }
+
+    public int turnsTaken(int player) {
+        return turns[player];
+    }
+
+    /**
+     * Sum of every player's non-forfeited turns.
+     */
+    public int totalTurns() {
+        return totalTurns;
+    }
+
+    /**
+     * All moves played, including forfeited ones.
+     */
+    public long moves() {
+        return moves;
+    }
+
+    public long hits() {
+        return hits;
+    }
+
+    public long overshoots() {
+        return overshoots;
+    }
+
+    public long forfeits() {
+        return forfeits;
+    }
+
+    public int lastFrom() {
+        return lastFrom;
+    }
+
+    public int lastTo() {
+        return lastTo;
+    }
+
+    public int lastMoveFlags() {
+        return lastFlags;
+    }
+}
@@ -43,7 +43,27 @@ public final class HitInfo {
     }
 
     /**
-     * Detects whether the mover would land on an occupied main-ring square.
+     * Detects whether the mover would land on an occupied main-ring square, using the game's
+     * index of who stands where (one lookup, however many players).
+     *
+     * @param candidateProgress the proposed target progress (already clamped if desired by caller)
+     */
+    public static HitInfo detect(Board board, Player mover, int candidateProgress, RingOccupancy occupancy) {
+        if (!occupancy.covers(board)) {
+            throw new IllegalArgumentException("occupancy index is for a different board");
+        }
+        if (candidateProgress >= board.mainSize()) {
+            return noHit(); // tail is not shared
+        }
+
+        int targetAbsPos = board.geometryFor(mover).square(candidateProgress);
+        Player victim = occupancy.firstOccupantOtherThan(targetAbsPos, mover);
+        return victim == null ? noHit() : HitInfo.of(victim.getName(), targetAbsPos);
+    }
+
+    /**
+     * Detects whether the mover would land on an occupied main-ring square by scanning
+     * {@code allPlayers}; for one-off checks outside a {@link Game}.
      *
      * @param candidateProgress the proposed target progress (already clamped if desired by caller)
      */
@@ -52,7 +72,7 @@ public final class HitInfo {
             return noHit(); // tail is not shared
         }
 
-        int targetAbsPos = board.mainRingPosFor(mover, candidateProgress);
+        int targetAbsPos = board.geometryFor(mover).square(candidateProgress);
 
         for (Player other : allPlayers) {
             if (other == mover) {
@@ -60,7 +80,8 @@ public final class HitInfo {
             }
 
             if (other.getProgress() < board.mainSize()) {
-                int otherAbsPos = board.mainRingPosFor(other, other.getProgress());
+                // Computed, not looked up: one modulo is cheaper than a table per scanned player
+                int otherAbsPos = Board.ringSquare(other.getHomeIndex(), other.getProgress(), board.mainSize());
                 if (otherAbsPos == targetAbsPos) {
                     return HitInfo.of(other.getName(), otherAbsPos);
                 }
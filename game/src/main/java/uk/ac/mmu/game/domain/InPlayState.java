@@ -12,15 +12,18 @@ public class InPlayState implements GameState {
 
     @Override
     public MoveResult playTurn(Game game) {
+        TurnEvent event = new TurnEvent();
+        event.begin();
+
         TurnOrder order = game.getTurnOrder();
         Player current = order.current();
 
         int roll = game.getDice().shake();
-        MoveResult result = game.getRules().apply(game.getBoard(), current, roll, game.getPlayers());
+        MoveResult result = game.getRules().apply(game.getBoard(), current, roll, game.getRingOccupancy());
 
         // Count turns here so forfeits can skip counting.
         if (!result.forfeited()) {
-            current.incTurns();
+            game.countTurn(current);
         }
 
         game.record(result);
@@ -29,10 +32,21 @@ public class InPlayState implements GameState {
         if (result.won()) {
             game.switchTo(new GameOverState());
             game.notifyGameFinished(current);
-            return result;
+        } else {
+            order.next();
         }
 
-        order.next();
+        if (event.shouldCommit()) {
+            event.player = result.player();
+            event.roll = roll;
+            event.fromProgress = result.fromProgress();
+            event.toProgress = result.toProgress();
+            event.forfeited = result.forfeited();
+            event.hit = result.hit();
+            event.overshoot = result.overshoot();
+            event.won = result.won();
+            event.commit();
+        }
         return result;
     }
 }
@@ -0,0 +1,136 @@
+package uk.ac.mmu.game.domain;
+
+/**
+ * Encodes a {@link MoveResult} as a single {@code long}.
+ *
+ * <p>Bit layout (least significant first):
+ * <pre>
+ *   0..19   fromProgress            (20 bits, 0..1_048_575)
+ *   20..39  victim square           (20 bits, absolute main-ring position, 0 if no victim)
+ *   40..43  roll                    (4 bits, 0..15)
+ *   44..47  toProgress - fromProgress (4 bits, 0..15)
+ *   48..53  mover index             (6 bits, turn-order position 0..63)
+ *   54..59  victim index            (6 bits, turn-order position 0..63)
+ *   60      hit
+ *   61      overshoot
+ *   62      won
+ *   63      escape: the move did not fit; bits 0..31 index an overflow record instead
+ * </pre>
+ *
+ * <p>Player and victim names are stored as indices, so decoding needs the same player list
+ * that was used for encoding (see {@link CompactTimeline}). A played move always has an empty
+ * note; anything else (non-empty note, unknown names, out-of-range values) must be escaped.
+ */
+public final class PackedMove {
+
+    public static final int MAX_PROGRESS = (1 << 20) - 1;
+    public static final int MAX_PLAYERS = 1 << 6;
+
+    private static final int VICTIM_SQUARE_SHIFT = 20;
+    private static final int ROLL_SHIFT = 40;
+    private static final int DELTA_SHIFT = 44;
+    private static final int PLAYER_SHIFT = 48;
+    private static final int VICTIM_SHIFT = 54;
+
+    private static final long HIT_BIT = 1L << 60;
+    private static final long OVERSHOOT_BIT = 1L << 61;
+    private static final long WON_BIT = 1L << 62;
+    private static final long ESCAPE_BIT = 1L << 63;
+
+    private PackedMove() {
+    }
+
+    /**
+     * @param victimIndex  turn-order index of the victim, or -1 if there is none
+     * @param victimSquare absolute main-ring position of the victim, or 0 if there is none
+     * @return the packed move, or {@code -1} ({@link #isEscape escape} with no index) if any
+     *         field is out of range for this layout
+     */
+    public static long encode(int playerIndex,
+                              int roll,
+                              int fromProgress,
+                              int toProgress,
+                              boolean hit,
+                              boolean overshoot,
+                              boolean won,
+                              int victimIndex,
+                              int victimSquare) {
+
+        int delta = toProgress - fromProgress;
+        if (playerIndex < 0 || playerIndex >= MAX_PLAYERS
+                || roll < 0 || roll > 15
+                || delta < 0 || delta > 15
+                || fromProgress < 0 || fromProgress > MAX_PROGRESS
+                || victimIndex < -1 || victimIndex >= MAX_PLAYERS
+                || victimSquare < 0 || victimSquare > MAX_PROGRESS
+                || (victimIndex < 0) != (victimSquare == 0)) {
+            return -1L;
+        }
+
+        long packed = fromProgress
+                | (long) victimSquare << VICTIM_SQUARE_SHIFT
+                | (long) roll << ROLL_SHIFT
+                | (long) delta << DELTA_SHIFT
+                | (long) playerIndex << PLAYER_SHIFT
+                | (long) Math.max(victimIndex, 0) << VICTIM_SHIFT;
+
+        if (hit) packed |= HIT_BIT;
+        if (overshoot) packed |= OVERSHOOT_BIT;
+        if (won) packed |= WON_BIT;
+        return packed;
+    }
+
+    public static long escape(int overflowIndex) {
+        return ESCAPE_BIT | (overflowIndex & 0xFFFF_FFFFL);
+    }
+
+    public static boolean isEscape(long packed) {
+        return packed < 0;
+    }
+
+    public static int overflowIndex(long packed) {
+        return (int) packed;
+    }
+
+    public static int fromProgress(long packed) {
+        return (int) (packed & MAX_PROGRESS);
+    }
+
+    public static int toProgress(long packed) {
+        return fromProgress(packed) + (int) (packed >>> DELTA_SHIFT & 0xF);
+    }
+
+    public static int roll(long packed) {
+        return (int) (packed >>> ROLL_SHIFT & 0xF);
+    }
+
+    public static int playerIndex(long packed) {
+        return (int) (packed >>> PLAYER_SHIFT & 0x3F);
+    }
+
+    /**
+     * @return the victim's turn-order index, or -1 if the move has no victim
+     */
+    public static int victimIndex(long packed) {
+        return victimSquare(packed) == 0 ? -1 : (int) (packed >>> VICTIM_SHIFT & 0x3F);
+    }
+
+    /**
+     * @return the victim's absolute main-ring position, or 0 if the move has no victim
+     */
+    public static int victimSquare(long packed) {
+        return (int) (packed >>> VICTIM_SQUARE_SHIFT & MAX_PROGRESS);
+    }
+
+    public static boolean hit(long packed) {
+        return (packed & HIT_BIT) != 0;
+    }
+
+    public static boolean overshoot(long packed) {
+        return (packed & OVERSHOOT_BIT) != 0;
+    }
+
+    public static boolean won(long packed) {
+        return (packed & WON_BIT) != 0;
+    }
+}
@@ -24,6 +24,9 @@ public class Player {
     // Turn counting is intentionally done at Game/InPlayState, not in rules.
     private int turnsTaken = 0;
 
+    // Lookup tables for the board last asked about (see Board.geometryFor).
+    private BoardGeometry geometry;
+
     public Player(String name, int homeIndex, String colourLetter) {
         if (name == null || name.isBlank()) {
             throw new IllegalArgumentException("name is required");
@@ -60,6 +63,14 @@ public class Player {
         this.progress = progress;
     }
 
+    BoardGeometry geometry() {
+        return geometry;
+    }
+
+    void cacheGeometry(BoardGeometry geometry) {
+        this.geometry = geometry;
+    }
+
     public int getTurnsTaken() {
         return turnsTaken;
     }
@@ -1,8 +1,12 @@
 package uk.ac.mmu.game.domain;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
  * Rolls two single dice and sums them (2–12).
  * Implemented as a Singleton.
+ *
+ * <p>Both dice come from the calling thread's {@link ThreadLocalRandom}.
  */
 public final class RandomDoubleDiceShaker implements DiceShaker {
 
@@ -13,7 +17,7 @@ public final class RandomDoubleDiceShaker implements DiceShaker {
 
     @Override
     public int shake() {
-        return RandomSingleDiceShaker.INSTANCE.shake()
-                + RandomSingleDiceShaker.INSTANCE.shake();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return random.nextInt(6) + 1 + random.nextInt(6) + 1;
     }
 }
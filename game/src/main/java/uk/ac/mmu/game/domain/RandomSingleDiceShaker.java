@@ -1,22 +1,23 @@
 package uk.ac.mmu.game.domain;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Generates a random number between 1 and 6.
  * Implemented as a Singleton (stateless API).
+ *
+ * <p>Rolls come from the calling thread's {@link ThreadLocalRandom}, so concurrent games
+ * never contend on a shared seed. Use {@link SeededDiceShaker} when rolls must be reproducible.
  */
 public final class RandomSingleDiceShaker implements DiceShaker {
 
     public static final RandomSingleDiceShaker INSTANCE = new RandomSingleDiceShaker();
 
-    private final Random random = new Random();
-
     private RandomSingleDiceShaker() {
     }
 
     @Override
     public int shake() {
-        return random.nextInt(6) + 1;
+        return ThreadLocalRandom.current().nextInt(6) + 1;
     }
 }
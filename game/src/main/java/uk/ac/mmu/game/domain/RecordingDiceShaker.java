@@ -1,9 +1,5 @@
 package uk.ac.mmu.game.domain;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 /**
  * Decorator that records every roll produced by the delegate.
  * Used for game save / replay (store config + roll sequence).
@@ -11,7 +7,7 @@ import java.util.List;
 public class RecordingDiceShaker implements DiceShaker {
 
     private final DiceShaker delegate;
-    private final List<Integer> rolls = new ArrayList<>();
+    private final RollSequence.Builder rolls = new RollSequence.Builder();
 
     public RecordingDiceShaker(DiceShaker delegate) {
         if (delegate == null) {
@@ -27,7 +23,10 @@ public class RecordingDiceShaker implements DiceShaker {
         return value;
     }
 
-    public List<Integer> getRolls() {
-        return Collections.unmodifiableList(rolls);
+    /**
+     * @return the rolls so far (a snapshot: later rolls are not added to it)
+     */
+    public RollSequence getRolls() {
+        return rolls.build();
     }
 }
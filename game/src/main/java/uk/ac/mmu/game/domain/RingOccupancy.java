@@ -0,0 +1,130 @@
+package uk.ac.mmu.game.domain;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index from absolute main-ring square (1..mainSize) to the players standing on it.
+ *
+ * <p>Owned by {@link Game} for its board and players and kept up to date by {@link Rules#apply}
+ * as moves are made, so {@link HitInfo#detect(Board, Player, int, RingOccupancy)} can find an
+ * occupant with one array lookup instead of scanning every player.
+ *
+ * <p>Each square holds an intrusive singly-linked list of player slots (turn-order positions)
+ * kept in ascending order, so the first occupant found is the same one a scan of the player
+ * list in turn order would find.
+ */
+public final class RingOccupancy {
+
+    private static final int NONE = -1;
+
+    private final Board board;
+    private final Player[] players;
+    private final Map<Player, Integer> slots = new IdentityHashMap<>();
+
+    private final int[] head;   // by absolute square -> first slot, or NONE
+    private final int[] next;   // by slot -> next slot on the same square, or NONE
+    private final int[] square; // by slot -> absolute square, or 0 when off the ring (tail)
+
+    /**
+     * Indexes the players' current positions; list order decides who is reported first.
+     */
+    public RingOccupancy(Board board, List<Player> players) {
+        this.board = board;
+        this.players = players.toArray(new Player[0]);
+        this.head = new int[board.mainSize() + 1];
+        this.next = new int[this.players.length];
+        this.square = new int[this.players.length];
+
+        Arrays.fill(head, NONE);
+        for (int slot = 0; slot < this.players.length; slot++) {
+            Player p = this.players[slot];
+            slots.put(p, slot);
+            square[slot] = squareFor(p, p.getProgress());
+            link(slot);
+        }
+    }
+
+    /**
+     * Whether this index tracks positions on the given board.
+     */
+    public boolean covers(Board board) {
+        return this.board == board;
+    }
+
+    /**
+     * First player (in turn order) standing on {@code absSquare}, ignoring {@code mover}.
+     *
+     * @return the occupant, or null if nobody else is on that square
+     */
+    public Player firstOccupantOtherThan(int absSquare, Player mover) {
+        if (absSquare < 1 || absSquare >= head.length) return null;
+
+        for (int slot = head[absSquare]; slot != NONE; slot = next[slot]) {
+            if (players[slot] != mover) {
+                return players[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Re-indexes {@code player} at its current progress; called by rules after moving it.
+     */
+    public void moved(Player player) {
+        Integer slot = slots.get(player);
+        if (slot == null) {
+            throw new IllegalArgumentException("player is not indexed: " + player.getName());
+        }
+        moved(slot, player.getProgress());
+    }
+
+    private void moved(int slot, int newProgress) {
+        int newSquare = squareFor(players[slot], newProgress);
+        if (newSquare == square[slot]) return;
+
+        unlink(slot);
+        square[slot] = newSquare;
+        link(slot);
+    }
+
+    private int squareFor(Player player, int progress) {
+        return board.geometryFor(player).square(progress);
+    }
+
+    private void link(int slot) {
+        int sq = square[slot];
+        if (sq == 0) return;
+
+        if (head[sq] == NONE || head[sq] > slot) {
+            next[slot] = head[sq];
+            head[sq] = slot;
+            return;
+        }
+
+        int prev = head[sq];
+        while (next[prev] != NONE && next[prev] < slot) {
+            prev = next[prev];
+        }
+        next[slot] = next[prev];
+        next[prev] = slot;
+    }
+
+    private void unlink(int slot) {
+        int sq = square[slot];
+        if (sq == 0) return;
+
+        if (head[sq] == slot) {
+            head[sq] = next[slot];
+        } else {
+            int prev = head[sq];
+            while (next[prev] != slot) {
+                prev = next[prev];
+            }
+            next[prev] = next[slot];
+        }
+        next[slot] = NONE;
+    }
+}
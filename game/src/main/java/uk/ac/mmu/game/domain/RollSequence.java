@@ -0,0 +1,110 @@
+package uk.ac.mmu.game.domain;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable sequence of dice rolls, one byte per roll.
+ *
+ * <p>Rolls are 1-12, so a byte array holds them at a quarter of the size of an {@code int[]} and
+ * a small fraction of a {@code List<Integer>}. Read it with {@link #size()} and {@link #getInt};
+ * it is also a read-only {@code List<Integer>} for code that wants one, whose elements come from
+ * the {@link Integer} cache rather than being allocated.
+ */
+public final class RollSequence extends AbstractList<Integer> implements RandomAccess {
+
+    private static final RollSequence EMPTY = new RollSequence(new byte[0]);
+
+    private final byte[] rolls;
+
+    private RollSequence(byte[] rolls) {
+        this.rolls = rolls;
+    }
+
+    public static RollSequence of(int... rolls) {
+        Builder builder = new Builder(rolls.length);
+        for (int roll : rolls) {
+            builder.add(roll);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return {@code rolls} itself if it is already a RollSequence, otherwise a copy
+     */
+    public static RollSequence copyOf(List<Integer> rolls) {
+        if (rolls instanceof RollSequence sequence) return sequence;
+        Builder builder = new Builder(rolls.size());
+        for (Integer roll : rolls) {
+            builder.add(roll);
+        }
+        return builder.build();
+    }
+
+    public int getInt(int index) {
+        return rolls[index];
+    }
+
+    @Override
+    public Integer get(int index) {
+        return getInt(index);
+    }
+
+    @Override
+    public int size() {
+        return rolls.length;
+    }
+
+    public int[] toIntArray() {
+        int[] values = new int[rolls.length];
+        for (int i = 0; i < rolls.length; i++) {
+            values[i] = rolls[i];
+        }
+        return values;
+    }
+
+    /**
+     * Growable buffer of rolls, for recording a game or reading a saved roll list.
+     * Not thread-safe.
+     */
+    public static final class Builder {
+
+        private byte[] rolls;
+        private int size;
+
+        public Builder() {
+            this(64);
+        }
+
+        public Builder(int expected) {
+            this.rolls = new byte[Math.max(expected, 8)];
+        }
+
+        /**
+         * @throws IllegalArgumentException if {@code roll} is not 0-127
+         */
+        public Builder add(int roll) {
+            if (roll < 0 || roll > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("roll out of range: " + roll);
+            }
+            if (size == rolls.length) {
+                rolls = Arrays.copyOf(rolls, size * 2);
+            }
+            rolls[size++] = (byte) roll;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return the rolls added so far; the builder can carry on adding afterwards
+         */
+        public RollSequence build() {
+            return size == 0 ? EMPTY : new RollSequence(Arrays.copyOf(rolls, size));
+        }
+    }
+}
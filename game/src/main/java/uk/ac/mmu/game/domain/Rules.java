@@ -9,5 +9,17 @@ import java.util.List;
  * Turn counting happens in the game loop (InPlayState) so forfeits can skip counting.
  */
 public interface Rules {
-    MoveResult apply(Board board, Player current, int roll, List<Player> allPlayers);
+
+    /**
+     * Applies one roll for {@code current}. Rules that move the player re-index it in
+     * {@code occupancy} (the game's record of who stands where), which hit detection reads.
+     */
+    MoveResult apply(Board board, Player current, int roll, RingOccupancy occupancy);
+
+    /**
+     * Applies one roll outside a {@link Game}, indexing {@code allPlayers} just for this move.
+     */
+    default MoveResult apply(Board board, Player current, int roll, List<Player> allPlayers) {
+        return apply(board, current, roll, new RingOccupancy(board, allPlayers));
+    }
 }
@@ -0,0 +1,52 @@
+package uk.ac.mmu.game.domain;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one Rules.apply call. Each decorator emits its own event around its inner
+ * rules, so a recording shows the decorator chain as nested events.
+ * Disabled by default, see {@link TurnEvent}.
+ */
+@Name("uk.ac.mmu.game.RulesEvaluation")
+@Label("Rules Evaluation")
+@Category({"Game", "Engine"})
+@Description("One layer of the rules decorator chain deciding a move")
+@Enabled(false)
+@StackTrace(false)
+final class RulesEvaluationEvent extends jdk.jfr.Event {
+
+    @Label("Rules")
+    String rules;
+
+    @Label("Player")
+    String player;
+
+    @Label("Roll")
+    int roll;
+
+    @Label("Forfeited")
+    boolean forfeited;
+
+    @Label("Hit")
+    boolean hit;
+
+    /**
+     * Commits {@code event} (begun before the rules ran) if the recording wants it.
+     */
+    static MoveResult commit(RulesEvaluationEvent event, String rules, int roll, MoveResult result) {
+        if (event.shouldCommit()) {
+            event.rules = rules;
+            event.player = result.player();
+            event.roll = roll;
+            event.forfeited = result.forfeited();
+            event.hit = result.hit();
+            event.commit();
+        }
+        return result;
+    }
+}
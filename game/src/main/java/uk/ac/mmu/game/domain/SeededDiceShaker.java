@@ -0,0 +1,95 @@
+package uk.ac.mmu.game.domain;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Dice shaker driven by an explicitly seeded {@link RandomGenerator}.
+ *
+ * <p>Unlike the Random* singletons, every instance owns its own stream:
+ * the same algorithm and seed always yield the same roll sequence, and instances used on
+ * different threads never contend with each other. {@link #split()} hands out further
+ * independent streams (e.g. one per thread or per game) that are themselves reproducible.
+ *
+ * <p>Any algorithm known to {@link RandomGeneratorFactory} can be named,
+ * e.g. "L64X128MixRandom" (the default) or "SplittableRandom".
+ *
+ * <p>Not thread-safe: give each thread its own instance (see {@link #split()}).
+ */
+public final class SeededDiceShaker implements DiceShaker {
+
+    public static final String DEFAULT_ALGORITHM = "L64X128MixRandom";
+
+    private static final Map<String, RandomGeneratorFactory<RandomGenerator>> FACTORIES = new ConcurrentHashMap<>();
+
+    private final RandomGenerator random;
+    private final String algorithm;
+    private final long seed;
+    private final boolean singleDie;
+    private int shaken;
+
+    public SeededDiceShaker(long seed, boolean singleDie) {
+        this(DEFAULT_ALGORITHM, seed, singleDie);
+    }
+
+    public SeededDiceShaker(String algorithm, long seed, boolean singleDie) {
+        this.random = factoryFor(algorithm).create(seed);
+        this.algorithm = algorithm;
+        this.seed = seed;
+        this.singleDie = singleDie;
+    }
+
+    /**
+     * Checks that {@code algorithm} names an available generator.
+     *
+     * @throws IllegalArgumentException if it does not
+     */
+    public static void requireAlgorithm(String algorithm) {
+        factoryFor(algorithm);
+    }
+
+    private static RandomGeneratorFactory<RandomGenerator> factoryFor(String algorithm) {
+        if (algorithm == null || algorithm.isBlank()) {
+            throw new IllegalArgumentException("algorithm is required");
+        }
+        return FACTORIES.computeIfAbsent(algorithm, RandomGeneratorFactory::of);
+    }
+
+    @Override
+    public int shake() {
+        shaken++;
+        int roll = random.nextInt(6) + 1;
+        return singleDie ? roll : roll + random.nextInt(6) + 1;
+    }
+
+    /**
+     * Returns a new shaker with its own stream, seeded from this one.
+     *
+     * <p>The child's seed is drawn from this stream, so a given parent always produces the
+     * same sequence of children, and each child can be recreated from {@link #seed()} alone.
+     */
+    public SeededDiceShaker split() {
+        return new SeededDiceShaker(algorithm, random.nextLong(), singleDie);
+    }
+
+    /**
+     * Rolls made so far: how many a replay from {@link #seed()} has to make to get this far.
+     */
+    public int shaken() {
+        return shaken;
+    }
+
+    public String algorithm() {
+        return algorithm;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    public boolean singleDie() {
+        return singleDie;
+    }
+}
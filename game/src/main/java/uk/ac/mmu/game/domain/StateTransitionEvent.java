@@ -0,0 +1,28 @@
+package uk.ac.mmu.game.domain;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for {@link Game#switchTo} (including the new state's enter() and state observers).
+ * Disabled by default, see {@link TurnEvent}.
+ */
+@Name("uk.ac.mmu.game.StateTransition")
+@Label("Game State Transition")
+@Category({"Game", "Engine"})
+@Description("Game lifecycle state change")
+@Enabled(false)
+final class StateTransitionEvent extends jdk.jfr.Event {
+
+    @Label("From State")
+    String fromState;
+
+    @Label("To State")
+    String toState;
+
+    @Label("Moves Played")
+    int moves;
+}
@@ -0,0 +1,49 @@
+package uk.ac.mmu.game.domain;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one {@link InPlayState#playTurn} (dice shake, rules, bookkeeping and observers).
+ *
+ * <p>Disabled by default; enable it in a recording settings file or with e.g.
+ * {@code -XX:StartFlightRecording:settings=profile,+uk.ac.mmu.game.Turn#enabled=true}.
+ * While disabled, JFR leaves the class uninstrumented, so begin/commit are no-ops and the
+ * JIT removes the event object altogether.
+ */
+@Name("uk.ac.mmu.game.Turn")
+@Label("Turn")
+@Category({"Game", "Engine"})
+@Description("One turn played by InPlayState")
+@Enabled(false)
+@StackTrace(false)
+final class TurnEvent extends jdk.jfr.Event {
+
+    @Label("Player")
+    String player;
+
+    @Label("Roll")
+    int roll;
+
+    @Label("From Progress")
+    int fromProgress;
+
+    @Label("To Progress")
+    int toProgress;
+
+    @Label("Forfeited")
+    boolean forfeited;
+
+    @Label("Hit")
+    boolean hit;
+
+    @Label("Overshoot")
+    boolean overshoot;
+
+    @Label("Won")
+    boolean won;
+}
@@ -24,6 +24,13 @@ public class TurnOrder {
         return players.get(index);
     }
 
+    /**
+     * Position of the current player in turn order (0-based).
+     */
+    public int currentIndex() {
+        return index;
+    }
+
     public Player next() {
         index = (index + 1) % players.size();
         return current();
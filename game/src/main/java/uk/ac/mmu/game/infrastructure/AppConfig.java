@@ -1,9 +1,16 @@
 package uk.ac.mmu.game.infrastructure;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import uk.ac.mmu.game.usecase.*;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
 /**
  * Spring DI configuration (wiring).
  *
@@ -14,23 +21,85 @@ import uk.ac.mmu.game.usecase.*;
 public class AppConfig {
 
     @Bean
-    public GameOutputPort outputPort() {
-        return new ConsoleOutputAdapter();
+    public AsyncConsoleWriter consoleWriter() {
+        // Closed by Spring on shutdown, which writes out anything still buffered.
+        return new AsyncConsoleWriter(System.out);
+    }
+
+    @Bean
+    public BufferedConsoleOutputAdapter outputPort(AsyncConsoleWriter writer) {
+        return new BufferedConsoleOutputAdapter(writer);
+    }
+
+    @Bean
+    public MetricsRegistry metricsRegistry() {
+        return new MetricsRegistry();
+    }
+
+    @Bean
+    public PrometheusMetricsExporter metricsExporter(MetricsRegistry registry,
+                                                     @Value("${game.metrics.enabled:false}") boolean enabled,
+                                                     @Value("${game.metrics.file:}") String file,
+                                                     @Value("${game.metrics.port:0}") int port,
+                                                     @Value("${game.metrics.dump-interval-ms:5000}") long intervalMs)
+            throws IOException {
+        // Nothing is written or served unless metrics are enabled, and the file only at an explicit path.
+        if (!enabled) return new PrometheusMetricsExporter(registry, null, 0, Duration.ofMillis(intervalMs));
+        return new PrometheusMetricsExporter(registry, file.isBlank() ? null : Paths.get(file), port,
+                Duration.ofMillis(intervalMs));
+    }
+
+    @Bean
+    public GameFactory gameFactory(@Value("${game.dice.algorithm:L64X128MixRandom}") String rngAlgorithm,
+                                   @Value("${game.metrics.enabled:false}") boolean metricsEnabled,
+                                   MetricsRegistry registry) {
+        // Metrics observe every new game (played, simulated with engine=game, or hosted).
+        return new GameFactory(rngAlgorithm,
+                metricsEnabled ? List.of(new MetricsGameObserver(registry)) : List.of());
+    }
+
+    @Bean
+    public SaveLogPolicy saveLogPolicy(@Value("${game.saves.segment-bytes:67108864}") long segmentBytes,
+                                       @Value("${game.saves.retention.max-age-days:0}") long maxAgeDays,
+                                       @Value("${game.saves.retention.max-saves:0}") long maxSaves) {
+        return new SaveLogPolicy(segmentBytes, maxAgeDays > 0 ? Duration.ofDays(maxAgeDays) : null, maxSaves);
     }
 
     @Bean
-    public GameFactory gameFactory() {
-        return new GameFactory();
+    public GameSaveRepository gameSaveRepository(@Value("${game.saves.format:json}") String format,
+                                                 @Value("${game.saves.durability:periodic}") String durability,
+                                                 @Value("${game.saves.force-interval-ms:1000}") long forceIntervalMs,
+                                                 @Value("${game.metrics.enabled:false}") boolean metricsEnabled,
+                                                 SaveLogPolicy policy,
+                                                 MetricsRegistry registry) {
+        // Closed by Spring on shutdown, which writes out any saves still queued.
+        Path saves = Paths.get(System.getProperty("user.dir"), "target", "saves");
+        WriteBehindAppender.Durability mode = WriteBehindAppender.Durability.valueOf(durability.toUpperCase());
+        Duration interval = Duration.ofMillis(forceIntervalMs);
+        GameSaveRepository repository = switch (format) {
+            case "json" -> new JsonLinesGameSaveRepository(saves.resolve("games.json"), mode, interval, policy);
+            case "binary" -> new BinaryGameSaveRepository(saves.resolve("games.bin"), mode, interval);
+            default -> throw new IllegalArgumentException("game.saves.format must be json or binary, not " + format);
+        };
+        return metricsEnabled ? new MeteredGameSaveRepository(repository, registry) : repository;
     }
 
     @Bean
-    public GameSaveRepository gameSaveRepository() {
-        return new JsonLinesGameSaveRepository();
+    public SaveFormatConverter saveFormatConverter() {
+        Path saves = Paths.get(System.getProperty("user.dir"), "target", "saves");
+        return new SaveFormatConverter(saves.resolve("games.json"), saves.resolve("games.bin"));
     }
 
     @Bean
-    public GameEventMediator gameEventMediator() {
-        return new ConsoleGameEventMediator();
+    public SaveLogCompactor saveLogCompactor(SaveLogPolicy policy) {
+        Path saves = Paths.get(System.getProperty("user.dir"), "target", "saves");
+        return new SaveLogCompactor(saves.resolve("games.json"), policy);
+    }
+
+    @Bean
+    public GameEventMediator gameEventMediator(BufferedConsoleOutputAdapter output) {
+        // Same writer as the game output, so events stay in line with it.
+        return new ConsoleGameEventMediator(output);
     }
 
     @Bean
@@ -48,4 +117,22 @@ public class AppConfig {
                                                GameEventMediator mediator) {
         return new ReplayGameUseCase(repository, factory, output, mediator);
     }
+
+    @Bean
+    public SimulateGamesUseCase simulateGamesUseCase(GameFactory factory) {
+        return new SimulateGamesUseCase(factory);
+    }
+
+    @Bean
+    public GameSessionHost gameSessionHost(GameFactory factory,
+                                           @Value("${game.host.max-sessions:100000}") int maxSessions,
+                                           @Value("${game.host.max-moves:100000}") int maxMoves,
+                                           @Value("${game.host.turn-delay-ms:10}") long turnDelayMs) {
+        return new GameSessionHost(factory, maxSessions, maxMoves, Duration.ofMillis(turnDelayMs));
+    }
+
+    @Bean
+    public OddsSolver oddsSolver(GameFactory factory) {
+        return new OddsSolver(factory);
+    }
 }
@@ -0,0 +1,155 @@
+package uk.ac.mmu.game.infrastructure;
+
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes console text from one background thread, in batches.
+ *
+ * <p>{@link #write} only appends to a reusable buffer. Once about {@link #BATCH_CHARS} have built
+ * up, they are encoded in one go and queued for the writer thread, which hands everything queued
+ * to the stream with one {@code write} and one {@code flush}. A game of thousands of lines costs a
+ * handful of locked stream calls instead of one formatted, auto-flushed call per line.
+ *
+ * <p>Text is encoded with the stream's own charset, so the bytes are the ones the stream would
+ * have produced. The queue is bounded: a caller producing text faster than the terminal takes it
+ * blocks rather than buffering without limit. {@link #flush} waits until everything written so
+ * far has reached the stream, and {@link #close} (run by Spring on exit) does the same.
+ */
+public class AsyncConsoleWriter implements AutoCloseable {
+
+    static final int BATCH_CHARS = 8192;
+    private static final int QUEUE_CAPACITY = 64;
+    private static final byte[] STOP = new byte[0];
+
+    private final PrintStream out;
+    private final Charset charset;
+    private final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writer;
+
+    private final StringBuilder pending = new StringBuilder(BATCH_CHARS * 2); // guarded by this
+    private long enqueued;                                                     // guarded by this
+    private boolean closed;                                                    // guarded by this
+
+    private final Object progress = new Object();
+    private long written; // guarded by progress
+
+    public AsyncConsoleWriter(PrintStream out) {
+        if (out == null) throw new IllegalArgumentException("out is required");
+        this.out = out;
+        this.charset = out.charset();
+        this.writer = Thread.ofPlatform()
+                .name("console-writer")
+                .daemon(true)
+                .start(this::run);
+    }
+
+    /**
+     * Buffers {@code text}, queueing the buffer for the writer thread once it is large enough.
+     * After {@link #close} the text goes straight to the stream.
+     */
+    public synchronized void write(CharSequence text) {
+        if (closed) {
+            out.append(text);
+            return;
+        }
+        pending.append(text);
+        if (pending.length() >= BATCH_CHARS) {
+            handOff();
+        }
+    }
+
+    /**
+     * Blocks until everything written so far has been handed to the stream and flushed.
+     */
+    public void flush() {
+        long upTo;
+        synchronized (this) {
+            if (closed) return;
+            handOff();
+            upTo = enqueued;
+        }
+        synchronized (progress) {
+            while (written < upTo) {
+                try {
+                    progress.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handOff() {
+        if (pending.isEmpty()) return;
+        byte[] batch = pending.toString().getBytes(charset);
+        pending.setLength(0);
+        enqueue(batch);
+        enqueued++;
+    }
+
+    /**
+     * Queues a batch, waiting out interrupts so no text is lost or reordered.
+     */
+    private void enqueue(byte[] batch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(batch);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private void run() {
+        while (true) {
+            byte[] batch;
+            try {
+                batch = queue.take();
+            } catch (InterruptedException e) {
+                return; // only a daemon thread being torn down is interrupted
+            }
+
+            long count = 0;
+            boolean stop = false;
+            while (batch != null) {
+                if (batch == STOP) {
+                    stop = true;
+                    break;
+                }
+                out.write(batch, 0, batch.length);
+                count++;
+                batch = queue.poll();
+            }
+            out.flush();
+
+            synchronized (progress) {
+                written += count;
+                progress.notifyAll();
+            }
+            if (stop) return;
+        }
+    }
+
+    /**
+     * Writes out everything still buffered, then stops the writer thread.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        handOff();
+        enqueue(STOP);
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
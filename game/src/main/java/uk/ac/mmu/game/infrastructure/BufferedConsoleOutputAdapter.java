@@ -0,0 +1,153 @@
+package uk.ac.mmu.game.infrastructure;
+
+import uk.ac.mmu.game.domain.Board;
+import uk.ac.mmu.game.domain.BoardGeometry;
+import uk.ac.mmu.game.domain.Game;
+import uk.ac.mmu.game.domain.MoveResult;
+import uk.ac.mmu.game.domain.Player;
+import uk.ac.mmu.game.usecase.GameOutputPort;
+
+/**
+ * Console presenter + domain observer that writes through an {@link AsyncConsoleWriter}.
+ *
+ * <p>Each line is appended to a reusable {@link StringBuilder} instead of going through
+ * {@code printf}, so a turn costs no format-string parsing and no locked, auto-flushed stream call.
+ * The writer sends the text to the terminal in batches; {@link #flush} (called by the use cases
+ * when a game ends) waits for it.
+ *
+ * <p>{@link OutputMode} trims the output. Skipped lines are never formatted, so a summary-only or
+ * quiet game does no per-turn presentation work at all.
+ */
+public class BufferedConsoleOutputAdapter implements GameOutputPort {
+
+    private static final String NL = System.lineSeparator();
+
+    private final AsyncConsoleWriter writer;
+    private final StringBuilder line = new StringBuilder(128);
+    private volatile OutputMode mode = OutputMode.FULL;
+    private Board board;
+
+    public BufferedConsoleOutputAdapter(AsyncConsoleWriter writer) {
+        if (writer == null) throw new IllegalArgumentException("writer is required");
+        this.writer = writer;
+    }
+
+    public void setMode(OutputMode mode) {
+        if (mode == null) throw new IllegalArgumentException("mode is required");
+        this.mode = mode;
+    }
+
+    public OutputMode mode() {
+        return mode;
+    }
+
+    @Override
+    public void setBoard(Board board) {
+        this.board = board;
+    }
+
+    @Override
+    public synchronized void printTurn(MoveResult r, int turnsForPlayer, Player playerCtx) {
+        if (!mode.showsTurns()) return;
+
+        line.setLength(0);
+        line.append(r.player()).append(" turn ").append(turnsForPlayer).append(" rolls ").append(r.roll()).append(NL);
+
+        if (r.hit() && r.hitVictimName() != null && r.hitVictimPos() != null) {
+            line.append(r.hitVictimName()).append(" Position ").append(r.hitVictimPos()).append(" hit!").append(NL);
+        }
+
+        if (r.overshoot()) {
+            line.append(r.player()).append(" overshoots!").append(NL);
+        }
+
+        BoardGeometry geometry = board.geometryFor(playerCtx);
+        if (r.fromProgress() == r.toProgress()) {
+            line.append(r.player()).append(" remains at ").append(geometry.label(r.toProgress())).append(NL);
+        } else {
+            line.append(r.player()).append(" moves from ").append(geometry.label(r.fromProgress()))
+                    .append(" to ").append(geometry.label(r.toProgress())).append(NL);
+        }
+        writer.write(line);
+    }
+
+    @Override
+    public synchronized void printWinner(String playerName, int totalTurns, int winnerTurns) {
+        if (!mode.showsSummary()) return;
+
+        line.setLength(0);
+        line.append(NL).append(playerName).append(" wins in ").append(winnerTurns).append(" turns!").append(NL)
+                .append("Total turns ").append(totalTurns).append(NL);
+        writer.write(line);
+    }
+
+    @Override
+    public void printConfig(Object cfg) {
+        if (mode.showsSummary()) printLine(String.valueOf(cfg));
+    }
+
+    @Override
+    public void printGameOver() {
+        if (mode.showsSummary()) printLine("Game over");
+    }
+
+    @Override
+    public synchronized void printState(String from, String to) {
+        if (!mode.showsTurns()) return;
+
+        line.setLength(0);
+        line.append("Game state ").append(from).append(" -> ").append(to).append(NL);
+        writer.write(line);
+    }
+
+    /**
+     * Prints a mediator event in line with the game output, unless quiet.
+     */
+    public void event(String message) {
+        if (mode.showsSummary()) printLine("[Mediator] " + message);
+    }
+
+    /**
+     * Prints a line of the runner's own reports (listings, query matches, simulation and odds
+     * tables). They are what the command was run for, so no {@link OutputMode} hides them.
+     */
+    public void println(Object text) {
+        printLine(String.valueOf(text));
+    }
+
+    /**
+     * Formats and prints report text like {@link java.io.PrintStream#printf}; see {@link #println}.
+     */
+    public void printf(String format, Object... args) {
+        writer.write(String.format(format, args));
+    }
+
+    @Override
+    public void flush() {
+        writer.flush();
+    }
+
+    private synchronized void printLine(String text) {
+        line.setLength(0);
+        line.append(text).append(NL);
+        writer.write(line);
+    }
+
+    // Observer callbacks
+
+    @Override
+    public void onStateChanged(Game game, String from, String to) {
+        printState(from, to);
+    }
+
+    @Override
+    public void onTurnPlayed(Game game, MoveResult result, Player currentPlayer) {
+        if (!mode.showsTurns()) return;
+        printTurn(result, currentPlayer.getTurnsTaken(), currentPlayer);
+    }
+
+    @Override
+    public void onGameFinished(Game game, Player winner, int totalTurns, int winnerTurns) {
+        printWinner(winner != null ? winner.getName() : "N/A", totalTurns, winnerTurns);
+    }
+}
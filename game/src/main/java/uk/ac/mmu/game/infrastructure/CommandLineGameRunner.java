@@ -4,11 +4,29 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 import uk.ac.mmu.game.usecase.GameSave;
 import uk.ac.mmu.game.usecase.GameSaveRepository;
+import uk.ac.mmu.game.usecase.GameSession;
+import uk.ac.mmu.game.usecase.GameSessionHost;
+import uk.ac.mmu.game.usecase.OddsResult;
+import uk.ac.mmu.game.usecase.OddsSolver;
 import uk.ac.mmu.game.usecase.PlayGameUseCase;
 import uk.ac.mmu.game.usecase.ReplayGameUseCase;
+import uk.ac.mmu.game.usecase.ReplayOutcome;
+import uk.ac.mmu.game.usecase.SaveQuery;
+import uk.ac.mmu.game.usecase.SaveSummary;
+import uk.ac.mmu.game.usecase.SimulateGamesUseCase;
+import uk.ac.mmu.game.usecase.SimulationConfig;
+import uk.ac.mmu.game.usecase.SimulationEngine;
+import uk.ac.mmu.game.usecase.SimulationReport;
 
-import java.util.List;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
 
 /**
  * Console entry point.
@@ -17,35 +35,113 @@ import java.util.UUID;
 @Component
 public class CommandLineGameRunner implements CommandLineRunner {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
     private final PlayGameUseCase play;
     private final ReplayGameUseCase replay;
+    private final SimulateGamesUseCase simulate;
+    private final OddsSolver solver;
+    private final GameSessionHost host;
     private final GameSaveRepository repository;
+    private final SaveFormatConverter converter;
+    private final SaveLogCompactor compactor;
+    private final BufferedConsoleOutputAdapter output;
 
     public CommandLineGameRunner(PlayGameUseCase play,
                                  ReplayGameUseCase replay,
-                                 GameSaveRepository repository) {
+                                 SimulateGamesUseCase simulate,
+                                 OddsSolver solver,
+                                 GameSessionHost host,
+                                 GameSaveRepository repository,
+                                 SaveFormatConverter converter,
+                                 SaveLogCompactor compactor,
+                                 BufferedConsoleOutputAdapter output) {
         this.play = play;
         this.replay = replay;
+        this.simulate = simulate;
+        this.solver = solver;
+        this.host = host;
         this.repository = repository;
+        this.converter = converter;
+        this.compactor = compactor;
+        this.output = output;
     }
 
     @Override
     public void run(String... args) {
         try {
+            if (hasArg(args, "--quiet")) {
+                output.setMode(OutputMode.QUIET);
+            } else if (hasArg(args, "--summary-only")) {
+                output.setMode(OutputMode.SUMMARY);
+            }
+
             if (hasArg(args, "--list-saves")) {
-                listSavesWithSummary();
+                String pageVal = getArgValue(args, "--page");
+                String pageSizeVal = getArgValue(args, "--page-size");
+                if (pageVal == null && pageSizeVal == null) {
+                    listSavesWithSummary(1, Integer.MAX_VALUE);
+                } else {
+                    listSavesWithSummary(pageVal != null ? Integer.parseInt(pageVal) : 1,
+                            pageSizeVal != null ? Integer.parseInt(pageSizeVal) : DEFAULT_PAGE_SIZE);
+                }
+                return;
+            }
+
+            if (hasArg(args, "--convert-saves")) {
+                SaveFormatConverter.Result result = converter.jsonToBinary();
+                output.printf("Converted %d saves (%d already present): games.json %d bytes, games.bin %d bytes%n",
+                        result.converted(), result.skipped(), result.jsonBytes(), result.binaryBytes());
+                return;
+            }
+
+            if (hasArg(args, "--compact-saves")) {
+                SaveLogCompactor.Result result = compactor.compact();
+                output.printf("Compacted %d sealed segments into %d: kept %d saves, dropped %d duplicates, "
+                                + "%d corrupt lines and %d expired saves (%d -> %d bytes)%n",
+                        result.segmentsBefore(), result.segmentsAfter(), result.kept(), result.duplicates(),
+                        result.malformed(), result.expired(), result.bytesBefore(), result.bytesAfter());
+                return;
+            }
+
+            String queryVal = getArgValue(args, "--query");
+            if (queryVal == null && hasArg(args, "--query")) {
+                queryVal = argAfter(args, "--query"); // --query players=4,exactEnd=true
+            }
+            if (queryVal != null) {
+                printQuery(queryVal);
                 return;
             }
 
             String replayId = getArgValue(args, "--replay");
             if (replayId != null) {
-                replay.replay(UUID.fromString(replayId));
+                UUID id = UUID.fromString(replayId);
+                String fromTurnVal = getArgValue(args, "--from-turn");
+                String turnsVal = getArgValue(args, "--turns");
+
+                if (hasArg(args, "--silent")) {
+                    printOutcome(replay.replaySilently(id));
+                } else if (fromTurnVal != null || turnsVal != null) {
+                    replay.replay(id,
+                            fromTurnVal != null ? Integer.parseInt(fromTurnVal) : 1,
+                            turnsVal != null ? Integer.parseInt(turnsVal) : Integer.MAX_VALUE);
+                } else {
+                    replay.replay(id);
+                }
                 return;
             }
 
             boolean largeBoard = hasArg(args, "--large-board");
             int mainSize = largeBoard ? 36 : 18;
             int tailSize = largeBoard ? 6 : 3;
+            String mainSizeVal = getArgValue(args, "--main-size");
+            if (mainSizeVal != null) {
+                mainSize = Integer.parseInt(mainSizeVal);
+            }
+            String tailSizeVal = getArgValue(args, "--tail-size");
+            if (tailSizeVal != null) {
+                tailSize = Integer.parseInt(tailSizeVal);
+            }
 
             int players = 2;
             String playersVal = getArgValue(args, "--players");
@@ -61,36 +157,237 @@ public class CommandLineGameRunner implements CommandLineRunner {
             boolean exactEnd = hasArg(args, "--exact-end");
             boolean forfeitOnHit = hasArg(args, "--forfeit-on-hit");
 
-            play.execute(mainSize, tailSize, players, singleDie, exactEnd, forfeitOnHit);
+            String seedVal = getArgValue(args, "--seed");
+
+            if (hasArg(args, "--solve")) {
+                OddsResult odds = solver.solve(mainSize, tailSize, players, singleDie, exactEnd, forfeitOnHit);
+                printOdds(odds, mainSize, tailSize, singleDie, exactEnd);
+
+                // Optional cross-check: simulate N games of the same configuration.
+                String checkVal = getArgValue(args, "--check");
+                if (checkVal != null) {
+                    SimulationReport report = simulate.simulate(new SimulationConfig(
+                            mainSize, tailSize, players, singleDie, exactEnd, false,
+                            Long.parseLong(checkVal),
+                            seedVal != null ? Long.parseLong(seedVal) : System.nanoTime(),
+                            0, SimulationConfig.DEFAULT_MAX_MOVES, SimulationEngine.KERNEL
+                    ));
+                    output.printf("Cross-check vs %d simulated games: max win-share deviation %.2f std errors, "
+                                    + "mean turns %.3f (exact %.3f)%n",
+                            report.games(), odds.maxWinShareZScore(report), report.meanTurns(), odds.expectedTurns());
+                }
+                return;
+            }
+
+            String simulateVal = getArgValue(args, "--simulate");
+            if (simulateVal != null) {
+                String threadsVal = getArgValue(args, "--threads");
+                String maxMovesVal = getArgValue(args, "--max-moves");
+                String engineVal = getArgValue(args, "--engine");
+
+                SimulationConfig cfg = new SimulationConfig(
+                        mainSize, tailSize, players, singleDie, exactEnd, forfeitOnHit,
+                        Long.parseLong(simulateVal),
+                        seedVal != null ? Long.parseLong(seedVal) : System.nanoTime(),
+                        threadsVal != null ? Integer.parseInt(threadsVal) : 0,
+                        maxMovesVal != null ? Integer.parseInt(maxMovesVal) : SimulationConfig.DEFAULT_MAX_MOVES,
+                        engineVal != null ? SimulationEngine.valueOf(engineVal.toUpperCase()) : SimulationEngine.GAME
+                );
+                printSimulationReport(simulate.simulate(cfg));
+                return;
+            }
+
+            String hostVal = getArgValue(args, "--host");
+            if (hostVal != null) {
+                hostSessions(Integer.parseInt(hostVal), mainSize, tailSize, players, singleDie, exactEnd, forfeitOnHit,
+                        seedVal != null ? Long.parseLong(seedVal) : System.nanoTime());
+                return;
+            }
+
+            // Saves keep the full roll list unless seed-only saves are asked for.
+            if (hasArg(args, "--seed-saves")) {
+                long seed = seedVal != null ? Long.parseLong(seedVal) : ThreadLocalRandom.current().nextLong();
+                play.execute(mainSize, tailSize, players, singleDie, exactEnd, forfeitOnHit, seed);
+            } else {
+                play.execute(mainSize, tailSize, players, singleDie, exactEnd, forfeitOnHit);
+            }
 
         } catch (Exception ex) {
+            output.flush(); // the report so far goes out before the error
             System.err.println("Error: " + ex.getMessage());
             ex.printStackTrace(System.err);
+        } finally {
+            output.flush();
         }
     }
 
-    private void listSavesWithSummary() throws Exception {
-        List<GameSave> saves = repository.listAll();
+    /**
+     * Prints one page of saves. Indexed repositories seek straight to the page, so later pages
+     * cost no more than the first; the full listing streams every save.
+     */
+    private void listSavesWithSummary(int page, int pageSize) throws Exception {
+        if (page < 1) throw new IllegalArgumentException("--page must be >= 1");
+        if (pageSize < 1) throw new IllegalArgumentException("--page-size must be >= 1");
 
-        if (saves.isEmpty()) {
-            System.out.println("No saved games found.");
-            return;
+        long first = (long) (page - 1) * pageSize;
+        int printed = 0;
+        try (Stream<GameSave> saves = pageSize == Integer.MAX_VALUE
+                ? repository.stream()
+                : repository.page(first, pageSize)) {
+            Iterator<GameSave> it = saves.iterator();
+            while (it.hasNext()) {
+                GameSave s = it.next();
+                if (printed == 0) {
+                    output.println(pageSize == Integer.MAX_VALUE
+                            ? "Saved games (all entries):"
+                            : "Saved games (page " + page + ", " + pageSize + " per page):");
+                }
+                printed++;
+                output.printf(
+                        "%d) %s | board=%d+%d | players=%d | singleDie=%s | exactEnd=%s | forfeitOnHit=%s | %s%n",
+                        first + printed,
+                        s.id,
+                        s.mainSize, s.tailSize,
+                        s.players,
+                        s.singleDie,
+                        s.exactEnd,
+                        s.forfeitOnHit,
+                        s.seeded()
+                                ? "seed=" + s.rngAlgorithm + ":" + s.seed
+                                        + (s.rollCount == null ? "" : " rolls=" + s.rollCount)
+                                : "rolls=" + s.rollsPlayed()
+                );
+            }
         }
 
-        System.out.println("Saved games (all entries):");
-        for (int i = 0; i < saves.size(); i++) {
-            GameSave s = saves.get(i);
-            System.out.printf(
-                    "%d) %s | board=%d+%d | players=%d | singleDie=%s | exactEnd=%s | forfeitOnHit=%s | rolls=%d%n",
-                    i + 1,
-                    s.id,
-                    s.mainSize, s.tailSize,
-                    s.players,
-                    s.singleDie,
-                    s.exactEnd,
-                    s.forfeitOnHit,
-                    (s.rolls == null ? 0 : s.rolls.size())
-            );
+        if (printed == 0) {
+            output.println(page == 1 ? "No saved games found." : "No saved games on page " + page + ".");
+        } else if (printed == pageSize) {
+            output.printf("More may follow: --list-saves --page=%d --page-size=%d%n", page + 1, pageSize);
+        }
+    }
+
+    /**
+     * Prints the saves matching a --query as the repository streams them, in save order.
+     */
+    private void printQuery(String text) throws Exception {
+        long printed = 0;
+        try (Stream<SaveSummary> matches = repository.query(SaveQuery.parse(text))) {
+            Iterator<SaveSummary> it = matches.iterator();
+            while (it.hasNext()) {
+                SaveSummary s = it.next();
+                printed++;
+                output.printf(
+                        "%d) %s | board=%d+%d | players=%d | singleDie=%s | exactEnd=%s | forfeitOnHit=%s | %s%n",
+                        printed,
+                        s.id(),
+                        s.mainSize(), s.tailSize(),
+                        s.players(),
+                        s.singleDie(),
+                        s.exactEnd(),
+                        s.forfeitOnHit(),
+                        s.seeded() ? "seeded" : "rolls=" + s.rolls()
+                );
+            }
+        }
+        output.println(printed == 0
+                ? "No saved games match the query."
+                : printed + (printed == 1 ? " saved game matches" : " saved games match") + " the query.");
+    }
+
+    private void printSimulationReport(SimulationReport report) {
+        SimulationConfig cfg = report.config();
+
+        output.printf("Simulated %d games (engine=%s, seed=%d, threads=%d) in %.2f s (%.0f games/s)%n",
+                report.games(), cfg.engine(), cfg.seed(), cfg.effectiveParallelism(),
+                report.elapsedNanos() / 1e9, report.gamesPerSecond());
+        output.printf(
+                "Board positions=%d, Tail positions=%d, Players=%d, singleDie=%s, exactEnd=%s, forfeitOnHit=%s%n",
+                cfg.mainSize(), cfg.tailSize(), cfg.players(), cfg.singleDie(), cfg.exactEnd(), cfg.forfeitOnHit()
+        );
+
+        StringBuilder shares = new StringBuilder("Win share:");
+        for (int i = 0; i < report.playerNames().size(); i++) {
+            shares.append(String.format(" %s=%.2f%%", report.playerNames().get(i), report.winShare(i) * 100));
+        }
+        output.println(shares);
+
+        output.printf("Turns: mean=%.2f p50=%d p90=%d p99=%d max=%d%n",
+                report.meanTurns(),
+                report.percentileTurns(50),
+                report.percentileTurns(90),
+                report.percentileTurns(99),
+                report.maxTurns());
+        output.printf("Hit rate=%.2f%% Overshoot rate=%.2f%%%n",
+                report.hitRate() * 100, report.overshootRate() * 100);
+        if (report.unfinishedGames() > 0) {
+            output.printf("Unfinished games (stopped after %d moves): %d%n",
+                    cfg.maxMoves(), report.unfinishedGames());
+        }
+    }
+
+    private void hostSessions(int sessions, int mainSize, int tailSize, int players, boolean singleDie,
+                              boolean exactEnd, boolean forfeitOnHit, long baseSeed) throws InterruptedException {
+        Map<String, LongAdder> wins = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+
+        for (int i = 0; i < sessions; i++) {
+            GameSession session = host.open(mainSize, tailSize, players, singleDie, exactEnd, forfeitOnHit,
+                    baseSeed + i, null);
+            session.completion().thenAccept(s -> s.game().winner().ifPresent(
+                    w -> wins.computeIfAbsent(w.getName(), k -> new LongAdder()).increment()));
+        }
+        output.printf("Opened %d sessions (seeds %d..%d)%n", sessions, baseSeed, baseSeed + sessions - 1);
+        output.flush();
+
+        long lastTurns = 0;
+        long lastTick = start;
+        while (!host.awaitIdle(Duration.ofSeconds(1))) {
+            long now = System.nanoTime();
+            long turns = host.turnsPlayed();
+            output.printf("Live sessions: %d, turns: %d (%.0f turns/s)%n",
+                    host.liveSessions(), turns, (turns - lastTurns) * 1e9 / (now - lastTick));
+            output.flush(); // progress is only worth seeing as it happens
+            lastTurns = turns;
+            lastTick = now;
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        output.printf("Hosted %d sessions in %.2f s: finished=%d, abandoned=%d, turns=%d (%.0f turns/s)%n",
+                host.sessionsOpened(), seconds, host.sessionsFinished(), host.sessionsAbandoned(),
+                host.turnsPlayed(), host.turnsPlayed() / seconds);
+
+        StringBuilder line = new StringBuilder("Wins:");
+        new TreeMap<>(wins).forEach((name, count) -> line.append(' ').append(name).append('=').append(count.sum()));
+        output.println(line);
+    }
+
+    private void printOutcome(ReplayOutcome outcome) {
+        if (outcome.finished()) {
+            output.printf("%s: %s wins in %d turns (total turns %d, moves %d)%n",
+                    outcome.id(), outcome.winner(), outcome.winnerTurns(), outcome.totalTurns(), outcome.moves());
+        } else {
+            output.printf("%s: unfinished after %d moves%n", outcome.id(), outcome.moves());
+        }
+    }
+
+    private void printOdds(OddsResult odds, int mainSize, int tailSize, boolean singleDie, boolean exactEnd) {
+        output.printf("Exact odds: Board positions=%d, Tail positions=%d, Players=%d, singleDie=%s, exactEnd=%s%n",
+                mainSize, tailSize, odds.playerNames().size(), singleDie, exactEnd);
+
+        StringBuilder wins = new StringBuilder("Win probability:");
+        for (int i = 0; i < odds.playerNames().size(); i++) {
+            wins.append(String.format(" %s=%.4f%%", odds.playerNames().get(i), odds.winProbability(i) * 100));
+        }
+        output.println(wins);
+
+        output.printf("Turns: expected=%.4f p50=%d p90=%d p99=%d%n",
+                odds.expectedTurns(),
+                odds.percentileTurns(50),
+                odds.percentileTurns(90),
+                odds.percentileTurns(99));
+        if (odds.unfinishedProbability() > 0) {
+            output.printf("Probability the game never finishes: %.6f%%%n", odds.unfinishedProbability() * 100);
         }
     }
 
@@ -101,6 +398,16 @@ public class CommandLineGameRunner implements CommandLineRunner {
         return false;
     }
 
+    /**
+     * @return the argument following {@code key}, or "" if it is the last one
+     */
+    private static String argAfter(String[] args, String key) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equalsIgnoreCase(key)) return args[i + 1];
+        }
+        return "";
+    }
+
     /**
      * Reads values in the form: --players=4, --replay=<uuid>, etc.
      */
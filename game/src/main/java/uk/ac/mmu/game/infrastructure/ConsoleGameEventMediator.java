@@ -4,11 +4,21 @@ import uk.ac.mmu.game.usecase.GameEventMediator;
 
 /**
  * Mediator implementation that logs events to the console.
+ *
+ * <p>Events go through the game's {@link BufferedConsoleOutputAdapter}, so they stay in order with
+ * the buffered game output and follow its {@link OutputMode}.
  */
 public class ConsoleGameEventMediator implements GameEventMediator {
 
+    private final BufferedConsoleOutputAdapter output;
+
+    public ConsoleGameEventMediator(BufferedConsoleOutputAdapter output) {
+        if (output == null) throw new IllegalArgumentException("output is required");
+        this.output = output;
+    }
+
     @Override
     public void event(String message) {
-        System.out.println("[Mediator] " + message);
+        output.event(message);
     }
 }
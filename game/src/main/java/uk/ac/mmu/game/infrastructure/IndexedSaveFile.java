@@ -0,0 +1,433 @@
+package uk.ac.mmu.game.infrastructure;
+
+import uk.ac.mmu.game.usecase.GameSave;
+import uk.ac.mmu.game.usecase.SaveSummary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.zip.CRC32C;
+
+/**
+ * One append-only save file with its sidecar {@link SaveIndex} and {@link WriteBehindAppender}:
+ * the indexed-log machinery shared by {@link JsonLinesGameSaveRepository} and
+ * {@link BinaryGameSaveRepository}, which differ only in their {@link SaveRecordFormat}.
+ *
+ * <p>{@link #append} queues a record and remembers its stream position; once its batch is
+ * written the entry is added to the index under the file's {@link SaveFileLock}
+ * ({@link #indexWritten}). {@link #load} is one positioned read through the index, catching up
+ * with records appended by other writers when it misses and rebuilding the index when it points
+ * at the wrong bytes. {@link #indexFile} also indexes other files of the same format (sealed
+ * segments).
+ *
+ * <p>Not thread-safe: the owning repository serialises access.
+ */
+final class IndexedSaveFile {
+
+    /** Leading bytes of the data file checksummed into the index: enough to take in the first record's id. */
+    static final int FINGERPRINT_BYTES = 256;
+
+    private final Path file;
+    private final SaveRecordFormat format;
+    private final SaveFileLock lock;
+    private final SaveIndex index;
+    private final WriteBehindAppender appender;
+    private final PendingIndexEntries pending = new PendingIndexEntries(); // saves not indexed yet
+    private final int pendingLimit;
+    private final SaveFileLock.IoAction<?> afterIndexed;
+
+    /**
+     * Opens {@code file}, creating it (with the format's header) if it is missing or empty, and
+     * brings its index up to date.
+     *
+     * @param pendingLimit pending saves whose batches are indexed without waiting once this many have queued up
+     * @param afterIndexed run under the file lock each time written saves have been indexed
+     *                     (e.g. to seal a full segment)
+     * @throws IllegalStateException if the file does not start with the format's header
+     */
+    IndexedSaveFile(Path file, SaveRecordFormat format, WriteBehindAppender.Durability durability,
+                    Duration forceInterval, int pendingLimit, SaveFileLock.IoAction<?> afterIndexed)
+            throws IOException {
+        this.file = file;
+        this.format = format;
+        this.pendingLimit = pendingLimit;
+        this.afterIndexed = afterIndexed;
+        this.lock = SaveFileLock.forFile(file);
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        byte[] header = format.header();
+        lock.withLock(() -> {
+            if (!Files.exists(file) || Files.size(file) == 0) {
+                Files.write(file, header);
+            }
+            return null;
+        });
+        if (header.length > 0) {
+            try (InputStream in = Files.newInputStream(file)) {
+                if (!Arrays.equals(in.readNBytes(header.length), header)) {
+                    throw new IllegalStateException("Not a save file of this format: " + file.toAbsolutePath());
+                }
+            }
+        }
+
+        this.index = lock.withLock(() -> new SaveIndex(SaveSegmentFiles.indexOf(file)));
+        catchUp();
+        this.appender = new WriteBehindAppender(file, format, index.coveredLength(),
+                durability, forceInterval);
+    }
+
+    Path file() {
+        return file;
+    }
+
+    SaveIndex index() {
+        return index;
+    }
+
+    SaveFileLock lock() {
+        return lock;
+    }
+
+    /**
+     * Queues {@code save} for writing, giving it a random id first if it has none.
+     */
+    UUID append(GameSave save) throws IOException {
+        if (save.id == null) {
+            save.id = UUID.randomUUID();
+        }
+
+        SaveRepositoryIoEvent event = new SaveRepositoryIoEvent();
+        event.begin();
+
+        byte[] record = format.encode(save);
+        pending.add(save.id, appender.append(record), record.length, PackedSaveSummary.pack(save));
+        if (pending.size() >= pendingLimit) {
+            indexWritten(false);
+        }
+
+        commit(event, "save", record.length, 0, 1);
+        return save.id;
+    }
+
+    boolean hasPending() {
+        return pending.size() > 0;
+    }
+
+    /**
+     * Closes this writer's handle on the file so it can be renamed; the next batch opens the
+     * file then at the path. Call under the lock.
+     */
+    void detach() throws IOException {
+        appender.detach();
+    }
+
+    /**
+     * Blocks until every record appended so far is in the file (not necessarily the index).
+     */
+    void awaitWrites() throws IOException {
+        appender.flush();
+    }
+
+    /**
+     * Indexes the saves whose batches have been written, first waiting for all of them if
+     * {@code wait}, then runs the {@code afterIndexed} action if anything was indexed.
+     */
+    void indexWritten(boolean wait) throws IOException {
+        if (wait) {
+            appender.flush();
+        }
+        List<WriteBehindAppender.Batch> batches = appender.takeWritten();
+        if (batches.isEmpty()) return;
+        lock.withLock(() -> {
+            pending.applyWritten(batches, index, lock.generation());
+            return afterIndexed.run();
+        });
+    }
+
+    /**
+     * @return the save with {@code id} in this file, or null if there is none
+     */
+    GameSave load(UUID id) throws IOException {
+        SaveIndex.Entry entry = index.find(id);
+        if (entry == null) {
+            catchUp(); // records appended by another writer since we last looked
+            entry = index.find(id);
+        }
+        if (entry == null) return null;
+
+        GameSave found = readAt(file, entry, id);
+        if (found == null) {
+            // The index points at the wrong bytes: the file was replaced or rewritten.
+            lock.withLock(() -> {
+                index.reset();
+                return null;
+            });
+            catchUp();
+            entry = index.find(id);
+            found = entry == null ? null : readAt(file, entry, id);
+        }
+        return found;
+    }
+
+    /**
+     * Reads and decodes the one record at {@code entry} of {@code from} (this file or a segment).
+     *
+     * @return the save, or null if those bytes are not the record for {@code id} (or the file is gone)
+     */
+    GameSave readAt(Path from, SaveIndex.Entry entry, UUID id) throws IOException {
+        SaveRepositoryIoEvent event = new SaveRepositoryIoEvent();
+        event.begin();
+
+        ByteBuffer buffer = ByteBuffer.allocate(entry.length());
+        try (FileChannel channel = FileChannel.open(from, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, entry.offset() + buffer.position()) < 0) break;
+            }
+        } catch (NoSuchFileException e) {
+            return null; // a segment merged away since it was looked up
+        }
+
+        GameSave candidate = buffer.hasRemaining() ? null : format.decode(buffer.array());
+        boolean match = candidate != null && id.equals(candidate.id);
+
+        commit(event, "load", buffer.position(), 0, match ? 1 : 0);
+        return match ? candidate : null;
+    }
+
+    /**
+     * Brings the index up to date with the file: rebuilt from scratch if it does not describe
+     * this file (it claims more bytes than the file has, its covered length does not end a
+     * record, or the file's first bytes no longer match its fingerprint), otherwise extended by
+     * scanning the records after its covered length.
+     * The scan runs without the file lock; entries are added under it every so often, unless the
+     * file has been rotated away meanwhile (whoever rotated it indexed it first).
+     */
+    void catchUp() throws IOException {
+        int headerLength = format.header().length;
+        Scan scan = lock.withLock(() -> {
+            // Opened under the lock, so the generation read here is the file being checked and scanned.
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                long fileLength = channel.size();
+                if (!describes(channel, fileLength, headerLength)) {
+                    index.reset();
+                }
+                if (index.coveredLength() < headerLength) {
+                    index.setCoveredLength(headerLength);
+                }
+                long from = index.coveredLength();
+                int fingerprinted = (int) Math.min(from, FINGERPRINT_BYTES);
+                if (index.fingerprintLength() < fingerprinted) {
+                    index.setFingerprint(fingerprinted, checksum(channel, fingerprinted));
+                }
+                if (from >= fileLength) {
+                    channel.close();
+                    return null;
+                }
+                return new Scan(channel, from, lock.generation());
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        });
+        if (scan == null) return;
+
+        try (FileChannel channel = scan.channel()) {
+            indexFile(channel, scan.from(), index,
+                    () -> scan.generation() == lock.generation());
+        }
+    }
+
+    /**
+     * Whether the index still describes the file open on {@code channel}. Call under the lock.
+     */
+    private boolean describes(FileChannel channel, long fileLength, int headerLength) throws IOException {
+        long covered = index.coveredLength();
+        if (covered > fileLength) return false;
+        if (covered > headerLength && !format.endsRecord(channel, covered)) return false;
+        int fingerprinted = index.fingerprintLength();
+        return fingerprinted == 0
+                || fingerprinted <= fileLength && checksum(channel, fingerprinted) == index.fingerprint();
+    }
+
+    /**
+     * CRC32C of the first {@code length} bytes of the file.
+     */
+    private static long checksum(FileChannel channel, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) break;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.flip());
+        return crc.getValue();
+    }
+
+    private record Scan(FileChannel channel, long from, long generation) { }
+
+    /**
+     * Adds the complete records of {@code channel} after {@code from} to {@code target} and
+     * extends its covered length over them, applying entries under the lock while {@code stillCurrent}.
+     */
+    void indexFile(FileChannel channel, long from, SaveIndex target, SaveFileLock.IoAction<Boolean> stillCurrent)
+            throws IOException {
+        SaveRepositoryIoEvent event = new SaveRepositoryIoEvent();
+        event.begin();
+        int before = target.size();
+        long[] records = new long[1];
+        PendingIndexEntries found = new PendingIndexEntries();
+
+        long end = format.index(channel, from, found, () -> lock.withLock(() -> {
+            records[0] += found.size();
+            if (stillCurrent.run()) {
+                found.applyTo(target);
+            } else {
+                found.clear();
+            }
+            return null;
+        }));
+
+        // Everything in [from, end) is indexed now; don't move the covered length back if another
+        // writer got further meanwhile, or forward if it was reset under us.
+        lock.withLock(() -> {
+            long covered = target.coveredLength();
+            if (stillCurrent.run() && covered >= from && covered < end) {
+                target.setCoveredLength(end);
+            }
+            return null;
+        });
+
+        commit(event, "index", end - from, records[0], target.size() - before);
+    }
+
+    /**
+     * Entries of this file's index passing {@code filter}, after catching up with other writers.
+     */
+    List<SaveIndex.Match> matching(PackedSaveSummary.Filter filter) throws IOException {
+        return matching(index, filter);
+    }
+
+    /**
+     * Entries of {@code target} (this file's index or a segment's) passing {@code filter}.
+     */
+    List<SaveIndex.Match> matching(SaveIndex target, PackedSaveSummary.Filter filter) throws IOException {
+        SaveRepositoryIoEvent event = new SaveRepositoryIoEvent();
+        event.begin();
+        if (target == index) {
+            catchUp(); // records appended by another writer since we last looked
+        }
+        List<SaveIndex.Match> matches = target.matching(filter);
+        commit(event, "query", 0, 0, matches.size());
+        return matches;
+    }
+
+    /**
+     * Saves indexed in {@code target} (this file's index, caught up first, or a segment's), less
+     * those {@code excluded}.
+     */
+    int size(SaveIndex target, SaveIndex.IdFilter excluded) throws IOException {
+        if (target == index) {
+            catchUp();
+        }
+        return target.count(excluded);
+    }
+
+    /**
+     * Saves {@code skip} .. {@code skip + limit - 1} of {@code from} in file order, leaving out
+     * those {@code excluded}, found through {@code target} (its index): only the records on the
+     * page are read.
+     */
+    List<GameSave> page(Path from, SaveIndex target, long skip, int limit, SaveIndex.IdFilter excluded)
+            throws IOException {
+        SaveRepositoryIoEvent event = new SaveRepositoryIoEvent();
+        event.begin();
+        if (target == index) {
+            catchUp();
+        }
+        List<GameSave> saves = new ArrayList<>();
+        for (SaveIndex.Match match : target.page(skip, limit, excluded)) {
+            GameSave save = readAt(from, match.entry(), match.id());
+            if (save != null) saves.add(save);
+        }
+        commit(event, "page", 0, saves.size(), saves.size());
+        return saves;
+    }
+
+    /**
+     * @return the match's summary, read from its record in {@code from} if it could not be packed
+     *         (null if the record is gone)
+     */
+    SaveSummary summarise(Path from, SaveIndex.Match match) {
+        if (match.summary() != PackedSaveSummary.UNKNOWN) {
+            return PackedSaveSummary.unpack(match.id(), match.summary());
+        }
+        try {
+            GameSave save = readAt(from, match.entry(), match.id());
+            return save == null ? null : SaveSummary.of(save);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Keeps the last of the items sharing an id, where it stands, as the indexes do; items
+     * without an id are all kept.
+     */
+    static <T> List<T> latestPerId(List<T> items, Function<T, UUID> idOf) {
+        Map<UUID, Integer> last = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            UUID id = idOf.apply(items.get(i));
+            if (id != null) last.put(id, i);
+        }
+        if (last.size() == items.size()) return items;
+        List<T> latest = new ArrayList<>(last.size());
+        for (int i = 0; i < items.size(); i++) {
+            UUID id = idOf.apply(items.get(i));
+            if (id == null || last.get(id) == i) latest.add(items.get(i));
+        }
+        return latest;
+    }
+
+    void commit(SaveRepositoryIoEvent event, String operation, long bytes, long records, int entries) {
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.file = file.toString();
+            event.bytes = bytes;
+            event.linesScanned = records;
+            event.entries = entries;
+            event.commit();
+        }
+    }
+
+    /**
+     * Writes out and forces any queued saves and indexes them, then releases the file. Saves
+     * that did reach the file are indexed even if the writer failed (which is then rethrown).
+     */
+    void close() throws IOException {
+        try {
+            appender.close();
+        } finally {
+            List<WriteBehindAppender.Batch> batches = appender.takeWritten();
+            if (!batches.isEmpty()) {
+                lock.withLock(() -> {
+                    pending.applyWritten(batches, index, lock.generation());
+                    return null;
+                });
+            }
+        }
+    }
+}
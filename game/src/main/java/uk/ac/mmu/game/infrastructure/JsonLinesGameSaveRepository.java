@@ -1,15 +1,43 @@
 package uk.ac.mmu.game.infrastructure;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import uk.ac.mmu.game.usecase.GameSave;
 import uk.ac.mmu.game.usecase.GameSaveRepository;
+import uk.ac.mmu.game.usecase.SaveQuery;
+import uk.ac.mmu.game.usecase.SaveSummary;
 
-import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Stores all saved games in one append-only file:
@@ -17,7 +45,10 @@ import java.util.UUID;
  *   &lt;project&gt;/target/saves/games.json
  * </pre>
  *
- * <p>Format: JSON Lines (NDJSON) => one {@link GameSave} per line.</p>
+ * <p>Format: JSON Lines (NDJSON) => one {@link GameSave} per line.
+ * Two save kinds share the file: roll-list saves carry {@code "rolls"}, seed saves carry
+ * {@code "rngAlgorithm"} + {@code "seed"} (and {@code "rollCount"}, the game's length) instead.
+ * Absent (null) fields are not written, so existing roll-list lines keep their exact shape.</p>
  *
  * <p>Advantages:
  * <ul>
@@ -25,22 +56,96 @@ import java.util.UUID;
  *   <li>Simple replay & listing</li>
  *   <li>Human-readable</li>
  * </ul>
+ *
+ * <p>{@link #load} does not scan the file: a sidecar {@link SaveIndex} ({@code games.json.idx})
+ * maps each id to its line's byte offset and length, so a load is one positioned read.
+ * The index is updated on every save. If it is missing or broken, or claims more than the file
+ * holds (saves lost in a crash), it is rebuilt; if the file has grown past it (lines appended
+ * while this repository was closed) only the new lines are scanned. Deleting the .idx file is
+ * always safe.
+ *
+ * <p>Saves are written behind by a {@link WriteBehindAppender}: {@link #save} returns once the
+ * line is queued, and this repository's own reads wait for the lines they need. {@link #close}
+ * writes out whatever is still queued.
+ *
+ * <p>Any number of repositories, in this process or others, may append to the same file. Each
+ * batch of lines is appended, and the index updated, under the file's {@link SaveFileLock}, so
+ * lines never interleave; a line torn by a writer that died mid-write is overwritten with spaces
+ * by the next writer before it appends (never truncated, see {@link WriteBehindAppender}). Lines written by other repositories are indexed when a load misses.
+ *
+ * <p>The file is a log of segments. Once {@code games.json} reaches
+ * {@link SaveLogPolicy#segmentBytes()} it is sealed: renamed to the next numbered segment
+ * ({@code games.000001.json}, with a copy of its index) and replaced by an empty file. Other
+ * writers notice the rename on their next batch. Sealed segments never change again except by
+ * {@link SaveLogCompactor}, which merges them in the background (size-tiered, checked once there
+ * are {@value SaveLogCompactor#MERGE_SEGMENTS}, or after every seal when a retention limit is set), dropping
+ * duplicate ids, corrupt lines and expired saves without holding up {@link #save}. Listings read
+ * the sealed segments, oldest first, then the active file; a load that misses looks for segments
+ * sealed or merged by someone else before giving up.
+ *
+ * <p>An id saved more than once is the latest of its lines: {@link #load} looks in the active
+ * file first, then the segments newest first, and every listing ({@link #stream}, {@link #page},
+ * {@link #query}, {@link #listAll}) leaves out a line whose id was saved again after it.
  */
 public class JsonLinesGameSaveRepository implements GameSaveRepository {
 
-    private final ObjectMapper mapper = new ObjectMapper();
+    /** Pending saves whose batches are indexed without waiting once this many have queued up. */
+    private static final int PENDING_LIMIT = 1024;
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final Logger LOG = LoggerFactory.getLogger(JsonLinesGameSaveRepository.class);
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .registerModule(new RollSequenceJsonModule());
     private final Path savesFile;
+    private final IndexedSaveFile log;
+    private final SaveFileLock lock;
+    private final SaveLogPolicy policy;
+    private final boolean rotates;
+    private final SaveSegmentFiles segmentFiles;
+    private final SaveLogCompactor compactor;
+    private final NavigableMap<Long, SaveIndex> sealed = new TreeMap<>(); // guarded by this: segment number -> index
+    private final ExecutorService compaction;
+    private final AtomicBoolean compactionQueued = new AtomicBoolean();
+    private final ParallelLineScanner scanner = new ParallelLineScanner(0, ParallelLineScanner.DEFAULT_CHUNK_BYTES);
 
     public JsonLinesGameSaveRepository() {
-        Path savesDir = Paths.get(System.getProperty("user.dir"), "target", "saves");
-        this.savesFile = savesDir.resolve("games.json");
+        this(Paths.get(System.getProperty("user.dir"), "target", "saves", "games.json"));
+    }
+
+    public JsonLinesGameSaveRepository(Path savesFile) {
+        this(savesFile, WriteBehindAppender.Durability.PERIODIC, Duration.ofSeconds(1));
+    }
+
+    /**
+     * @param durability    when saves are forced to disk (see {@link WriteBehindAppender})
+     * @param forceInterval how often PERIODIC forces
+     */
+    public JsonLinesGameSaveRepository(Path savesFile, WriteBehindAppender.Durability durability, Duration forceInterval) {
+        this(savesFile, durability, forceInterval, SaveLogPolicy.DEFAULT);
+    }
+
+    /**
+     * @param policy segment size and retention (see {@link SaveLogPolicy})
+     */
+    public JsonLinesGameSaveRepository(Path savesFile, WriteBehindAppender.Durability durability, Duration forceInterval,
+                                       SaveLogPolicy policy) {
+        this.savesFile = savesFile;
+        this.lock = SaveFileLock.forFile(savesFile);
+        this.policy = policy;
+        this.rotates = SaveSegmentFiles.canRotate(savesFile);
+        this.segmentFiles = new SaveSegmentFiles(savesFile);
+        this.compactor = new SaveLogCompactor(savesFile, policy);
+        this.compaction = Executors.newSingleThreadExecutor(task -> Thread.ofPlatform()
+                .name("save-compaction-" + savesFile.getFileName())
+                .daemon(true)
+                .unstarted(task));
 
         try {
-            Files.createDirectories(savesDir);
-            if (!Files.exists(savesFile)) {
-                Files.createFile(savesFile);
-            }
-        } catch (Exception e) {
+            this.log = new IndexedSaveFile(savesFile, new Format(), durability, forceInterval, PENDING_LIMIT,
+                    this::sealIfFull);
+            refreshSegments();
+        } catch (IOException e) {
             throw new IllegalStateException(
                     "Failed to initialise saves directory/file: " + savesFile.toAbsolutePath(), e
             );
@@ -48,86 +153,661 @@ public class JsonLinesGameSaveRepository implements GameSaveRepository {
     }
 
     @Override
-    public UUID save(GameSave save) throws Exception {
+    public synchronized UUID save(GameSave save) throws Exception {
         if (save == null) throw new IllegalArgumentException("save is required");
+        return log.append(save);
+    }
 
-        if (save.id == null) {
-            save.id = UUID.randomUUID();
+    @Override
+    public synchronized GameSave load(UUID id) throws Exception {
+        if (id == null) throw new IllegalArgumentException("id is required");
+
+        if (log.hasPending()) {
+            log.indexWritten(true);
+        }
+        GameSave found = log.load(id);
+        if (found == null) {
+            found = loadSealed(id, false);
+        }
+        if (found == null) {
+            refreshSegments(); // sealed or merged by another writer since we last looked
+            found = loadSealed(id, true);
         }
+        if (found != null) return found;
 
-        String jsonLine = mapper.writeValueAsString(save) + System.lineSeparator();
+        throw new IllegalArgumentException("Game id not found: " + id);
+    }
 
-        Files.writeString(
-                savesFile,
-                jsonLine,
-                StandardCharsets.UTF_8,
-                StandardOpenOption.CREATE,
-                StandardOpenOption.APPEND
-        );
+    /**
+     * Looks {@code id} up in the sealed segments, newest first.
+     *
+     * @param repair rebuild the index of a segment whose entry points at the wrong bytes
+     */
+    private GameSave loadSealed(UUID id, boolean repair) throws IOException {
+        for (Map.Entry<Long, SaveIndex> segment : sealed.descendingMap().entrySet()) {
+            SaveIndex segmentIndex = segment.getValue();
+            SaveIndex.Entry entry = segmentIndex.find(id);
+            if (entry == null) continue;
 
-        return save.id;
+            Path file = segmentFiles.segment(segment.getKey());
+            GameSave found = log.readAt(file, entry, id);
+            if (found == null && repair) {
+                lock.withLock(() -> {
+                    segmentIndex.reset();
+                    return null;
+                });
+                indexSealed(file, segmentIndex);
+                entry = segmentIndex.find(id);
+                found = entry == null ? null : log.readAt(file, entry, id);
+            }
+            if (found != null) return found;
+        }
+        return null;
     }
 
-    @Override
-    public GameSave load(UUID id) throws Exception {
-        if (id == null) throw new IllegalArgumentException("id is required");
+    /**
+     * Seals the active file if it has grown to a full segment. Runs under the lock each time
+     * written saves have been indexed (see {@link IndexedSaveFile}). Never where the file system
+     * cannot rename an open file (see {@link SaveSegmentFiles#canRotate}).
+     */
+    private Object sealIfFull() throws IOException {
+        if (rotates && Files.size(savesFile) >= policy.segmentBytes()) {
+            seal();
+        }
+        return null;
+    }
 
-        try (BufferedReader reader = Files.newBufferedReader(savesFile, StandardCharsets.UTF_8)) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.isBlank()) continue;
+    /**
+     * Renames the active file to the next sealed segment and starts an empty one. Runs under the
+     * lock: the index is brought up to date first, so the copy kept with the segment describes
+     * all of it. This repository's own handle on the file is closed before the rename; other
+     * writers see the new {@link SaveFileLock#generation() generation} and move to the new file
+     * on their next batch.
+     */
+    private void seal() throws IOException {
+        log.catchUp();
+        Path segment = segmentFiles.segment(segmentFiles.next());
+        Files.copy(SaveSegmentFiles.indexOf(savesFile), SaveSegmentFiles.indexOf(segment),
+                StandardCopyOption.REPLACE_EXISTING);
+        log.detach();
+        Files.move(savesFile, segment, StandardCopyOption.ATOMIC_MOVE);
+        Files.createFile(savesFile);
+        lock.nextGeneration();
+        log.index().reset();
 
-                GameSave candidate = mapper.readValue(line, GameSave.class);
-                if (id.equals(candidate.id)) {
-                    return candidate;
+        refreshSegments();
+        if (sealed.size() >= SaveLogCompactor.MERGE_SEGMENTS || policy.hasRetention()) {
+            compactInBackground();
+        }
+    }
+
+    private void compactInBackground() {
+        if (!compactionQueued.compareAndSet(false, true)) return;
+        compaction.execute(() -> {
+            compactionQueued.set(false);
+            try {
+                compactor.compactTiers();
+                refreshSegments();
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Background compaction of {} failed", savesFile, e);
+            }
+        });
+    }
+
+    /**
+     * Merges the sealed segments now (see {@link SaveLogCompactor}). Saves may carry on meanwhile.
+     */
+    public SaveLogCompactor.Result compact() throws IOException {
+        SaveLogCompactor.Result result = compactor.compact();
+        refreshSegments();
+        return result;
+    }
+
+    /**
+     * Picks up segments sealed or merged since the last look, indexing any whose index is
+     * missing or behind, and forgets those merged away.
+     */
+    private synchronized void refreshSegments() throws IOException {
+        List<Long> numbers = segmentFiles.sealed();
+        sealed.keySet().retainAll(numbers);
+        for (long number : numbers) {
+            if (sealed.containsKey(number)) continue;
+            Path file = segmentFiles.segment(number);
+            SaveIndex segmentIndex = lock.withLock(() ->
+                    Files.exists(file) ? new SaveIndex(SaveSegmentFiles.indexOf(file)) : null);
+            if (segmentIndex == null) continue;
+            indexSealed(file, segmentIndex);
+            sealed.put(number, segmentIndex);
+        }
+    }
+
+    /**
+     * Indexes the complete lines of a sealed segment not yet in its index.
+     */
+    private void indexSealed(Path file, SaveIndex segmentIndex) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long from = lock.withLock(() -> {
+                if (segmentIndex.coveredLength() > channel.size()) {
+                    segmentIndex.reset();
                 }
+                return segmentIndex.coveredLength();
+            });
+            if (from < channel.size()) {
+                log.indexFile(channel, from, segmentIndex, () -> true);
             }
+        } catch (NoSuchFileException e) {
+            // Merged away meanwhile
         }
+    }
 
-        throw new IllegalArgumentException("Game id not found: " + id);
+    /**
+     * Receives one complete line of a scan.
+     */
+    @FunctionalInterface
+    interface LineVisitor {
+        /**
+         * @param length the line's length including its newline
+         * @param offset the line's file offset
+         */
+        void visit(byte[] bytes, int start, int length, long offset) throws IOException;
     }
 
-    @Override
-    public List<UUID> listIds() throws Exception {
-        List<UUID> ids = new ArrayList<>();
+    /**
+     * Visits each complete line after {@code from}, reading 1 MB at a time and calling
+     * {@code afterBuffer} once each buffer's lines are visited. A trailing line without its
+     * newline may still be being written (or was torn by a crash); it is not visited.
+     *
+     * @return the offset just past the last complete line
+     */
+    static long scanLines(FileChannel channel, long from, LineVisitor visitor,
+                          SaveFileLock.IoAction<?> afterBuffer) throws IOException {
+        long fileLength = channel.size();
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        long lineStart = from;     // file offset of buffer position 0
+        long position = from;
+        while (position < fileLength && channel.read(buffer, position) > 0) {
+            position = lineStart + buffer.position();
+            byte[] bytes = buffer.array();
+            int start = 0;
+            for (int i = 0; i < buffer.position(); i++) {
+                if (bytes[i] != '\n') continue;
+                visitor.visit(bytes, start, i + 1 - start, lineStart + start);
+                start = i + 1;
+            }
+            afterBuffer.run();
 
-        try (BufferedReader reader = Files.newBufferedReader(savesFile, StandardCharsets.UTF_8)) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.isBlank()) continue;
+            lineStart += start;
+            buffer.limit(buffer.position()).position(start);
+            buffer.compact();
+            if (!buffer.hasRemaining()) {
+                // One line longer than the buffer: grow it.
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+            }
+        }
+        return lineStart;
+    }
 
-                try {
-                    GameSave candidate = mapper.readValue(line, GameSave.class);
-                    if (candidate.id != null) {
-                        ids.add(candidate.id);
+    /**
+     * {@link WriteBehindAppender.TailCheck} for JSON Lines: complete lines end at the last newline.
+     */
+    static long lastLineEnd(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long end = size;
+        while (end > from) {
+            int n = (int) Math.min(buffer.capacity(), end - from);
+            buffer.clear().limit(n);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, end - n + buffer.position()) < 0) break;
+            }
+            for (int i = buffer.position() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') return end - n + i + 1;
+            }
+            end -= n;
+        }
+        return from;
+    }
+
+    /** A line's id and {@link PackedSaveSummary}. */
+    record LineSummary(UUID id, long summary) { }
+
+    /**
+     * Reads the JSON object in {@code bytes[offset, offset+length)} with the streaming parser,
+     * counting the rolls rather than binding them.
+     *
+     * @return the line's id and summary, or null for blank or malformed lines and lines without an id
+     */
+    static LineSummary readSummary(byte[] bytes, int offset, int length) {
+        try (JsonParser parser = JSON.createParser(bytes, offset, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+            UUID id = null;
+            int mainSize = 0;
+            int tailSize = 0;
+            int players = 0;
+            boolean singleDie = false;
+            boolean exactEnd = false;
+            boolean forfeitOnHit = false;
+            boolean seeded = false;
+            int rolls = -1;        // no roll list
+            int rollCount = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "id" -> id = value == JsonToken.VALUE_STRING ? UUID.fromString(parser.getText()) : null;
+                    case "mainSize" -> mainSize = parser.getValueAsInt();
+                    case "tailSize" -> tailSize = parser.getValueAsInt();
+                    case "players" -> players = parser.getValueAsInt();
+                    case "singleDie" -> singleDie = parser.getValueAsBoolean();
+                    case "exactEnd" -> exactEnd = parser.getValueAsBoolean();
+                    case "forfeitOnHit" -> forfeitOnHit = parser.getValueAsBoolean();
+                    case "seed" -> seeded = value != JsonToken.VALUE_NULL;
+                    case "rollCount" -> rollCount = parser.getValueAsInt();
+                    case "rolls" -> {
+                        if (value == JsonToken.START_ARRAY) {
+                            rolls = 0;
+                            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                                rolls++;
+                            }
+                        }
                     }
-                } catch (Exception ignored) {
-                    // Skip corrupted lines safely
+                    default -> parser.skipChildren();
                 }
             }
+            if (parser.currentToken() != JsonToken.END_OBJECT || id == null) return null;
+            return new LineSummary(id, PackedSaveSummary.pack(mainSize, tailSize, players, singleDie, exactEnd,
+                    forfeitOnHit, seeded, rolls >= 0 ? rolls : rollCount)); // as GameSave.rollsPlayed()
+        } catch (IOException | IllegalArgumentException ignored) {
+            // Skip corrupted lines safely
+        }
+        return null;
+    }
+
+    /**
+     * JSON Lines records for {@link IndexedSaveFile}: one {@link GameSave} object per line.
+     */
+    private final class Format implements SaveRecordFormat {
+
+        @Override
+        public byte[] header() {
+            return new byte[0];
         }
 
-        return ids;
+        @Override
+        public byte[] encode(GameSave save) throws IOException {
+            return (mapper.writeValueAsString(save) + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public GameSave decode(byte[] record) {
+            try {
+                return mapper.readValue(record, GameSave.class);
+            } catch (IOException ignored) {
+                return null; // not a save line
+            }
+        }
+
+        /**
+         * Each line is tokenised for its summary (see {@link #readSummary}) but not bound to a {@link GameSave}.
+         */
+        @Override
+        public long index(FileChannel channel, long from, PendingIndexEntries found,
+                          SaveFileLock.IoAction<?> afterBatch) throws IOException {
+            return scanLines(channel, from, (bytes, start, length, offset) -> {
+                LineSummary line = readSummary(bytes, start, length - 1);
+                if (line != null) {
+                    found.add(line.id(), offset, length, line.summary());
+                }
+            }, afterBatch);
+        }
+
+        @Override
+        public long validEnd(FileChannel channel, long from, long size) throws IOException {
+            return lastLineEnd(channel, from, size);
+        }
+
+        /**
+         * Every line ends with '\n', so the byte before a record end must be one.
+         */
+        @Override
+        public boolean endsRecord(FileChannel channel, long offset) throws IOException {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            return channel.read(last, offset - 1) == 1 && last.get(0) == '\n';
+        }
     }
 
+    /**
+     * Parses the log's lines on all cores (see {@link ParallelLineScanner}), skipping malformed ones
+     * and all but the latest line of an id.
+     */
+    @Override
+    public List<UUID> listIds() throws Exception {
+        SaveRepositoryIoEvent event = new SaveRepositoryIoEvent();
+        event.begin();
+
+        ParallelLineScanner.Result<UUID> read = scanner.scan(extents(), (bytes, start, length) -> {
+            GameSave candidate = parse(bytes, start, length);
+            return candidate == null ? null : candidate.id;
+        });
+
+        List<UUID> latest = IndexedSaveFile.latestPerId(read.items(), id -> id);
+        log.commit(event, "listIds", read.bytes(), read.lines(), latest.size());
+        return latest;
+    }
+
+    /**
+     * Parses the log's lines on all cores (see {@link ParallelLineScanner}), skipping malformed ones
+     * and all but the latest line of an id.
+     */
     @Override
     public List<GameSave> listAll() throws Exception {
-        List<GameSave> saves = new ArrayList<>();
+        SaveRepositoryIoEvent event = new SaveRepositoryIoEvent();
+        event.begin();
+
+        ParallelLineScanner.Result<GameSave> read = scanner.scan(extents(), this::parse);
+
+        List<GameSave> latest = IndexedSaveFile.latestPerId(read.items(), save -> save.id);
+        log.commit(event, "listAll", read.bytes(), read.lines(), latest.size());
+        return latest;
+    }
+
+    /**
+     * @return the save on the line, or null if it is blank or malformed (skipped without killing the app)
+     */
+    private GameSave parse(byte[] bytes, int start, int length) {
+        try {
+            return mapper.readValue(bytes, start, length, GameSave.class);
+        } catch (IOException ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * The log's files in save order for {@link ParallelLineScanner}, once every save so far is
+     * written: sealed segments whole, the active file up to its length, which ends after a
+     * complete batch. Both are read in one hold of the lock, so a seal cannot move lines from
+     * the active file to a segment in between.
+     */
+    private List<ParallelLineScanner.Extent> extents() throws IOException {
+        log.awaitWrites();
+        return lock.withLock(() -> {
+            List<ParallelLineScanner.Extent> extents = new ArrayList<>();
+            for (long number : segmentFiles.sealed()) {
+                extents.add(ParallelLineScanner.Extent.whole(segmentFiles.segment(number)));
+            }
+            extents.add(new ParallelLineScanner.Extent(savesFile, Files.size(savesFile)));
+            return extents;
+        });
+    }
+
+    /**
+     * Streams the saves in log order, parsing one line at a time; close the stream to release the file.
+     * A line whose id was saved again after it is skipped, going by the indexes.
+     */
+    @Override
+    public Stream<GameSave> stream() throws Exception {
+        flush();
+        refreshSegments();
+        SaveIterator saves = new SaveIterator(caughtUpFiles());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(saves,
+                        Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        saves.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Reads the files one after another, one line at a time, skipping blank, malformed and
+     * superseded lines.
+     */
+    private final class SaveIterator implements Iterator<GameSave>, Closeable {
+        private final List<IndexedFile> files;
+        private int current = -1;
+        private FileChannel channel;
+        private long length;           // of the open file, fixed when it was opened
+        private byte[] bytes = new byte[1 << 16];
+        private int start;             // bytes[start, end) are read but not yet split into lines
+        private int end;
+        private long startAt;          // file offset of bytes[start]
+        private int lineStart;
+        private int lineLength;
+        private long lineAt;
+        private GameSave next;
 
-        try (BufferedReader reader = Files.newBufferedReader(savesFile, StandardCharsets.UTF_8)) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.isBlank()) continue;
+        SaveIterator(List<IndexedFile> files) {
+            this.files = files;
+        }
 
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null) {
+                    if (channel == null && !openNext()) return false;
+                    if (!nextLine()) {
+                        close();
+                        continue;
+                    }
+                    GameSave save = parse(bytes, lineStart, lineLength);
+                    if (save != null && (save.id == null || isLatest(files, current, save.id, lineAt))) {
+                        next = save;
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private boolean openNext() throws IOException {
+            while (++current < files.size()) {
+                Path file = files.get(current).file();
                 try {
-                    saves.add(mapper.readValue(line, GameSave.class));
-                } catch (Exception ignored) {
-                    // Skip malformed entries without killing the app
+                    channel = FileChannel.open(file, StandardOpenOption.READ);
+                } catch (NoSuchFileException e) {
+                    continue; // merged away since it was listed
+                }
+                length = channel.size();
+                if (file.equals(savesFile)) {
+                    catchUp(); // after the length is fixed, so every line read is indexed
+                }
+                start = 0;
+                end = 0;
+                startAt = 0;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Moves to the next complete line of the open file; a last line without its newline may
+         * still be being written (or was torn by a crash) and is not read.
+         */
+        private boolean nextLine() throws IOException {
+            int searched = start;
+            while (true) {
+                for (int i = searched; i < end; i++) {
+                    if (bytes[i] != '\n') continue;
+                    lineStart = start;
+                    lineLength = i + 1 - start;
+                    lineAt = startAt;
+                    start = i + 1;
+                    startAt += lineLength;
+                    return true;
+                }
+                long readAt = startAt + (end - start);
+                if (readAt >= length) return false;
+                if (start > 0) {
+                    System.arraycopy(bytes, start, bytes, 0, end - start);
+                    end -= start;
+                    start = 0;
+                }
+                if (end == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, bytes.length * 2); // one line longer than the buffer
+                }
+                searched = end;
+                int read = channel.read(ByteBuffer.wrap(bytes, end,
+                        (int) Math.min(bytes.length - end, length - readAt)), readAt);
+                if (read <= 0) return false;
+                end += read;
+            }
+        }
+
+        @Override
+        public GameSave next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            GameSave save = next;
+            next = null;
+            return save;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+
+    /**
+     * Skips whole files by their index's entry count, then reads the page's lines only, found
+     * through the indexes in file order. A save written more than once under one id appears
+     * once, at its latest line, as in {@link #stream}.
+     */
+    @Override
+    public Stream<GameSave> page(long skip, int limit) throws Exception {
+        flush();
+        refreshSegments();
+        List<GameSave> saves = new ArrayList<>();
+        synchronized (this) {
+            List<IndexedFile> files = caughtUpFiles();
+            for (int i = 0; i < files.size() && saves.size() < limit; i++) {
+                IndexedFile file = files.get(i);
+                SaveIndex.IdFilter savedLater = savedLater(files, i);
+                int size = log.size(file.index(), savedLater);
+                if (skip >= size) {
+                    skip -= size;
+                    continue;
                 }
+                saves.addAll(log.page(file.file(), file.index(), skip, limit - saves.size(), savedLater));
+                skip = 0;
+            }
+        }
+        return saves.stream();
+    }
+
+    /**
+     * {@link #indexedFiles}, with the active file's index caught up with other writers.
+     */
+    private synchronized List<IndexedFile> caughtUpFiles() throws IOException {
+        log.catchUp();
+        return indexedFiles();
+    }
+
+    private synchronized void catchUp() throws IOException {
+        log.catchUp();
+    }
+
+    /**
+     * Ids indexed in any file after {@code files.get(i)}: saved again later in the log.
+     */
+    private static SaveIndex.IdFilter savedLater(List<IndexedFile> files, int i) {
+        if (i == files.size() - 1) return SaveIndex.IdFilter.NONE;
+        return (msb, lsb) -> {
+            for (int later = i + 1; later < files.size(); later++) {
+                if (files.get(later).index().contains(msb, lsb)) return true;
+            }
+            return false;
+        };
+    }
+
+    /**
+     * Whether the line of {@code id} at {@code offset} of {@code files.get(i)} is the id's latest.
+     */
+    private synchronized boolean isLatest(List<IndexedFile> files, int i, UUID id, long offset) throws IOException {
+        return !files.get(i).index().supersedes(id, offset)
+                && !savedLater(files, i).excludes(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    /**
+     * The sealed segments oldest first, then the active file, each with its index.
+     */
+    private synchronized List<IndexedFile> indexedFiles() {
+        List<IndexedFile> files = new ArrayList<>();
+        sealed.forEach((number, segmentIndex) -> files.add(new IndexedFile(segmentFiles.segment(number), segmentIndex)));
+        files.add(new IndexedFile(savesFile, log.index()));
+        return files;
+    }
+
+    /**
+     * Answers from the summary columns of the segments' indexes and then the active file's, so
+     * lines are read only for saves whose summary could not be packed. Each file's matches are
+     * looked up when the stream reaches it.
+     */
+    @Override
+    public Stream<SaveSummary> query(SaveQuery query) throws Exception {
+        PackedSaveSummary.Filter filter = PackedSaveSummary.Filter.of(query);
+        flush();
+        refreshSegments();
+        List<IndexedFile> files = caughtUpFiles();
+        return IntStream.range(0, files.size()).boxed().flatMap(i -> {
+            try {
+                return matching(files, i, filter).stream().map(match -> summarise(files.get(i).file(), match));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).filter(summary -> summary != null && query.matches(summary));
+    }
+
+    private record IndexedFile(Path file, SaveIndex index) { }
+
+    /**
+     * Matches in {@code files.get(i)}, less the ids saved again in a later file.
+     */
+    private synchronized List<SaveIndex.Match> matching(List<IndexedFile> files, int i,
+                                                        PackedSaveSummary.Filter filter) throws IOException {
+        List<SaveIndex.Match> matches = log.matching(files.get(i).index(), filter);
+        SaveIndex.IdFilter savedLater = savedLater(files, i);
+        if (savedLater == SaveIndex.IdFilter.NONE) return matches;
+        List<SaveIndex.Match> latest = new ArrayList<>(matches.size());
+        for (SaveIndex.Match match : matches) {
+            UUID id = match.id();
+            if (!savedLater.excludes(id.getMostSignificantBits(), id.getLeastSignificantBits())) {
+                latest.add(match);
             }
         }
+        return latest;
+    }
 
-        return saves;
+    private SaveSummary summarise(Path file, SaveIndex.Match match) {
+        return log.summarise(file, match);
+    }
+
+    /**
+     * Blocks until every save so far is in the file (and the index).
+     */
+    public synchronized void flush() throws IOException {
+        log.indexWritten(true);
+    }
+
+    /**
+     * Writes out and forces any queued saves, then releases the file.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            log.close();
+        }
+        // Outside the monitor: a running compaction ends by refreshing the segment list.
+        compaction.shutdown();
+        try {
+            compaction.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
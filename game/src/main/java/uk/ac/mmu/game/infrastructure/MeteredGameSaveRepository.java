@@ -0,0 +1,112 @@
+package uk.ac.mmu.game.infrastructure;
+
+import uk.ac.mmu.game.usecase.GameSave;
+import uk.ac.mmu.game.usecase.GameSaveRepository;
+import uk.ac.mmu.game.usecase.SaveQuery;
+import uk.ac.mmu.game.usecase.SaveSummary;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+
+/**
+ * Decorator that times every repository operation into a latency histogram
+ * ({@code game_save_repository_seconds{op=...}}) and counts failures.
+ */
+public class MeteredGameSaveRepository implements GameSaveRepository {
+
+    private final GameSaveRepository inner;
+
+    // Resolved once: the registry lookup builds a label key, which a hot save path should not pay.
+    private final OpMetrics saveMetrics;
+    private final OpMetrics loadMetrics;
+    private final OpMetrics listIdsMetrics;
+    private final OpMetrics listAllMetrics;
+    private final OpMetrics streamMetrics;
+    private final OpMetrics pageMetrics;
+    private final OpMetrics queryMetrics;
+
+    public MeteredGameSaveRepository(GameSaveRepository inner, MetricsRegistry registry) {
+        if (inner == null) {
+            throw new IllegalArgumentException("inner repository is required");
+        }
+        this.inner = inner;
+        this.saveMetrics = new OpMetrics(registry, "save");
+        this.loadMetrics = new OpMetrics(registry, "load");
+        this.listIdsMetrics = new OpMetrics(registry, "list_ids");
+        this.listAllMetrics = new OpMetrics(registry, "list_all");
+        this.streamMetrics = new OpMetrics(registry, "stream");
+        this.pageMetrics = new OpMetrics(registry, "page");
+        this.queryMetrics = new OpMetrics(registry, "query");
+    }
+
+    @Override
+    public UUID save(GameSave save) throws Exception {
+        return timed(saveMetrics, () -> inner.save(save));
+    }
+
+    @Override
+    public GameSave load(UUID id) throws Exception {
+        return timed(loadMetrics, () -> inner.load(id));
+    }
+
+    @Override
+    public List<UUID> listIds() throws Exception {
+        return timed(listIdsMetrics, inner::listIds);
+    }
+
+    @Override
+    public List<GameSave> listAll() throws Exception {
+        return timed(listAllMetrics, inner::listAll);
+    }
+
+    /**
+     * Times opening the stream only; records are read as the caller consumes them.
+     */
+    @Override
+    public Stream<GameSave> stream() throws Exception {
+        return timed(streamMetrics, inner::stream);
+    }
+
+    @Override
+    public Stream<GameSave> page(long skip, int limit) throws Exception {
+        return timed(pageMetrics, () -> inner.page(skip, limit));
+    }
+
+    /**
+     * Times opening the stream only, like {@link #stream()}.
+     */
+    @Override
+    public Stream<SaveSummary> query(SaveQuery query) throws Exception {
+        return timed(queryMetrics, () -> inner.query(query));
+    }
+
+    @Override
+    public void close() throws Exception {
+        inner.close();
+    }
+
+    private static <T> T timed(OpMetrics op, Callable<T> call) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return call.call();
+        } catch (Exception ex) {
+            op.errors.inc();
+            throw ex;
+        } finally {
+            op.latency.observe((System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    private static final class OpMetrics {
+        final MetricsRegistry.Counter errors;
+        final MetricsRegistry.Histogram latency;
+
+        OpMetrics(MetricsRegistry registry, String op) {
+            errors = registry.counter("game_save_repository_errors_total", "Repository operations that threw.", "op", op);
+            latency = registry.histogram("game_save_repository_seconds", "Repository operation latency.",
+                    MetricsRegistry.LATENCY_BUCKETS, "op", op);
+        }
+    }
+}
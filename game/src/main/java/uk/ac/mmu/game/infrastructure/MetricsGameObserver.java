@@ -0,0 +1,122 @@
+package uk.ac.mmu.game.infrastructure;
+
+import uk.ac.mmu.game.domain.BasicRules;
+import uk.ac.mmu.game.domain.ExactEndDecorator;
+import uk.ac.mmu.game.domain.ForfeitOnHitDecorator;
+import uk.ac.mmu.game.domain.Game;
+import uk.ac.mmu.game.domain.GameObserver;
+import uk.ac.mmu.game.domain.MoveResult;
+import uk.ac.mmu.game.domain.Player;
+import uk.ac.mmu.game.domain.Rules;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Observer that records game activity into a {@link MetricsRegistry}, labelled by rule variant
+ * (e.g. "basic+exact-end"). One instance is shared by every game, on any thread.
+ *
+ * <p>The variant is derived from the game's rules decorator chain, innermost first. Per turn
+ * this costs a walk of that chain, one map look-up (metrics are resolved once per chain) and a
+ * few striped-counter increments.
+ */
+public class MetricsGameObserver implements GameObserver {
+
+    private final MetricsRegistry registry;
+    private final Map<String, VariantMetrics> byVariant = new ConcurrentHashMap<>();
+    private final Map<Integer, VariantMetrics> byChain = new ConcurrentHashMap<>();
+
+    public MetricsGameObserver(MetricsRegistry registry) {
+        this.registry = registry;
+
+        // Prometheus derives rates from game_turns_total itself; the gauge serves file dumps.
+        long start = System.nanoTime();
+        registry.gauge("game_turns_per_second", "Average moves per second since start-up, all variants.",
+                () -> byVariant.values().stream().mapToLong(m -> m.turns.get()).sum()
+                        * 1e9 / Math.max(1, System.nanoTime() - start));
+    }
+
+    @Override
+    public void onStateChanged(Game game, String from, String to) {
+        // State changes carry no measurements beyond what turns and finishes already record.
+    }
+
+    @Override
+    public void onTurnPlayed(Game game, MoveResult result, Player currentPlayer) {
+        VariantMetrics m = metricsFor(game);
+        m.turns.inc();
+        if (result.hit()) m.hits.inc();
+        if (result.overshoot()) m.overshoots.inc();
+        if (result.forfeited()) m.forfeits.inc();
+    }
+
+    @Override
+    public void onGameFinished(Game game, Player winner, int totalTurns, int winnerTurns) {
+        VariantMetrics m = metricsFor(game);
+        m.games.inc();
+        m.length.observe(totalTurns);
+    }
+
+    private VariantMetrics metricsFor(Game game) {
+        Rules rules = game.getRules();
+        int chain = chainCode(rules);
+        if (chain < 0) {
+            return forVariant(variant(rules)); // rules this observer does not know: look up by name
+        }
+        VariantMetrics metrics = byChain.get(chain); // small codes: Integer.valueOf does not allocate
+        return metrics != null ? metrics : byChain.computeIfAbsent(chain, c -> forVariant(variant(rules)));
+    }
+
+    private VariantMetrics forVariant(String variant) {
+        return byVariant.computeIfAbsent(variant, v -> new VariantMetrics(registry, v));
+    }
+
+    /**
+     * Metric label for a rule set, e.g. "basic+exact-end": the innermost rules' name followed by
+     * one suffix per decorator, in wrapping order.
+     */
+    static String variant(Rules rules) {
+        if (rules instanceof ExactEndDecorator d) return variant(d.getInner()) + "+exact-end";
+        if (rules instanceof ForfeitOnHitDecorator d) return variant(d.getInner()) + "+forfeit-on-hit";
+        if (rules instanceof BasicRules) return "basic";
+        return rules.getClass().getSimpleName();
+    }
+
+    /**
+     * Two bits per link of a chain of known rules (innermost last), or -1 if it contains others.
+     */
+    private static int chainCode(Rules rules) {
+        int code = 0;
+        for (int depth = 0; depth < 15; depth++) {
+            if (rules instanceof ExactEndDecorator d) {
+                code = code << 2 | 1;
+                rules = d.getInner();
+            } else if (rules instanceof ForfeitOnHitDecorator d) {
+                code = code << 2 | 2;
+                rules = d.getInner();
+            } else {
+                return rules instanceof BasicRules ? code << 2 | 3 : -1;
+            }
+        }
+        return -1;
+    }
+
+    private static final class VariantMetrics {
+        final MetricsRegistry.Counter turns;
+        final MetricsRegistry.Counter hits;
+        final MetricsRegistry.Counter overshoots;
+        final MetricsRegistry.Counter forfeits;
+        final MetricsRegistry.Counter games;
+        final MetricsRegistry.Histogram length;
+
+        VariantMetrics(MetricsRegistry registry, String variant) {
+            turns = registry.counter("game_turns_total", "Moves played, including forfeited ones.", "variant", variant);
+            hits = registry.counter("game_hits_total", "Moves that landed on another player.", "variant", variant);
+            overshoots = registry.counter("game_overshoots_total", "Moves that overshot END.", "variant", variant);
+            forfeits = registry.counter("game_forfeits_total", "Moves forfeited by the rules.", "variant", variant);
+            games = registry.counter("game_finished_total", "Games played to a winner.", "variant", variant);
+            length = registry.histogram("game_length_turns", "Total turns of finished games.",
+                    MetricsRegistry.TURN_BUCKETS, "variant", variant);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package uk.ac.mmu.game.infrastructure;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Minimal in-process metrics registry with Prometheus text exposition (format 0.0.4).
+ *
+ * <p>Counters and histogram buckets are {@link LongAdder}s (striped per CPU), so recording
+ * from many game threads at once does not contend. Look-ups by name and labels go through a
+ * ConcurrentHashMap; callers on hot paths should look a metric up once and keep it.
+ *
+ * <p>Deliberately tiny: counters, gauges and histograms are all the game needs, and it keeps the
+ * project free of a metrics library dependency.
+ */
+public class MetricsRegistry {
+
+    /** Upper bounds in seconds for I/O latency histograms (100 us .. 10 s). */
+    public static final double[] LATENCY_BUCKETS = {
+            0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+
+    /** Upper bounds for game-length histograms, in turns. */
+    public static final double[] TURN_BUCKETS = {5, 10, 15, 20, 25, 30, 40, 50, 75, 100, 150, 200, 500, 1000};
+
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the counter with this name and labels, creating it on first use.
+     *
+     * @param labels alternating label names and values, e.g. "variant", "basic"
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, "counter", null).metrics
+                .computeIfAbsent(labelString(labels), k -> new Counter());
+    }
+
+    /**
+     * Returns the histogram with this name and labels, creating it on first use.
+     * All histograms of one name share the bucket bounds given on first use.
+     */
+    public Histogram histogram(String name, String help, double[] buckets, String... labels) {
+        Family family = family(name, help, "histogram", buckets);
+        return (Histogram) family.metrics.computeIfAbsent(labelString(labels), k -> new Histogram(family.buckets));
+    }
+
+    /**
+     * Registers a gauge whose value is read from {@code value} at exposition time.
+     */
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, "gauge", null).metrics.put(labelString(labels), new Gauge(value));
+    }
+
+    private Family family(String name, String help, String type, double[] buckets) {
+        Family family = families.computeIfAbsent(name, n -> new Family(help, type, buckets));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException(name + " is already registered as a " + family.type);
+        }
+        return family;
+    }
+
+    private static String labelString(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("labels must be name/value pairs");
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) sb.append(',');
+            sb.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        return sb.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Writes every metric in Prometheus text format, families sorted by name.
+     */
+    public void writeTo(Appendable out) throws IOException {
+        List<String> names = families.keySet().stream().sorted().toList();
+        for (String name : names) {
+            Family family = families.get(name);
+            out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+
+            for (String labels : family.metrics.keySet().stream().sorted().toList()) {
+                family.metrics.get(labels).writeTo(out, name, labels);
+            }
+        }
+    }
+
+    public String scrape() {
+        StringBuilder sb = new StringBuilder();
+        try {
+            writeTo(sb);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // StringBuilder does not throw
+        }
+        return sb.toString();
+    }
+
+    private static String number(double value) {
+        if (value == Double.POSITIVE_INFINITY) return "+Inf";
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) return Long.toString((long) value);
+        return Double.toString(value);
+    }
+
+    private static void sample(Appendable out, String name, String labels, String value) throws IOException {
+        out.append(name);
+        if (!labels.isEmpty()) out.append('{').append(labels).append('}');
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static final class Family {
+        final String help;
+        final String type;
+        final double[] buckets;
+        final Map<String, Metric> metrics = new ConcurrentHashMap<>();
+
+        Family(String help, String type, double[] buckets) {
+            this.help = help;
+            this.type = type;
+            this.buckets = buckets == null ? null : buckets.clone();
+        }
+    }
+
+    private interface Metric {
+        void writeTo(Appendable out, String name, String labels) throws IOException;
+    }
+
+    /**
+     * Monotonic counter.
+     */
+    public static final class Counter implements Metric {
+        private final LongAdder value = new LongAdder();
+
+        public void inc() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+
+        @Override
+        public void writeTo(Appendable out, String name, String labels) throws IOException {
+            sample(out, name, labels, Long.toString(get()));
+        }
+    }
+
+    private record Gauge(DoubleSupplier value) implements Metric {
+        @Override
+        public void writeTo(Appendable out, String name, String labels) throws IOException {
+            sample(out, name, labels, number(value.getAsDouble()));
+        }
+    }
+
+    /**
+     * Cumulative histogram with fixed upper bounds (an implicit +Inf bucket is added).
+     */
+    public static final class Histogram implements Metric {
+        private final double[] bounds;
+        private final LongAdder[] buckets;
+        private final DoubleAdder sum = new DoubleAdder();
+
+        Histogram(double[] bounds) {
+            this.bounds = bounds;
+            this.buckets = new LongAdder[bounds.length + 1];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void observe(double value) {
+            int i = 0;
+            while (i < bounds.length && value > bounds[i]) i++;
+            buckets[i].increment();
+            sum.add(value);
+        }
+
+        public long count() {
+            long count = 0;
+            for (LongAdder bucket : buckets) count += bucket.sum();
+            return count;
+        }
+
+        public double sum() {
+            return sum.sum();
+        }
+
+        @Override
+        public void writeTo(Appendable out, String name, String labels) throws IOException {
+            String prefix = labels.isEmpty() ? "" : labels + ",";
+            long cumulative = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                cumulative += buckets[i].sum();
+                double le = i < bounds.length ? bounds[i] : Double.POSITIVE_INFINITY;
+                sample(out, name + "_bucket", prefix + "le=\"" + number(le) + "\"", Long.toString(cumulative));
+            }
+            sample(out, name + "_sum", labels, number(sum()));
+            sample(out, name + "_count", labels, Long.toString(cumulative));
+        }
+    }
+}
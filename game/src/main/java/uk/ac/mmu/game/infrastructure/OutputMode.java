@@ -0,0 +1,21 @@
+package uk.ac.mmu.game.infrastructure;
+
+/**
+ * How much of a played or replayed game the console shows.
+ */
+public enum OutputMode {
+    /** Every turn and state change, as well as the summary lines. */
+    FULL,
+    /** {@code --summary-only}: the configuration, winner, game-over and save lines, no turns. */
+    SUMMARY,
+    /** {@code --quiet}: nothing at all from the game; errors still go to stderr. */
+    QUIET;
+
+    boolean showsTurns() {
+        return this == FULL;
+    }
+
+    boolean showsSummary() {
+        return this != QUIET;
+    }
+}
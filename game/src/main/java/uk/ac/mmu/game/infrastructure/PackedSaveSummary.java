@@ -0,0 +1,133 @@
+package uk.ac.mmu.game.infrastructure;
+
+import uk.ac.mmu.game.usecase.GameSave;
+import uk.ac.mmu.game.usecase.SaveQuery;
+import uk.ac.mmu.game.usecase.SaveSummary;
+
+import java.util.UUID;
+
+/**
+ * Encodes a save's {@link SaveSummary} (without the id) as a single {@code long}, the value
+ * {@link SaveIndex} keeps per entry in its summary column.
+ *
+ * <p>Bit layout (least significant first):
+ * <pre>
+ *   0..23   rolls played     (24 bits, {@link GameSave#rollsPlayed()})
+ *   24..39  mainSize         (16 bits)
+ *   40..47  tailSize         (8 bits)
+ *   48..57  players          (10 bits)
+ *   58      singleDie
+ *   59      exactEnd
+ *   60      forfeitOnHit
+ *   61      seeded
+ *   63      known: 0 ({@link #UNKNOWN}) if a field did not fit, so the record must be read to filter it
+ * </pre>
+ */
+final class PackedSaveSummary {
+
+    static final long UNKNOWN = 0;
+
+    private static final int MAX_ROLLS = (1 << 24) - 1;
+    private static final int MAX_PLAYERS = (1 << 10) - 1;
+    private static final int MAIN_SHIFT = 24;
+    private static final int TAIL_SHIFT = 40;
+    private static final int PLAYERS_SHIFT = 48;
+
+    private static final long SINGLE_DIE = 1L << 58;
+    private static final long EXACT_END = 1L << 59;
+    private static final long FORFEIT_ON_HIT = 1L << 60;
+    private static final long SEEDED = 1L << 61;
+    private static final long KNOWN = 1L << 63;
+
+    private PackedSaveSummary() {
+    }
+
+    static long pack(GameSave save) {
+        return pack(save.mainSize, save.tailSize, save.players, save.singleDie, save.exactEnd, save.forfeitOnHit,
+                save.seeded(), save.rollsPlayed());
+    }
+
+    /**
+     * @return the packed summary, or {@link #UNKNOWN} if any field is out of range for this layout
+     */
+    static long pack(int mainSize, int tailSize, int players, boolean singleDie, boolean exactEnd,
+                     boolean forfeitOnHit, boolean seeded, int rolls) {
+        if (!fits(mainSize, tailSize, players) || rolls < 0 || rolls > MAX_ROLLS) return UNKNOWN;
+        return KNOWN
+                | rolls
+                | (long) mainSize << MAIN_SHIFT
+                | (long) tailSize << TAIL_SHIFT
+                | (long) players << PLAYERS_SHIFT
+                | (singleDie ? SINGLE_DIE : 0)
+                | (exactEnd ? EXACT_END : 0)
+                | (forfeitOnHit ? FORFEIT_ON_HIT : 0)
+                | (seeded ? SEEDED : 0);
+    }
+
+    private static boolean fits(int mainSize, int tailSize, int players) {
+        return mainSize >= 0 && mainSize <= 0xFFFF && tailSize >= 0 && tailSize <= 0xFF && players >= 0 && players <= MAX_PLAYERS;
+    }
+
+    static SaveSummary unpack(UUID id, long packed) {
+        if (packed == UNKNOWN) throw new IllegalArgumentException("summary unknown for " + id);
+        return new SaveSummary(id,
+                (int) (packed >>> MAIN_SHIFT) & 0xFFFF,
+                (int) (packed >>> TAIL_SHIFT) & 0xFF,
+                (int) (packed >>> PLAYERS_SHIFT) & MAX_PLAYERS,
+                (packed & SINGLE_DIE) != 0,
+                (packed & EXACT_END) != 0,
+                (packed & FORFEIT_ON_HIT) != 0,
+                (packed & SEEDED) != 0,
+                (int) (packed & MAX_ROLLS));
+    }
+
+    /**
+     * A {@link SaveQuery} compiled to one mask-and-compare plus a range check on packed summaries.
+     * It never matches {@link #UNKNOWN}; callers read those records and use the query itself.
+     */
+    record Filter(long mask, long value, int minRolls, int maxRolls) {
+
+        static Filter of(SaveQuery query) {
+            long mask = KNOWN;
+            long value = KNOWN;
+            if (query.players() != null) {
+                if (!fits(0, 0, query.players())) return new Filter(KNOWN, 0, 0, 0); // matches nothing
+                mask |= (long) MAX_PLAYERS << PLAYERS_SHIFT;
+                value |= (long) query.players() << PLAYERS_SHIFT;
+            }
+            if (query.mainSize() != null) {
+                if (!fits(query.mainSize(), 0, 0)) return new Filter(KNOWN, 0, 0, 0);
+                mask |= 0xFFFFL << MAIN_SHIFT;
+                value |= (long) query.mainSize() << MAIN_SHIFT;
+            }
+            if (query.tailSize() != null) {
+                if (!fits(0, query.tailSize(), 0)) return new Filter(KNOWN, 0, 0, 0);
+                mask |= 0xFFL << TAIL_SHIFT;
+                value |= (long) query.tailSize() << TAIL_SHIFT;
+            }
+            if (query.singleDie() != null) {
+                mask |= SINGLE_DIE;
+                value |= query.singleDie() ? SINGLE_DIE : 0;
+            }
+            if (query.exactEnd() != null) {
+                mask |= EXACT_END;
+                value |= query.exactEnd() ? EXACT_END : 0;
+            }
+            if (query.forfeitOnHit() != null) {
+                mask |= FORFEIT_ON_HIT;
+                value |= query.forfeitOnHit() ? FORFEIT_ON_HIT : 0;
+            }
+            if (query.seeded() != null) {
+                mask |= SEEDED;
+                value |= query.seeded() ? SEEDED : 0;
+            }
+            return new Filter(mask, value, query.minRolls(), query.maxRolls());
+        }
+
+        boolean matches(long packed) {
+            if ((packed & mask) != value) return false;
+            int rolls = (int) (packed & MAX_ROLLS);
+            return rolls >= minRolls && rolls <= maxRolls;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package uk.ac.mmu.game.infrastructure;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parses every line of a list of files on several threads, returning the results in file order.
+ *
+ * <p>Each file is memory-mapped in chunks of about {@code chunkBytes}, each extended to end just
+ * after a newline, so no line is split between chunks. The chunks are parsed by fork/join tasks
+ * (halving the chunk range like {@link uk.ac.mmu.game.usecase.SimulateGamesUseCase}'s batches)
+ * and the results joined left to right. Lines are handed to the parser as bytes: nothing is
+ * decoded into a {@code String}.
+ *
+ * <p>Only the given {@link Extent} of each file is mapped. A file still being appended to is
+ * passed with a length its owner read under the file's {@link SaveFileLock}, so its chunks
+ * cover complete batches only and never run into bytes being written.
+ *
+ * <p>Every scan runs in one pool: the common pool by default, else the scanner's own, kept for
+ * its lifetime (idle workers exit by themselves), so a scan never starts threads of its own.
+ *
+ * <p>A last line without its newline is parsed too, as {@code BufferedReader.readLine} would.
+ * Blank lines are skipped. Files missing by the time they are opened are skipped as well.
+ */
+final class ParallelLineScanner {
+
+    /** Chunks of a file smaller than this are not split any further. */
+    static final int DEFAULT_CHUNK_BYTES = 4 << 20;
+
+    /**
+     * Parses one line.
+     */
+    @FunctionalInterface
+    interface LineParser<T> {
+        /**
+         * @param length the line's length without its newline
+         * @return the result, or null to leave the line out
+         */
+        T parse(byte[] bytes, int start, int length);
+    }
+
+    /**
+     * The first {@code length} bytes of {@code file}, or all of it if {@code length} is negative
+     * (for files nobody appends to any more, such as sealed segments).
+     */
+    record Extent(Path file, long length) {
+        static Extent whole(Path file) {
+            return new Extent(file, -1);
+        }
+    }
+
+    /**
+     * @param bytes bytes scanned, newlines included
+     * @param lines lines scanned, blank ones included
+     */
+    record Result<T>(List<T> items, long bytes, long lines) { }
+
+    private final ForkJoinPool pool;
+    private final int chunkBytes;
+
+    /**
+     * @param parallelism worker threads (0 = all available cores)
+     */
+    ParallelLineScanner(int parallelism, int chunkBytes) {
+        if (parallelism < 0) throw new IllegalArgumentException("parallelism must be >= 0");
+        if (chunkBytes <= 0) throw new IllegalArgumentException("chunkBytes must be > 0");
+        this.pool = parallelism == 0 ? ForkJoinPool.commonPool() : new ForkJoinPool(parallelism);
+        this.chunkBytes = chunkBytes;
+    }
+
+    <T> Result<T> scan(List<Extent> files, LineParser<T> parser) throws IOException {
+        List<MappedByteBuffer> chunks = new ArrayList<>();
+        long bytes = 0;
+        for (Extent file : files) {
+            try (FileChannel channel = FileChannel.open(file.file(), StandardOpenOption.READ)) {
+                // Mappings stay valid once the channel is closed
+                bytes += split(channel, file.length() < 0 ? channel.size() : Math.min(file.length(), channel.size()),
+                        chunks);
+            } catch (NoSuchFileException e) {
+                // A segment merged away since it was listed; its saves are in a later one
+            }
+        }
+
+        LongAdder lines = new LongAdder();
+        Parse<T> task = new Parse<>(chunks, 0, chunks.size(), parser, lines);
+        List<T> items;
+        if (chunks.size() <= 1 || pool.getParallelism() == 1) {
+            items = task.compute();
+        } else {
+            items = pool.invoke(task);
+        }
+        return new Result<>(items, bytes, lines.sum());
+    }
+
+    /**
+     * Maps the first {@code size} bytes of {@code channel} as newline-aligned chunks, appending
+     * them to {@code chunks}.
+     *
+     * @return {@code size}
+     */
+    private long split(FileChannel channel, long size, List<MappedByteBuffer> chunks) throws IOException {
+        long start = 0;
+        while (start < size) {
+            long end = start + chunkBytes >= size ? size : lineEndAfter(channel, start + chunkBytes, size);
+            if (end - start > Integer.MAX_VALUE) throw new IOException("line longer than 2 GB at " + start);
+            chunks.add(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+            start = end;
+        }
+        return size;
+    }
+
+    /**
+     * @return the offset just after the first newline at or after {@code from}, or {@code size} if there is none
+     */
+    private static long lineEndAfter(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        for (long position = from; position < size; ) {
+            buffer.clear();
+            int n = channel.read(buffer, position);
+            if (n < 0) break;
+            for (int i = 0; i < n; i++) {
+                if (buffer.get(i) == '\n') return position + i + 1;
+            }
+            position += n;
+        }
+        return size;
+    }
+
+    private static final class Parse<T> extends RecursiveTask<List<T>> {
+
+        private final List<MappedByteBuffer> chunks;
+        private final int from;
+        private final int to;
+        private final LineParser<T> parser;
+        private final LongAdder lines;
+
+        Parse(List<MappedByteBuffer> chunks, int from, int to, LineParser<T> parser, LongAdder lines) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+            this.parser = parser;
+            this.lines = lines;
+        }
+
+        @Override
+        protected List<T> compute() {
+            if (to - from <= 1) {
+                return to == from ? new ArrayList<>() : parse(chunks.get(from));
+            }
+
+            int mid = (from + to) >>> 1;
+            Parse<T> left = new Parse<>(chunks, from, mid, parser, lines);
+            Parse<T> right = new Parse<>(chunks, mid, to, parser, lines);
+            left.fork();
+            List<T> rightItems = right.compute();
+            List<T> items = left.join();
+            items.addAll(rightItems);
+            return items;
+        }
+
+        private List<T> parse(MappedByteBuffer chunk) {
+            List<T> items = new ArrayList<>();
+            byte[] line = new byte[4096];
+            int limit = chunk.limit();
+            int start = 0;
+            long count = 0;
+            while (start < limit) {
+                int end = start;
+                while (end < limit && chunk.get(end) != '\n') end++;
+                count++;
+                int length = end - start;
+                if (length > 0) {
+                    if (length > line.length) line = new byte[Math.max(length, line.length * 2)];
+                    chunk.get(start, line, 0, length);
+                    T item = parser.parse(line, 0, length);
+                    if (item != null) items.add(item);
+                }
+                start = end + 1;
+            }
+            lines.add(count);
+            return items;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package uk.ac.mmu.game.infrastructure;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Index entries gathered without the save file's lock, to be added to the {@link SaveIndex}
+ * under it in one go, so writers contend once per batch rather than once per record.
+ *
+ * <p>Entries either carry a file offset already (records found by a scan, see {@link #applyTo})
+ * or a position in a {@link WriteBehindAppender}'s stream, which becomes a file offset once its
+ * batch is written (see {@link #applyWritten}). Not thread-safe.
+ */
+final class PendingIndexEntries {
+
+    private static final int WIDTH = 5; // msb, lsb, offset or stream position, length, packed summary
+
+    private long[] entries = new long[WIDTH * 64];
+    private int size;
+
+    /**
+     * @param summary the record's {@link PackedSaveSummary}
+     */
+    void add(UUID id, long offsetOrPosition, int length, long summary) {
+        if (size * WIDTH == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        int at = size * WIDTH;
+        entries[at] = id.getMostSignificantBits();
+        entries[at + 1] = id.getLeastSignificantBits();
+        entries[at + 2] = offsetOrPosition;
+        entries[at + 3] = length;
+        entries[at + 4] = summary;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Adds every entry, which must hold file offsets. Call under the save file's lock.
+     */
+    void applyTo(SaveIndex index) throws IOException {
+        for (int i = 0; i < size; i++) {
+            put(index, i, entries[i * WIDTH + 2]);
+        }
+        size = 0;
+    }
+
+    /**
+     * Adds the entries (holding stream positions, in stream order) whose batches are among
+     * {@code batches}, and extends the index's covered length over each batch that directly
+     * follows it. Entries for batches not written yet are kept. Call under the save file's lock.
+     *
+     * <p>Entries for batches written to an earlier file at the same path (one since rotated away,
+     * see {@link WriteBehindAppender.Batch#generation()}) are dropped: that file was fully indexed
+     * when it was sealed.
+     *
+     * @param currentGeneration the generation of the file now at the save path
+     */
+    void applyWritten(List<WriteBehindAppender.Batch> batches, SaveIndex index, long currentGeneration)
+            throws IOException {
+        int done = 0;
+        for (WriteBehindAppender.Batch batch : batches) {
+            boolean current = batch.generation() == currentGeneration;
+            while (done < size && batch.contains(entries[done * WIDTH + 2])) {
+                if (current) {
+                    put(index, done, batch.fileOffsetOf(entries[done * WIDTH + 2]));
+                }
+                done++;
+            }
+            if (!current) continue;
+            // Another writer's records may sit between the covered length and this batch;
+            // if so they (and this batch) are left for the next catch-up scan.
+            if (index.coveredLength() == batch.fileOffset()) {
+                index.setCoveredLength(batch.fileOffset() + batch.length());
+            }
+        }
+        System.arraycopy(entries, done * WIDTH, entries, 0, (size - done) * WIDTH);
+        size -= done;
+    }
+
+    private void put(SaveIndex index, int i, long offset) throws IOException {
+        int at = i * WIDTH;
+        index.put(new UUID(entries[at], entries[at + 1]), offset, (int) entries[at + 3], entries[at + 4]);
+    }
+}
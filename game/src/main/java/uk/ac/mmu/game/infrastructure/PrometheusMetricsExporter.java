@@ -0,0 +1,108 @@
+package uk.ac.mmu.game.infrastructure;
+
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes a {@link MetricsRegistry} in Prometheus text format:
+ * <ul>
+ *   <li>as a file rewritten every interval and once more on close (for node_exporter's
+ *       textfile collector, or just for reading), and/or</li>
+ *   <li>over HTTP at {@code http://127.0.0.1:<port>/metrics}.</li>
+ * </ul>
+ * Either can be switched off (null file, port 0). A failed dump is logged and retried at the
+ * next interval.
+ */
+public class PrometheusMetricsExporter implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PrometheusMetricsExporter.class);
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MetricsRegistry registry;
+    private final Path file;
+    private final ScheduledExecutorService dumper;
+    private final HttpServer server;
+
+    public PrometheusMetricsExporter(MetricsRegistry registry, Path file, int port, Duration interval) throws IOException {
+        this.registry = registry;
+        this.file = file;
+
+        if (file != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "metrics-dump");
+                t.setDaemon(true);
+                return t;
+            });
+            long ms = interval.toMillis();
+            dumper.scheduleAtFixedRate(this::dumpQuietly, ms, ms, TimeUnit.MILLISECONDS);
+        } else {
+            dumper = null;
+        }
+
+        if (port > 0) {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            server.createContext("/metrics", exchange -> {
+                byte[] body = registry.scrape().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+        } else {
+            server = null;
+        }
+    }
+
+    /**
+     * Writes the current metrics to the file (via a temp file, so readers never see half a dump).
+     */
+    public void dump() throws IOException {
+        if (file == null) return;
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(tmp, registry.scrape(), StandardCharsets.UTF_8);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void dumpQuietly() {
+        try {
+            dump();
+        } catch (IOException e) {
+            LOG.warn("Metrics dump to {} failed", file, e);
+        }
+    }
+
+    /**
+     * Port the HTTP endpoint is bound to, or 0 when it is disabled.
+     */
+    public int port() {
+        return server == null ? 0 : server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        if (dumper != null) {
+            dumper.shutdownNow();
+            dumpQuietly();
+        }
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+}
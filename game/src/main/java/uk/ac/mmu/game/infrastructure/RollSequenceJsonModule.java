@@ -0,0 +1,74 @@
+package uk.ac.mmu.game.infrastructure;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import uk.ac.mmu.game.domain.RollSequence;
+
+import java.io.IOException;
+
+/**
+ * Jackson support for {@link RollSequence}, which is written and read as a plain JSON array of
+ * numbers ({@code "rolls":[12,12,7,8]}), so save lines look exactly as they did when the rolls
+ * were a {@code List<Integer>}.
+ *
+ * <p>Both directions stream the numbers one token at a time between the parser or generator and
+ * the sequence's byte buffer, without going through {@code Integer} or a collection deserializer.
+ * Register it on every {@code ObjectMapper} that binds {@link uk.ac.mmu.game.usecase.GameSave}.
+ */
+public class RollSequenceJsonModule extends SimpleModule {
+
+    public RollSequenceJsonModule() {
+        super("RollSequence");
+        addSerializer(RollSequence.class, new Serializer());
+        addDeserializer(RollSequence.class, new Deserializer());
+    }
+
+    static final class Serializer extends StdSerializer<RollSequence> {
+
+        Serializer() {
+            super(RollSequence.class);
+        }
+
+        @Override
+        public void serialize(RollSequence rolls, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartArray(rolls, rolls.size());
+            for (int i = 0; i < rolls.size(); i++) {
+                gen.writeNumber(rolls.getInt(i));
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    static final class Deserializer extends StdDeserializer<RollSequence> {
+
+        Deserializer() {
+            super(RollSequence.class);
+        }
+
+        @Override
+        public RollSequence deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartArrayToken()) {
+                return (RollSequence) ctxt.handleUnexpectedToken(RollSequence.class, p);
+            }
+            RollSequence.Builder rolls = new RollSequence.Builder();
+            JsonToken token;
+            while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.VALUE_NUMBER_INT) {
+                    return (RollSequence) ctxt.handleUnexpectedToken(RollSequence.class, p);
+                }
+                try {
+                    rolls.add(p.getIntValue());
+                } catch (IllegalArgumentException e) {
+                    return (RollSequence) ctxt.handleWeirdNumberValue(RollSequence.class, p.getIntValue(), e.getMessage());
+                }
+            }
+            return rolls.build();
+        }
+    }
+}
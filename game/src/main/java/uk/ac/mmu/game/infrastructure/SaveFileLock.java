@@ -0,0 +1,139 @@
+package uk.ac.mmu.game.infrastructure;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exclusive lock over one save file, held across threads and processes:
+ * a {@link ReentrantLock} shared by every user of the file in this JVM, plus an OS file lock
+ * on a sidecar {@code <save file>.lock} for other processes.
+ *
+ * <p>The lock file is opened once per JVM and never closed: on POSIX systems closing
+ * <em>any</em> descriptor of a file drops all of the process's locks on it, so locking the save
+ * file itself would be undone by the next load. Its first eight bytes hold the save file's
+ * {@link #generation()}.
+ *
+ * <p>Holders keep it for one batch append or one index update, never for a whole scan.
+ *
+ * <p>The kernel tracks these locks per process, not per thread, so a thread that waits in the OS
+ * for one lock file while another thread of its process holds a second can be refused with
+ * {@code EDEADLK} though nothing is stuck. A lock held for long while others are taken
+ * (compaction) therefore uses {@link #withLockPolling}, which never waits in the OS.
+ */
+final class SaveFileLock {
+
+    @FunctionalInterface
+    interface IoAction<T> {
+        T run() throws IOException;
+    }
+
+    private static final Map<Path, SaveFileLock> LOCKS = new ConcurrentHashMap<>();
+
+    private final Path lockFile;
+    private final ReentrantLock threads = new ReentrantLock();
+    private FileChannel channel; // guarded by threads, opened on first use
+
+    private SaveFileLock(Path lockFile) {
+        this.lockFile = lockFile;
+    }
+
+    /**
+     * The lock for {@code savesFile}; every caller in this JVM gets the same instance.
+     */
+    static SaveFileLock forFile(Path savesFile) {
+        Path key = savesFile.toAbsolutePath().normalize();
+        return LOCKS.computeIfAbsent(key, k -> new SaveFileLock(k.resolveSibling(k.getFileName() + ".lock")));
+    }
+
+    /**
+     * How many times the file at the save path has been replaced by a new one (sealed, see
+     * {@link JsonLinesGameSaveRepository}); 0 for a new lock file. A holder that remembers the
+     * generation it opened the file at can tell it has been rotated away on any platform,
+     * without file keys (which Windows does not have). Call under the lock.
+     */
+    long generation() throws IOException {
+        requireHeld();
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) break;
+        }
+        return buffer.hasRemaining() ? 0 : buffer.flip().getLong();
+    }
+
+    /**
+     * Records that the save file has just been replaced. Call under the lock.
+     */
+    void nextGeneration() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(0, generation() + 1);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, buffer.position());
+        }
+        channel.force(false);
+    }
+
+    private void requireHeld() {
+        if (!threads.isHeldByCurrentThread()) {
+            throw new IllegalStateException("lock on " + lockFile + " is not held");
+        }
+    }
+
+    /**
+     * Runs {@code action} while holding the lock. Re-entrant within a thread.
+     */
+    <T> T withLock(IoAction<T> action) throws IOException {
+        threads.lock();
+        try {
+            if (threads.getHoldCount() > 1) {
+                return action.run(); // the file lock is already ours
+            }
+            if (channel == null) {
+                channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+            }
+            try (FileLock ignored = channel.lock()) {
+                return action.run();
+            }
+        } finally {
+            threads.unlock();
+        }
+    }
+
+    /**
+     * Like {@link #withLock}, but while another process holds the lock it retries every
+     * {@code interval} instead of waiting in the OS.
+     */
+    <T> T withLockPolling(IoAction<T> action, Duration interval) throws IOException {
+        threads.lock();
+        try {
+            if (threads.getHoldCount() > 1) {
+                return action.run();
+            }
+            if (channel == null) {
+                channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+            }
+            while (true) {
+                try (FileLock held = channel.tryLock()) {
+                    if (held != null) return action.run();
+                }
+                try {
+                    Thread.sleep(interval);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("interrupted while waiting for " + lockFile);
+                }
+            }
+        } finally {
+            threads.unlock();
+        }
+    }
+}
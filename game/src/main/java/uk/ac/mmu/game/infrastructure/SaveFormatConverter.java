@@ -0,0 +1,52 @@
+package uk.ac.mmu.game.infrastructure;
+
+import uk.ac.mmu.game.usecase.GameSave;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Copies the JSON Lines save file into the binary one (--convert-saves).
+ *
+ * <p>Saves already present in the binary file are skipped, so converting twice, or after
+ * new games were saved as JSON, only adds what is missing. File order is kept, and of a
+ * duplicated id only the latest entry is copied (the one both repositories load).
+ */
+public class SaveFormatConverter {
+
+    /**
+     * @param converted saves written to the binary file
+     * @param skipped   saves already there (or without an id)
+     */
+    public record Result(int converted, int skipped, long jsonBytes, long binaryBytes) { }
+
+    private final Path jsonFile;
+    private final Path binaryFile;
+
+    public SaveFormatConverter(Path jsonFile, Path binaryFile) {
+        this.jsonFile = jsonFile;
+        this.binaryFile = binaryFile;
+    }
+
+    public Result jsonToBinary() throws Exception {
+        int converted = 0;
+        int skipped = 0;
+        try (JsonLinesGameSaveRepository json = new JsonLinesGameSaveRepository(jsonFile);
+             BinaryGameSaveRepository binary = new BinaryGameSaveRepository(binaryFile)) {
+
+            Set<UUID> present = new HashSet<>(binary.listIds());
+            for (GameSave save : json.listAll()) {
+                if (save.id == null || !present.add(save.id)) {
+                    skipped++;
+                    continue;
+                }
+                binary.save(save);
+                converted++;
+            }
+        }
+        return new Result(converted, skipped, Files.size(jsonFile), Files.size(binaryFile));
+    }
+}
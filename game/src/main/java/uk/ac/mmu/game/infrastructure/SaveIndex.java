@@ -0,0 +1,477 @@
+package uk.ac.mmu.game.infrastructure;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sidecar index mapping save id to the byte range of its record in the data file,
+ * kept next to it as {@code <data file>.idx}.
+ *
+ * <p>The index file is a memory-mapped open-addressing hash table (linear probing, load factor
+ * at most 1/2), so a look-up touches one or two 32-byte slots whatever the data file's size:
+ * <pre>
+ *   header (64 bytes): magic, version, capacity, count, covered length, replaced flag,
+ *                      data file fingerprint (length, CRC32C)
+ *   slot   (32 bytes): id msb, id lsb, offset, length   (length 0 = empty)
+ *   summary column   : 8 bytes per slot, see {@link PackedSaveSummary}
+ *   Bloom filter     : 16 bits per slot
+ * </pre>
+ * The header's <em>covered length</em> is how many bytes of the data file the index describes.
+ * It is written last, so a crash after appending a record leaves the index behind rather than
+ * wrong; the owner catches up by scanning from there (see {@link #coveredLength()}). The
+ * <em>fingerprint</em> is a checksum of the data file's first bytes (its first record), so the
+ * owner can tell when the file at that path has been replaced by another one, even a longer one.
+ *
+ * <p>The summary column holds each entry's configuration and roll count apart from the slots,
+ * so a query ({@link #matching}) runs down one contiguous array of longs and reads the slots of
+ * matching entries only, never the data file.
+ *
+ * <p>The Bloom filter (about 32 bits per id, 4 probes) sits in front of the table, so an
+ * unknown id is normally rejected without probing it. It lives in the file rather than on the
+ * heap so that ids added by other processes are seen too.
+ *
+ * <p>Several processes may map the same index. Mutations must run under the data file's
+ * {@link SaveFileLock}; look-ups need no lock. The table is never resized in place: growing or
+ * resetting builds a new file beside it and renames it over the old one, then sets the old
+ * mapping's <em>replaced</em> flag so that every other holder re-opens before its next access.
+ *
+ * <p>If an id is indexed twice, the record further into the file wins: a later save of an id
+ * replaces the earlier one, as it does across a log's files (see {@link JsonLinesGameSaveRepository}).
+ * Not thread-safe; the owning repository serialises access within a process.
+ */
+final class SaveIndex {
+
+    private static final int MAGIC = 0x47494458; // "GIDX"
+    private static final int VERSION = 5;
+    private static final int HEADER_BYTES = 64;
+    private static final int SLOT_BYTES = 32;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final int SLOT_BITS = 25;
+    private static final int MAX_CAPACITY = 1 << SLOT_BITS; // keeps the mapping under 2 GB
+    private static final int BLOOM_PROBES = 4;
+
+    private static final int CAPACITY_AT = 8;
+    private static final int COUNT_AT = 12;
+    private static final int COVERED_AT = 16;
+    private static final int REPLACED_AT = 24;
+    private static final int FINGERPRINT_LENGTH_AT = 28;
+    private static final int FINGERPRINT_AT = 32;
+
+    /** Ids to leave out of a listing, e.g. those saved again in a newer file. */
+    @FunctionalInterface
+    interface IdFilter {
+        IdFilter NONE = (msb, lsb) -> false;
+
+        boolean excludes(long msb, long lsb) throws IOException;
+    }
+
+    /** Where one record lives in the data file. */
+    record Entry(long offset, int length) { }
+
+    /** An entry found by {@link #matching}, with its packed summary. */
+    record Match(UUID id, long offset, int length, long summary) {
+        Entry entry() {
+            return new Entry(offset, length);
+        }
+    }
+
+    private final Path file;
+    private MappedByteBuffer table;
+    private int capacity;
+
+    /**
+     * Opens the index at {@code file}, creating an empty one if it is missing or unreadable.
+     * Callers compare {@link #coveredLength()} with the data file to decide whether to catch up or rebuild.
+     * Call under the data file's lock.
+     */
+    SaveIndex(Path file) throws IOException {
+        this.file = file;
+        if (!open()) {
+            reset();
+        }
+    }
+
+    private boolean open() throws IOException {
+        if (!Files.exists(file) || Files.size(file) < HEADER_BYTES) return false;
+
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+        int cap = mapped.getInt(CAPACITY_AT);
+        boolean valid = mapped.getInt(0) == MAGIC
+                && mapped.getInt(4) == VERSION
+                && Integer.bitCount(cap) == 1 && cap >= INITIAL_CAPACITY && cap <= MAX_CAPACITY
+                && mapped.capacity() == bytes(cap)
+                && mapped.getLong(COVERED_AT) >= 0
+                && mapped.getInt(REPLACED_AT) == 0;
+        if (!valid) return false;
+
+        table = mapped;
+        capacity = cap;
+        return true;
+    }
+
+    /**
+     * Re-opens the index if another holder has replaced the file since we mapped it.
+     *
+     * @return false if the replacement is unreadable (the caller should reset it under the lock)
+     */
+    private boolean current() throws IOException {
+        if (table.getInt(REPLACED_AT) == 0) return true;
+        return open();
+    }
+
+    /**
+     * Empties the index (covered length 0, no fingerprint), ready for a full rebuild.
+     */
+    void reset() throws IOException {
+        replace(INITIAL_CAPACITY, 0, false);
+    }
+
+    /**
+     * Bytes of the data file described by this index (0 if it was replaced by something unreadable).
+     */
+    long coveredLength() throws IOException {
+        return current() ? table.getLong(COVERED_AT) : 0;
+    }
+
+    /**
+     * Records that the first {@code length} bytes of the data file are indexed.
+     * Call after the {@link #put}s for those bytes.
+     */
+    void setCoveredLength(long length) throws IOException {
+        if (!current()) reset();
+        table.putLong(COVERED_AT, length);
+    }
+
+    /**
+     * How many leading bytes of the data file {@link #fingerprint()} covers (0 if none yet).
+     */
+    int fingerprintLength() throws IOException {
+        return current() ? table.getInt(FINGERPRINT_LENGTH_AT) : 0;
+    }
+
+    /**
+     * Checksum of the first {@link #fingerprintLength()} bytes of the data file.
+     */
+    long fingerprint() throws IOException {
+        return current() ? table.getLong(FINGERPRINT_AT) : 0;
+    }
+
+    /**
+     * Records the checksum of the data file's first {@code length} bytes.
+     */
+    void setFingerprint(int length, long checksum) throws IOException {
+        if (!current()) reset();
+        table.putLong(FINGERPRINT_AT, checksum);
+        table.putInt(FINGERPRINT_LENGTH_AT, length);
+    }
+
+    int size() throws IOException {
+        return current() ? table.getInt(COUNT_AT) : 0;
+    }
+
+    /**
+     * Adds an entry, or moves the id's entry to this record if it lies further into the file
+     * (the later record wins, whichever order writers index their batches in).
+     *
+     * @param summary the record's {@link PackedSaveSummary}, or {@link PackedSaveSummary#UNKNOWN}
+     */
+    void put(UUID id, long offset, int length, long summary) throws IOException {
+        if (length <= 0) throw new IllegalArgumentException("length must be > 0");
+        if (!current()) reset();
+
+        int count = table.getInt(COUNT_AT);
+        if (count + 1 > capacity / 2) {
+            grow();
+        }
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        if (insert(table, capacity, msb, lsb, offset, length, summary)) {
+            table.putInt(COUNT_AT, count + 1);
+            addToBloom(table, capacity, msb, lsb);
+        }
+    }
+
+    /**
+     * @return where the record for {@code id} lives, or null if it is not indexed
+     */
+    Entry find(UUID id) throws IOException {
+        return find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    /**
+     * Whether a record of {@code id} further into the data file than {@code offset} is indexed,
+     * making the one at {@code offset} out of date.
+     */
+    boolean supersedes(UUID id, long offset) throws IOException {
+        Entry entry = find(id);
+        return entry != null && entry.offset() > offset;
+    }
+
+    /**
+     * Whether the id with these halves is indexed; usable as an {@link IdFilter}.
+     */
+    boolean contains(long msb, long lsb) throws IOException {
+        return find(msb, lsb) != null;
+    }
+
+    private Entry find(long msb, long lsb) throws IOException {
+        if (!current()) return null;
+        if (!mightContain(msb, lsb)) return null;
+
+        int mask = capacity - 1;
+        for (int slot = hash(msb, lsb) & mask; ; slot = (slot + 1) & mask) {
+            int at = HEADER_BYTES + slot * SLOT_BYTES;
+            long length = table.getLong(at + 24);
+            if (length == 0) return null;
+            if (table.getLong(at) == msb && table.getLong(at + 8) == lsb) {
+                return new Entry(table.getLong(at + 16), (int) length);
+            }
+        }
+    }
+
+    /**
+     * Entries whose summary passes {@code filter}, plus those with an unknown summary (for the
+     * caller to check against the record), in data file order.
+     */
+    List<Match> matching(PackedSaveSummary.Filter filter) throws IOException {
+        List<Match> matches = new ArrayList<>();
+        if (!current()) return matches;
+        int summaryAt = summaryAt(capacity);
+        for (int slot = 0; slot < capacity; slot++) {
+            long summary = table.getLong(summaryAt + slot * 8);
+            if (summary != PackedSaveSummary.UNKNOWN && !filter.matches(summary)) continue;
+            int at = HEADER_BYTES + slot * SLOT_BYTES;
+            long length = table.getLong(at + 24);
+            if (length == 0) continue; // empty slot
+            matches.add(new Match(new UUID(table.getLong(at), table.getLong(at + 8)), table.getLong(at + 16),
+                    (int) length, summary));
+        }
+        matches.sort(Comparator.comparingLong(Match::offset));
+        return matches;
+    }
+
+    /**
+     * Entries not {@code excluded}.
+     */
+    int count(IdFilter excluded) throws IOException {
+        if (!current()) return 0;
+        if (excluded == IdFilter.NONE) return table.getInt(COUNT_AT);
+        int count = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            int at = HEADER_BYTES + slot * SLOT_BYTES;
+            if (table.getLong(at + 24) != 0 && !excluded.excludes(table.getLong(at), table.getLong(at + 8))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Entries {@code skip} .. {@code skip + limit - 1} in data file order. Sorts the offsets of
+     * every entry, but reads only the page's slots.
+     */
+    List<Match> page(long skip, int limit) throws IOException {
+        return page(skip, limit, IdFilter.NONE);
+    }
+
+    /**
+     * Like {@link #page(long, int)}, counting only the entries not {@code excluded}.
+     */
+    List<Match> page(long skip, int limit, IdFilter excluded) throws IOException {
+        List<Match> page = new ArrayList<>();
+        if (!current()) return page;
+        int count = table.getInt(COUNT_AT);
+        if (skip >= count || limit <= 0) return page;
+
+        // offset and slot in one long, so one primitive sort orders the whole table
+        long[] keys = new long[count];
+        int n = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            int at = HEADER_BYTES + slot * SLOT_BYTES;
+            if (table.getLong(at + 24) == 0) continue;
+            if (excluded.excludes(table.getLong(at), table.getLong(at + 8))) continue;
+            long offset = table.getLong(at + 16);
+            if (offset >= 1L << (63 - SLOT_BITS)) {
+                throw new IOException("data file offset too large to page through: " + offset);
+            }
+            keys[n++] = offset << SLOT_BITS | slot;
+        }
+        Arrays.sort(keys, 0, n);
+
+        int summaryAt = summaryAt(capacity);
+        for (long i = skip; i < n && page.size() < limit; i++) {
+            int slot = (int) (keys[(int) i] & (1 << SLOT_BITS) - 1);
+            int at = HEADER_BYTES + slot * SLOT_BYTES;
+            page.add(new Match(new UUID(table.getLong(at), table.getLong(at + 8)), table.getLong(at + 16),
+                    (int) table.getLong(at + 24), table.getLong(summaryAt + slot * 8)));
+        }
+        return page;
+    }
+
+    private static boolean insert(MappedByteBuffer table, int capacity, long msb, long lsb, long offset, int length,
+                                  long summary) {
+        int mask = capacity - 1;
+        for (int slot = hash(msb, lsb) & mask; ; slot = (slot + 1) & mask) {
+            int at = HEADER_BYTES + slot * SLOT_BYTES;
+            if (table.getLong(at + 24) == 0) {
+                table.putLong(at, msb);
+                table.putLong(at + 8, lsb);
+                table.putLong(at + 16, offset);
+                table.putLong(at + 24, length);
+                table.putLong(summaryAt(capacity) + slot * 8, summary);
+                return true;
+            }
+            if (table.getLong(at) == msb && table.getLong(at + 8) == lsb) {
+                if (offset > table.getLong(at + 16)) {
+                    table.putLong(at + 16, offset);
+                    table.putLong(at + 24, length);
+                    table.putLong(summaryAt(capacity) + slot * 8, summary);
+                }
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Doubles the table by copying every entry into a replacement file.
+     */
+    private void grow() throws IOException {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("save index is full (" + table.getInt(COUNT_AT) + " entries)");
+        }
+        replace(capacity * 2, table.getLong(COVERED_AT), true);
+    }
+
+    /**
+     * Builds a table of {@code newCapacity} slots (holding the current entries if
+     * {@code keepEntries}) in {@code <index>.tmp}, renames it over the index and flags the old
+     * mapping as replaced. Other processes may still read the old file through their mappings,
+     * which is why it is never truncated in place.
+     */
+    private void replace(int newCapacity, long covered, boolean keepEntries) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        MappedByteBuffer next;
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            next = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes(newCapacity));
+        }
+        next.putInt(0, MAGIC);
+        next.putInt(4, VERSION);
+        next.putInt(CAPACITY_AT, newCapacity);
+
+        int count = 0;
+        if (keepEntries) {
+            for (int slot = 0; slot < capacity; slot++) {
+                int at = HEADER_BYTES + slot * SLOT_BYTES;
+                long length = table.getLong(at + 24);
+                if (length == 0) continue;
+                long msb = table.getLong(at);
+                long lsb = table.getLong(at + 8);
+                insert(next, newCapacity, msb, lsb, table.getLong(at + 16), (int) length,
+                        table.getLong(summaryAt(capacity) + slot * 8));
+                addToBloom(next, newCapacity, msb, lsb);
+                count++;
+            }
+        }
+        next.putInt(COUNT_AT, count);
+        next.putLong(COVERED_AT, covered);
+        if (keepEntries) {
+            next.putInt(FINGERPRINT_LENGTH_AT, table.getInt(FINGERPRINT_LENGTH_AT));
+            next.putLong(FINGERPRINT_AT, table.getLong(FINGERPRINT_AT));
+        }
+
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (table != null) {
+            table.putInt(REPLACED_AT, 1);
+        }
+        table = next;
+        capacity = newCapacity;
+    }
+
+    /**
+     * Flags the index at {@code file} as replaced for every holder, which then re-open whatever is
+     * at its path (nothing, once the segment it describes is deleted). Call under the data file's
+     * lock, before deleting or replacing the data file.
+     */
+    static void retire(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_BYTES) return;
+            channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES).putInt(REPLACED_AT, 1);
+        } catch (NoSuchFileException e) {
+            // Nothing to retire
+        }
+    }
+
+    private static long bytes(int capacity) {
+        return HEADER_BYTES + (long) capacity * (SLOT_BYTES + 8) + bloomLongs(capacity) * 8L;
+    }
+
+    private static int summaryAt(int capacity) {
+        return HEADER_BYTES + capacity * SLOT_BYTES;
+    }
+
+    private static int bloomAt(int capacity) {
+        return summaryAt(capacity) + capacity * 8;
+    }
+
+    /** 16 bits per slot, so 32+ bits per id at load <= 1/2. */
+    private static int bloomLongs(int capacity) {
+        return capacity / 4;
+    }
+
+    /**
+     * Flushes the mapped table to the storage device.
+     */
+    void force() {
+        table.force();
+    }
+
+    private static void addToBloom(MappedByteBuffer table, int capacity, long msb, long lsb) {
+        int bloomAt = bloomAt(capacity);
+        long bits = (long) bloomLongs(capacity) * 64;
+        long h1 = mix(msb);
+        long h2 = mix(lsb) | 1;
+        for (int i = 0; i < BLOOM_PROBES; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+            int at = bloomAt + (int) (bit >>> 6) * 8;
+            table.putLong(at, table.getLong(at) | 1L << bit);
+        }
+    }
+
+    private boolean mightContain(long msb, long lsb) {
+        int bloomAt = bloomAt(capacity);
+        long bits = (long) bloomLongs(capacity) * 64;
+        long h1 = mix(msb);
+        long h2 = mix(lsb) | 1;
+        for (int i = 0; i < BLOOM_PROBES; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+            if ((table.getLong(bloomAt + (int) (bit >>> 6) * 8) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    private static int hash(long msb, long lsb) {
+        return (int) mix(msb ^ Long.rotateLeft(lsb, 32));
+    }
+
+    /** SplitMix64 finaliser; random UUIDs are already well mixed, but sequential test ids are not. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,436 @@
+package uk.ac.mmu.game.infrastructure;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Merges neighbouring sealed segments of a JSON Lines save log (--compact-saves, and in the
+ * background after a segment is sealed, see {@link JsonLinesGameSaveRepository}).
+ *
+ * <p>Only sealed segments are touched, which nobody appends to, so a pass reads and writes
+ * without the save file's lock and {@code save} carries on meanwhile. The lock is taken briefly
+ * to open segment indexes and once per merge to swap the merged segment in. Each merged segment,
+ * with its index, is written beside the others first, then renamed over the newest of its group
+ * and the rest deleted; their indexes are retired first so that readers in other processes
+ * re-open before trusting them again.
+ *
+ * <p>Merges are bounded. A merged segment is never bigger than {@value #MAX_MERGED_SEGMENTS}
+ * sealed segments, nor than {@link #MAX_MERGED_BYTES} (every save line is well over 64 bytes,
+ * so its index stays under {@link SaveIndex}'s capacity); {@link #compact} merges the log
+ * into as many such segments as it takes. The background pass ({@link #compactTiers}) only
+ * merges {@value #MERGE_SEGMENTS} neighbouring segments of one size tier (sealed, about four
+ * sealed, about sixteen), so a save is rewritten a couple of times at most rather than on every
+ * pass. Duplicates are found through a scratch index of the group's latest lines and the
+ * indexes of the newer segments, never a set of ids on the heap.
+ *
+ * <p>Dropped while merging:
+ * <ul>
+ *   <li>lines for an id saved again later (the latest one is what {@code load} returns), as far
+ *       as the newer segments' indexes are up to date; the active file is not consulted</li>
+ *   <li>lines that are not a save with an id, including a line torn by a crash</li>
+ *   <li>whole segments older than {@link SaveLogPolicy#maxAge()}, going by their newest save
+ *       (the segment's modification time, which the merged segment inherits)</li>
+ *   <li>the oldest saves beyond {@link SaveLogPolicy#maxSaves()}, counted from the segments'
+ *       indexes: whole segments in the background, down to the line in {@link #compact}</li>
+ * </ul>
+ * A single sealed segment with nothing to drop is left as it is, and so is every segment where
+ * the file system cannot replace or delete files that readers have open or mapped (see
+ * {@link SaveSegmentFiles#canRotate}).
+ */
+public class SaveLogCompactor {
+
+    /** The background pass merges this many neighbouring segments of one size tier. */
+    static final int MERGE_SEGMENTS = 4;
+    /** A merged segment holds at most this many sealed segments' worth of bytes... */
+    private static final int MAX_MERGED_SEGMENTS = 16;
+    /** ...and at most this many bytes. */
+    static final long MAX_MERGED_BYTES = 1L << 30;
+
+    /**
+     * Counts are over the segments rewritten or dropped by the pass; segments and bytes over all
+     * sealed segments.
+     *
+     * @param expired saves dropped by the retention policy
+     */
+    public record Result(int segmentsBefore, int segmentsAfter, long kept, long duplicates, long malformed,
+                         long expired, long bytesBefore, long bytesAfter) { }
+
+    private record Segment(Path file, long bytes, FileTime modified) { }
+
+    private final SaveLogPolicy policy;
+    private final SaveSegmentFiles segments;
+    private final SaveFileLock lock;
+    private final SaveFileLock compactionLock;
+    private final long maxMergedBytes;
+    private final boolean rotates;
+
+    public SaveLogCompactor(Path savesFile, SaveLogPolicy policy) {
+        this.policy = policy;
+        this.rotates = SaveSegmentFiles.canRotate(savesFile);
+        this.segments = new SaveSegmentFiles(savesFile);
+        this.lock = SaveFileLock.forFile(savesFile);
+        // A separate lock, so one compaction at a time never holds up saves.
+        this.compactionLock = SaveFileLock.forFile(savesFile.resolveSibling(savesFile.getFileName() + ".compaction"));
+        this.maxMergedBytes = policy.segmentBytes() > MAX_MERGED_BYTES / MAX_MERGED_SEGMENTS
+                ? MAX_MERGED_BYTES
+                : policy.segmentBytes() * MAX_MERGED_SEGMENTS;
+    }
+
+    /**
+     * Merges every run of neighbouring segments that fits in one merged segment.
+     */
+    public Result compact() throws IOException {
+        return compactionLock.withLockPolling(() -> run(false), Duration.ofMillis(100));
+    }
+
+    /**
+     * Merges only groups of {@value #MERGE_SEGMENTS} neighbouring segments of one size tier, and
+     * applies retention to whole segments. Cheap when there is nothing to do: only segment sizes
+     * and index headers are read.
+     */
+    public Result compactTiers() throws IOException {
+        return compactionLock.withLockPolling(() -> run(true), Duration.ofMillis(100));
+    }
+
+    private Result run(boolean tiered) throws IOException {
+        List<Segment> live = sealedSegments();
+        if (!rotates) {
+            long bytes = live.stream().mapToLong(Segment::bytes).sum();
+            return new Result(live.size(), live.size(), 0, 0, 0, 0, bytes, bytes);
+        }
+        segments.deleteUnfinished();
+        if (live.isEmpty()) return new Result(0, 0, 0, 0, 0, 0, 0, 0);
+        int segmentsBefore = live.size();
+        long bytesBefore = live.stream().mapToLong(Segment::bytes).sum();
+        long[] counts = new long[4]; // kept, duplicates, malformed, expired
+
+        List<Segment> dropped = new ArrayList<>();
+        Instant cutoff = policy.maxAge() == null ? null : Instant.now().minus(policy.maxAge());
+        for (Segment segment : live) {
+            if (cutoff != null && segment.modified().toInstant().isBefore(cutoff)) {
+                dropped.add(segment);
+                counts[3] += saves(segment.file());
+            }
+        }
+        live.removeAll(dropped);
+        long skip = 0;
+        if (policy.maxSaves() > 0 && !live.isEmpty()) {
+            long[] saves = new long[live.size()];
+            long excess = -policy.maxSaves();
+            for (int i = 0; i < saves.length; i++) {
+                saves[i] = saves(live.get(i).file());
+                excess += saves[i];
+            }
+            for (int i = 0; i < saves.length && excess > 0 && excess >= saves[i]; i++) {
+                dropped.add(live.get(0));
+                live.remove(0);
+                counts[3] += saves[i];
+                excess -= saves[i];
+            }
+            if (!tiered && excess > 0) {
+                skip = excess; // the oldest lines of what is left
+            }
+        }
+        if (!dropped.isEmpty()) {
+            swap(dropped, null, null, null);
+        }
+
+        List<List<Segment>> groups = tiered ? tieredGroups(live) : fullGroups(live);
+        // Groups are merged oldest first, so the segments after each one are not merged yet.
+        List<SaveIndex> indexes = new ArrayList<>();
+        for (Segment segment : live) {
+            indexes.add(currentIndex(segment.file()));
+        }
+        int next = 0;
+        for (int i = 0; i < live.size(); ) {
+            List<Segment> group = next < groups.size() && groups.get(next).get(0) == live.get(i) ? groups.get(next++) : null;
+            if (group == null) {
+                i++;
+                continue;
+            }
+            List<SaveIndex> newer = new ArrayList<>();
+            for (SaveIndex index : indexes.subList(i + group.size(), indexes.size())) {
+                if (index != null) newer.add(index);
+            }
+            merge(group, skip, newer, counts);
+            skip = 0;
+            i += group.size();
+        }
+
+        List<Segment> after = sealedSegments();
+        return new Result(segmentsBefore, after.size(), counts[0], counts[1], counts[2], counts[3],
+                bytesBefore, after.stream().mapToLong(Segment::bytes).sum());
+    }
+
+    private List<Segment> sealedSegments() throws IOException {
+        List<Segment> live = new ArrayList<>();
+        for (long number : segments.sealed()) {
+            Path file = segments.segment(number);
+            live.add(new Segment(file, Files.size(file), Files.getLastModifiedTime(file)));
+        }
+        return live;
+    }
+
+    /**
+     * Greedy runs of neighbouring segments up to the merged segment size.
+     */
+    private List<List<Segment>> fullGroups(List<Segment> live) {
+        List<List<Segment>> groups = new ArrayList<>();
+        List<Segment> run = new ArrayList<>();
+        long runBytes = 0;
+        for (Segment segment : live) {
+            if (!run.isEmpty() && runBytes + segment.bytes() > maxMergedBytes) {
+                groups.add(run);
+                run = new ArrayList<>();
+                runBytes = 0;
+            }
+            run.add(segment);
+            runBytes += segment.bytes();
+        }
+        if (!run.isEmpty()) groups.add(run);
+        return groups;
+    }
+
+    /**
+     * Runs of {@value #MERGE_SEGMENTS} neighbouring segments of one tier that fit in one merged segment.
+     */
+    private List<List<Segment>> tieredGroups(List<Segment> live) {
+        List<List<Segment>> groups = new ArrayList<>();
+        List<Segment> run = new ArrayList<>();
+        long runBytes = 0;
+        for (Segment segment : live) {
+            if (!run.isEmpty() && (tier(segment) != tier(run.get(0)) || runBytes + segment.bytes() > maxMergedBytes)) {
+                run = new ArrayList<>();
+                runBytes = 0;
+            }
+            run.add(segment);
+            runBytes += segment.bytes();
+            if (run.size() == MERGE_SEGMENTS) {
+                groups.add(run);
+                run = new ArrayList<>();
+                runBytes = 0;
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * 0 for about one sealed segment, 1 for about four, 2 for about sixteen, ...
+     */
+    private int tier(Segment segment) {
+        int tier = 0;
+        for (long size = segment.bytes() / policy.segmentBytes(); size >= 2; size /= 4) {
+            tier++;
+        }
+        return tier;
+    }
+
+    /**
+     * Copies the group's kept lines after the first {@code skip} into one segment, indexing them
+     * as it goes, and swaps it in for the group. A first pass finds each id's latest line in the
+     * group, in a scratch index keyed by the line's position in the group as a whole.
+     */
+    private void merge(List<Segment> group, long skip, List<SaveIndex> newer, long[] counts) throws IOException {
+        Segment last = group.get(group.size() - 1);
+        Path target = last.file();
+        if (group.size() == 1 && skip == 0 && clean(target, newer)) return;
+
+        Path merged = target.resolveSibling(target.getFileName() + ".compacting");
+        Path mergedIndex = SaveSegmentFiles.indexOf(merged);
+        Path scratchIndex = merged.resolveSibling(merged.getFileName() + ".latest.idx");
+        Files.deleteIfExists(mergedIndex);
+        Files.deleteIfExists(scratchIndex);
+        SaveIndex latest = new SaveIndex(scratchIndex);
+        long base = 0;
+        for (Segment segment : group) {
+            long segmentBase = base;
+            try (FileChannel in = FileChannel.open(segment.file(), StandardOpenOption.READ)) {
+                JsonLinesGameSaveRepository.scanLines(in, 0, (bytes, start, length, offset) -> {
+                    JsonLinesGameSaveRepository.LineSummary line =
+                            JsonLinesGameSaveRepository.readSummary(bytes, start, length - 1);
+                    if (line != null) latest.put(line.id(), segmentBase + offset, length, 0);
+                }, () -> null);
+                base += in.size();
+            }
+        }
+
+        SaveIndex index = new SaveIndex(mergedIndex);
+        FileTime newest = FileTime.fromMillis(0);
+        long[] skipped = new long[1];
+        long written;
+        base = 0;
+        try (FileChannel out = FileChannel.open(merged, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Copier copier = new Copier(out);
+            for (Segment segment : group) {
+                if (segment.modified().compareTo(newest) > 0) newest = segment.modified();
+                long segmentBase = base;
+                try (FileChannel in = FileChannel.open(segment.file(), StandardOpenOption.READ)) {
+                    long end = JsonLinesGameSaveRepository.scanLines(in, 0, (bytes, start, length, offset) -> {
+                        JsonLinesGameSaveRepository.LineSummary line =
+                                JsonLinesGameSaveRepository.readSummary(bytes, start, length - 1);
+                        if (line == null) {
+                            if (length > 1) counts[2]++; // blank lines are not worth reporting
+                        } else if (latest.supersedes(line.id(), segmentBase + offset) || indexed(newer, line.id())) {
+                            counts[1]++;
+                        } else if (skipped[0] < skip) {
+                            skipped[0]++;
+                            counts[3]++;
+                        } else {
+                            index.put(line.id(), copier.position(), length, line.summary());
+                            copier.add(in, offset, length);
+                            counts[0]++;
+                        }
+                    }, () -> null);
+                    copier.flush(); // before the source is closed
+                    if (end < in.size()) counts[2]++; // torn last line
+                    base += in.size();
+                }
+            }
+            written = copier.position();
+            out.force(true);
+        }
+        Files.delete(scratchIndex);
+
+        if (written == 0) {
+            Files.delete(merged);
+            Files.delete(mergedIndex);
+            swap(group, null, null, null);
+            return;
+        }
+        index.setCoveredLength(written);
+        index.force();
+        Files.setLastModifiedTime(merged, newest);
+        swap(group, merged, mergedIndex, target);
+    }
+
+    /**
+     * Under the lock, retires the indexes of {@code replaced}, moves {@code merged} (if any) over
+     * {@code target} and deletes the rest.
+     */
+    private void swap(List<Segment> replaced, Path merged, Path mergedIndex, Path target) throws IOException {
+        lock.withLock(() -> {
+            for (Segment segment : replaced) {
+                SaveIndex.retire(SaveSegmentFiles.indexOf(segment.file()));
+            }
+            if (merged != null) {
+                Files.move(merged, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                Files.move(mergedIndex, SaveSegmentFiles.indexOf(target),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            for (Segment segment : replaced) {
+                if (segment.file().equals(target)) continue;
+                Files.deleteIfExists(segment.file());
+                Files.deleteIfExists(SaveSegmentFiles.indexOf(segment.file()));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * @return true if {@code file} has an up-to-date index and nothing to drop: every line is a
+     *         save indexed at that line and in no newer segment
+     */
+    private boolean clean(Path file, List<SaveIndex> newer) throws IOException {
+        SaveIndex own = currentIndex(file);
+        if (own == null) return false;
+        boolean[] dirty = new boolean[1];
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long end = JsonLinesGameSaveRepository.scanLines(in, 0, (bytes, start, length, offset) -> {
+                if (dirty[0]) return;
+                JsonLinesGameSaveRepository.LineSummary line =
+                        JsonLinesGameSaveRepository.readSummary(bytes, start, length - 1);
+                if (line == null) {
+                    dirty[0] = length > 1;
+                } else {
+                    SaveIndex.Entry entry = own.find(line.id());
+                    dirty[0] = entry == null || entry.offset() != offset || indexed(newer, line.id());
+                }
+            }, () -> null);
+            return !dirty[0] && end == in.size();
+        }
+    }
+
+    /**
+     * Saves in {@code file}: its index's entry count if that is up to date, otherwise its lines
+     * that are a save.
+     */
+    private long saves(Path file) throws IOException {
+        SaveIndex index = currentIndex(file);
+        if (index != null) return index.size();
+        long[] count = new long[1];
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            JsonLinesGameSaveRepository.scanLines(in, 0, (bytes, start, length, offset) -> {
+                if (JsonLinesGameSaveRepository.readSummary(bytes, start, length - 1) != null) count[0]++;
+            }, () -> null);
+        }
+        return count[0];
+    }
+
+    /**
+     * @return the index of {@code file} if it exists and covers the whole file, otherwise null
+     */
+    private SaveIndex currentIndex(Path file) throws IOException {
+        Path indexFile = SaveSegmentFiles.indexOf(file);
+        if (!Files.exists(indexFile)) return null;
+        SaveIndex index = lock.withLock(() -> new SaveIndex(indexFile));
+        return index.coveredLength() == Files.size(file) ? index : null;
+    }
+
+    private static boolean indexed(List<SaveIndex> indexes, UUID id) throws IOException {
+        for (SaveIndex index : indexes) {
+            if (index.find(id) != null) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Copies lines to the merged segment, joining lines that sit next to each other in one source
+     * into one transfer.
+     */
+    private static final class Copier {
+        private final FileChannel out;
+        private FileChannel source;
+        private long from;
+        private long length;
+        private long written;
+
+        Copier(FileChannel out) {
+            this.out = out;
+        }
+
+        /** Where the next line added will start in the merged segment. */
+        long position() {
+            return written + length;
+        }
+
+        void add(FileChannel in, long offset, int bytes) throws IOException {
+            if (length > 0 && (in != source || offset != from + length)) {
+                flush();
+            }
+            if (length == 0) {
+                source = in;
+                from = offset;
+            }
+            length += bytes;
+        }
+
+        void flush() throws IOException {
+            for (long copied = 0; copied < length; ) {
+                copied += source.transferTo(from + copied, length - copied, out);
+            }
+            written += length;
+            length = 0;
+        }
+    }
+}
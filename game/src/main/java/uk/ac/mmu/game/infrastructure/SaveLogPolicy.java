@@ -0,0 +1,28 @@
+package uk.ac.mmu.game.infrastructure;
+
+import java.time.Duration;
+
+/**
+ * How the JSON Lines save log is split into segments and how long sealed segments are kept.
+ *
+ * @param segmentBytes the active file is sealed once it reaches this size
+ * @param maxAge       sealed segments whose newest save is older than this are dropped (null = keep)
+ * @param maxSaves     sealed segments keep at most this many saves, the newest (0 = keep all)
+ */
+public record SaveLogPolicy(long segmentBytes, Duration maxAge, long maxSaves) {
+
+    /** 64 MB segments, nothing ever dropped except duplicates and corrupt lines. */
+    public static final SaveLogPolicy DEFAULT = new SaveLogPolicy(64L << 20, null, 0);
+
+    public SaveLogPolicy {
+        if (segmentBytes <= 0) throw new IllegalArgumentException("segmentBytes must be > 0");
+        if (maxAge != null && (maxAge.isNegative() || maxAge.isZero())) {
+            throw new IllegalArgumentException("maxAge must be > 0");
+        }
+        if (maxSaves < 0) throw new IllegalArgumentException("maxSaves must be >= 0");
+    }
+
+    boolean hasRetention() {
+        return maxAge != null || maxSaves > 0;
+    }
+}
@@ -0,0 +1,51 @@
+package uk.ac.mmu.game.infrastructure;
+
+import uk.ac.mmu.game.usecase.GameSave;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * How one save store lays its records out in a file: the only part of an {@link IndexedSaveFile}
+ * that differs between {@link JsonLinesGameSaveRepository} and {@link BinaryGameSaveRepository}.
+ * It is also the file's {@link WriteBehindAppender.TailCheck}: records skipped by
+ * {@link #index} include the fences written over torn tails.
+ */
+interface SaveRecordFormat extends WriteBehindAppender.TailCheck {
+
+    /**
+     * Bytes every file of this format starts with, before the first record (may be empty).
+     */
+    byte[] header();
+
+    /**
+     * One complete record holding {@code save}, whose id is set.
+     */
+    byte[] encode(GameSave save) throws IOException;
+
+    /**
+     * @return the save held by exactly these bytes, or null if they are not one whole record
+     */
+    GameSave decode(byte[] record);
+
+    /**
+     * Cheap check that {@code offset} (past the header) can be the end of a record, used to spot
+     * an index whose covered length no longer fits the file. Formats without a record delimiter
+     * cannot tell and answer true.
+     */
+    default boolean endsRecord(FileChannel channel, long offset) throws IOException {
+        return true;
+    }
+
+    /**
+     * Adds each complete record after {@code from} to {@code found} with its file offset,
+     * length and {@link PackedSaveSummary}, without binding it to a {@link GameSave}. Records
+     * that are not a save with an id are skipped. Calls {@code afterBatch} every so often and
+     * at the end, so the caller can move the entries into an index.
+     *
+     * @param from a record boundary
+     * @return the offset just past the last complete record
+     */
+    long index(FileChannel channel, long from, PendingIndexEntries found, SaveFileLock.IoAction<?> afterBatch)
+            throws IOException;
+}
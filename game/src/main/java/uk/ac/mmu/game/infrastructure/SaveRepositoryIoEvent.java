@@ -0,0 +1,40 @@
+package uk.ac.mmu.game.infrastructure;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for one read or write of the save file by {@link JsonLinesGameSaveRepository}
+ * or {@link BinaryGameSaveRepository}.
+ *
+ * <p>Disabled by default (enable with {@code +uk.ac.mmu.game.SaveRepositoryIo#enabled=true});
+ * while disabled it costs nothing measurable. The event's duration is the whole operation,
+ * so it lines up with GC and file I/O events in the same recording.
+ */
+@Name("uk.ac.mmu.game.SaveRepositoryIo")
+@Label("Save Repository I/O")
+@Category({"Game", "Persistence"})
+@Description("Read or write of the save file")
+@Enabled(false)
+final class SaveRepositoryIoEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("File")
+    String file;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Lines Scanned")
+    long linesScanned;
+
+    @Label("Entries Returned")
+    int entries;
+}
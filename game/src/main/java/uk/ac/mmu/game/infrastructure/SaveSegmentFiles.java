@@ -0,0 +1,88 @@
+package uk.ac.mmu.game.infrastructure;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Names of the sealed segments of a save log. The active file keeps its name ({@code games.json});
+ * sealed ones are numbered in the order they were sealed ({@code games.000001.json}, ...),
+ * each with its own {@code .idx} next to it.
+ */
+final class SaveSegmentFiles {
+
+    private final Path activeFile;
+    private final String prefix;
+    private final String suffix;
+    private final Pattern pattern;
+
+    SaveSegmentFiles(Path activeFile) {
+        this.activeFile = activeFile;
+        String name = activeFile.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        this.prefix = dot > 0 ? name.substring(0, dot) : name;
+        this.suffix = dot > 0 ? name.substring(dot) : "";
+        this.pattern = Pattern.compile(Pattern.quote(prefix) + "\\.(\\d{6,})" + Pattern.quote(suffix));
+    }
+
+    Path segment(long number) {
+        return activeFile.resolveSibling(String.format("%s.%06d%s", prefix, number, suffix));
+    }
+
+    /**
+     * Whether the file system lets a file be renamed or deleted while other readers have it open
+     * or memory-mapped, which sealing and compaction rely on. POSIX file systems do; Windows
+     * refuses, so there the log stays one file.
+     */
+    static boolean canRotate(Path file) {
+        return file.getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+
+    static Path indexOf(Path file) {
+        return file.resolveSibling(file.getFileName() + ".idx");
+    }
+
+    /**
+     * @return the numbers of the sealed segments on disk, oldest first
+     */
+    List<Long> sealed() throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (Stream<Path> files = Files.list(activeFile.toAbsolutePath().getParent())) {
+            files.forEach(file -> {
+                Matcher matcher = pattern.matcher(file.getFileName().toString());
+                if (matcher.matches()) numbers.add(Long.parseLong(matcher.group(1)));
+            });
+        } catch (NoSuchFileException e) {
+            return numbers;
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+
+    /**
+     * Deletes what a compaction that died part-way left behind ({@code games.000004.json.compacting}
+     * and its index). Call holding the compaction lock.
+     */
+    void deleteUnfinished() throws IOException {
+        Pattern unfinished = Pattern.compile(pattern.pattern() + "\\.compacting.*");
+        try (Stream<Path> files = Files.list(activeFile.toAbsolutePath().getParent())) {
+            for (Path file : files.filter(f -> unfinished.matcher(f.getFileName().toString()).matches()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Number for the next segment to be sealed. Call under the save file's lock.
+     */
+    long next() throws IOException {
+        List<Long> numbers = sealed();
+        return numbers.isEmpty() ? 1 : numbers.get(numbers.size() - 1) + 1;
+    }
+}
@@ -0,0 +1,421 @@
+package uk.ac.mmu.game.infrastructure;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends records to a file from one background thread (write-behind with group commit).
+ *
+ * <p>{@link #append} only queues the record, so a save costs no system call. The writer thread
+ * drains whatever has queued up into one direct buffer and writes it with a single call on a
+ * channel that stays open, so a burst of saves costs one write instead of an open, write and
+ * close each.
+ *
+ * <p>Several appenders, in this process or others, may share a file. Each batch is written under
+ * the file's {@link SaveFileLock}, so batches never interleave, and writers wait for each other
+ * once per batch rather than once per record. Because other writers' batches can land in between,
+ * a record's file offset is only known once its batch is written: {@link #append} returns its
+ * position in this appender's own stream, and {@link #takeWritten} maps those to file offsets.
+ *
+ * <p>The file may be renamed away (rotated) and replaced by a new one at the same path, which
+ * bumps the {@link SaveFileLock#generation() generation} kept with the lock. Under the lock each
+ * batch checks the generation is still the one it opened the file at, and re-opens it if not;
+ * every {@link Batch} carries the generation it was written to. Whoever rotates the file in this
+ * process first {@link #detach detaches} the appender, so its handle is closed before the rename.
+ *
+ * <p>A writer killed mid-batch leaves a torn record at the end of the file. While holding the lock
+ * the next writer checks the tail it has not seen yet with the owner's {@link TailCheck}, and
+ * writes the check's {@link TailCheck#fence fence} over a torn record before appending, so the
+ * torn bytes never merge with good ones. The file is never shrunk: readers may have it mapped,
+ * and a mapped page past the end of a truncated file faults (SIGBUS) when touched.
+ *
+ * <p>{@link Durability} controls when written batches are forced to the storage device.
+ * Whatever the setting, records still queued when the process is killed are lost. A normal
+ * shutdown ({@link #close}, run by Spring on exit) writes and forces everything first.
+ */
+public class WriteBehindAppender implements AutoCloseable {
+
+    /**
+     * When written records are forced (fsync) to the storage device.
+     */
+    public enum Durability {
+        /** Never; the OS writes the page cache back in its own time. */
+        NONE,
+        /** At most once per force interval, if anything was written since. */
+        PERIODIC,
+        /** After every batch; an enqueued record is durable once {@link #flush} returns. */
+        BATCH
+    }
+
+    /**
+     * Finds where the complete records in a file end, for torn-tail detection.
+     */
+    @FunctionalInterface
+    public interface TailCheck {
+        /**
+         * @param from a record boundary at or before {@code size}
+         * @return the end of the last complete record at or after {@code from}
+         */
+        long validEnd(FileChannel channel, long from, long size) throws IOException;
+
+        /**
+         * Bytes written at the valid end over a torn tail of {@code tornLength} bytes, which every
+         * reader skips as one unreadable record; at least {@code tornLength} long. The default
+         * suits newline-delimited records: a line of spaces.
+         */
+        default byte[] fence(long tornLength) {
+            byte[] blank = new byte[Math.toIntExact(tornLength) + 1];
+            Arrays.fill(blank, (byte) ' ');
+            blank[blank.length - 1] = '\n';
+            return blank;
+        }
+    }
+
+    /**
+     * Records from stream position {@code streamOffset} were written at {@code fileOffset} of
+     * the file of {@link SaveFileLock#generation() generation} {@code generation}.
+     */
+    public record Batch(long streamOffset, long fileOffset, int length, long generation) {
+        /**
+         * File offset of the record at stream position {@code streamPosition}, which must be in this batch.
+         */
+        public long fileOffsetOf(long streamPosition) {
+            return fileOffset + (streamPosition - streamOffset);
+        }
+
+        public boolean contains(long streamPosition) {
+            return streamPosition >= streamOffset && streamPosition < streamOffset + length;
+        }
+    }
+
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final int QUEUE_CAPACITY = 1 << 16;
+    private static final byte[] STOP = new byte[0];
+
+    private final Path file;
+    private FileChannel channel;     // guarded by channelGuard; replaced by the writer thread when the file is rotated
+    private long generation;         // writer thread only: generation of the file channel has open
+    private final SaveFileLock lock;
+    private final TailCheck tailCheck;
+    private final Durability durability;
+    private final long forceIntervalNanos;
+    private final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writer;
+
+    private final Object channelGuard = new Object();      // taken inside the file lock, never around it
+    private final Object progress = new Object();
+    private long enqueuedUpTo;                             // guarded by this
+    private boolean closed;                                // guarded by this
+    private long writtenUpTo;                              // guarded by progress
+    private final List<Batch> written = new ArrayList<>(); // guarded by progress
+    private long tornTails;                                // guarded by progress
+    private IOException failure;                           // guarded by progress
+
+    private long checkedUpTo; // writer thread only: end of file as last seen under the lock
+
+    /**
+     * @param knownBoundary a record boundary in the file (e.g. where the owner's index ends);
+     *                      the first torn-tail check scans from there
+     * @param forceInterval how often PERIODIC forces the file (ignored otherwise)
+     */
+    public WriteBehindAppender(Path file, TailCheck tailCheck, long knownBoundary,
+                               Durability durability, Duration forceInterval) throws IOException {
+        if (durability == null) throw new IllegalArgumentException("durability is required");
+        if (forceInterval == null || forceInterval.isNegative() || forceInterval.isZero()) {
+            throw new IllegalArgumentException("forceInterval must be > 0");
+        }
+
+        this.file = file;
+        this.tailCheck = tailCheck;
+        this.checkedUpTo = knownBoundary;
+        this.durability = durability;
+        this.forceIntervalNanos = forceInterval.toNanos();
+        this.lock = SaveFileLock.forFile(file);
+        lock.withLock(() -> {
+            openChannel();
+            return null;
+        });
+
+        this.writer = Thread.ofPlatform()
+                .name("write-behind-" + file.getFileName())
+                .daemon(true)
+                .start(this::run);
+    }
+
+    /**
+     * Queues a record for writing, blocking only if the queue is full.
+     *
+     * @return the record's position in this appender's stream (see {@link #takeWritten})
+     * @throws IOException if the writer has failed or the appender is closed
+     */
+    public synchronized long append(byte[] record) throws IOException {
+        if (record.length == 0) throw new IllegalArgumentException("record is empty");
+        if (closed) throw new IOException("appender is closed: " + file);
+        checkFailure();
+
+        long position = enqueuedUpTo;
+        enqueue(record);
+        enqueuedUpTo += record.length;
+        return position;
+    }
+
+    /**
+     * Like {@link BlockingQueue#put}, but gives up if the writer thread has died with the queue full.
+     */
+    private void enqueue(byte[] record) throws IOException {
+        try {
+            while (!queue.offer(record, 100, TimeUnit.MILLISECONDS)) {
+                checkFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while queueing a record for " + file, e);
+        }
+    }
+
+    /**
+     * Blocks until every record appended so far is in the file (and, for BATCH, forced).
+     */
+    public void flush() throws IOException {
+        long upTo;
+        synchronized (this) {
+            upTo = enqueuedUpTo;
+        }
+        synchronized (progress) {
+            while (writtenUpTo < upTo && failure == null) {
+                try {
+                    progress.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted while waiting for " + file, e);
+                }
+            }
+        }
+        checkFailure();
+    }
+
+    /**
+     * Hands over the batches written since the last call, in stream order.
+     */
+    public List<Batch> takeWritten() {
+        synchronized (progress) {
+            List<Batch> batches = List.copyOf(written);
+            written.clear();
+            return batches;
+        }
+    }
+
+    /**
+     * Forces and closes the file handle, so the file can be renamed or deleted; the next batch
+     * re-opens whatever file is at the path then. Call under the lock, which keeps batches out.
+     */
+    void detach() throws IOException {
+        synchronized (channelGuard) {
+            if (channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Forces the open file, unless it was {@link #detach detached} (and forced) meanwhile.
+     */
+    private void force() throws IOException {
+        synchronized (channelGuard) {
+            if (channel.isOpen()) {
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Torn records (left by a writer that died mid-batch) this appender has fenced off.
+     */
+    public long tornTailsRepaired() {
+        synchronized (progress) {
+            return tornTails;
+        }
+    }
+
+    /**
+     * Opens the file now at the path. Call under the lock, so the generation read is the file opened.
+     */
+    private void openChannel() throws IOException {
+        // Not APPEND: batches are written at the end of file as seen under the lock, and tail checks read.
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        generation = lock.generation();
+    }
+
+    private void checkFailure() throws IOException {
+        synchronized (progress) {
+            if (failure != null) throw new IOException("write-behind to " + file + " failed", failure);
+        }
+    }
+
+    private void run() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        long lastForce = System.nanoTime();
+        boolean dirty = false;
+
+        try {
+            while (true) {
+                long wait = durability == Durability.PERIODIC && dirty
+                        ? Math.max(0, forceIntervalNanos - (System.nanoTime() - lastForce))
+                        : TimeUnit.SECONDS.toNanos(1);
+                byte[] record = queue.poll(wait, TimeUnit.NANOSECONDS);
+
+                boolean stop = false;
+                boolean wrote = false;
+                while (record != null) {
+                    if (record == STOP) {
+                        stop = true;
+                        break;
+                    }
+                    if (record.length > buffer.remaining()) {
+                        wrote |= writeBatch(buffer.flip());
+                        buffer.clear();
+                    }
+                    if (record.length > buffer.capacity()) {
+                        wrote |= writeBatch(ByteBuffer.wrap(record));
+                    } else {
+                        buffer.put(record);
+                    }
+                    record = queue.poll();
+                }
+                wrote |= writeBatch(buffer.flip());
+                buffer.clear();
+
+                if (wrote) {
+                    dirty = durability != Durability.BATCH; // BATCH forced each one already
+                }
+                if (dirty && (stop
+                        || durability == Durability.PERIODIC && System.nanoTime() - lastForce >= forceIntervalNanos)) {
+                    force();
+                    lastForce = System.nanoTime();
+                    dirty = false;
+                }
+                if (stop) return;
+            }
+        } catch (IOException | RuntimeException e) {
+            synchronized (progress) {
+                failure = e instanceof IOException io ? io : new IOException(e);
+                progress.notifyAll();
+            }
+        } catch (InterruptedException e) {
+            synchronized (progress) {
+                failure = new IOException("writer thread interrupted", e);
+                progress.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Appends one batch under the file lock, first fencing off any torn record at the tail.
+     *
+     * @return false if the batch was empty
+     */
+    private boolean writeBatch(ByteBuffer batch) throws IOException {
+        int length = batch.remaining();
+        if (length == 0) return false;
+
+        boolean[] repaired = new boolean[1];
+        long[] writtenTo = new long[1];
+        long fileOffset = lock.withLock(() -> {
+            synchronized (channelGuard) {
+                if (!channel.isOpen() || generation != lock.generation()) {
+                    // Detached, or rotated: the file we had open is now a sealed segment under another name.
+                    long opened = generation;
+                    if (channel.isOpen()) {
+                        channel.force(false);
+                        channel.close();
+                    }
+                    openChannel();
+                    if (generation != opened) {
+                        checkedUpTo = 0;
+                    }
+                }
+                writtenTo[0] = generation;
+                long size = channel.size();
+                if (size != checkedUpTo) {
+                    // Someone else wrote since we last looked (or truncated the file): check their tail.
+                    long from = checkedUpTo <= size ? checkedUpTo : 0;
+                    long validEnd = tailCheck.validEnd(channel, from, size);
+                    if (validEnd < size) {
+                        ByteBuffer fence = ByteBuffer.wrap(tailCheck.fence(size - validEnd));
+                        size = validEnd;
+                        while (fence.hasRemaining()) {
+                            size += channel.write(fence, size);
+                        }
+                        repaired[0] = true;
+                    }
+                }
+                long position = size;
+                while (batch.hasRemaining()) {
+                    position += channel.write(batch, position);
+                }
+                checkedUpTo = size + length;
+                return size;
+            }
+        });
+        if (durability == Durability.BATCH) {
+            force();
+        }
+
+        synchronized (progress) {
+            written.add(new Batch(writtenUpTo, fileOffset, length, writtenTo[0]));
+            writtenUpTo += length;
+            if (repaired[0]) tornTails++;
+            progress.notifyAll();
+        }
+        return true;
+    }
+
+    /**
+     * Writes and forces everything queued, then closes the file. Later appends fail.
+     * Waits for the writer thread to stop even if interrupted (the interrupt is kept), so the
+     * file is never closed under it.
+     *
+     * @throws IOException if the writer failed, so some queued records may not be in the file
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+        }
+        boolean interrupted = false;
+        boolean stopQueued = false;
+        try {
+            while (writer.isAlive()) {
+                try {
+                    if (stopQueued) {
+                        writer.join();
+                    } else {
+                        // Retries while the queue is full; a writer that died with it full ends the loop.
+                        stopQueued = queue.offer(STOP, 100, TimeUnit.MILLISECONDS);
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            channel.close();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        checkFailure();
+    }
+}
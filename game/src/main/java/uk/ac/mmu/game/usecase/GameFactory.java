@@ -12,6 +12,41 @@ import java.util.List;
  */
 public class GameFactory {
 
+    // Distinct initials, as the initial is the tail label letter.
+    private static final String[] COLOURS = {
+            "Red", "Blue", "Green", "Yellow", "Orange", "Purple", "Cyan", "Magenta",
+            "White", "Lime", "Navy", "Teal", "Amber", "Indigo", "Violet", "Silver"
+    };
+
+    private final String rngAlgorithm;
+    private final List<GameObserver> observers;
+
+    public GameFactory() {
+        this(SeededDiceShaker.DEFAULT_ALGORITHM);
+    }
+
+    /**
+     * @param rngAlgorithm RandomGenerator algorithm used for seeded dice (e.g. "L64X128MixRandom")
+     */
+    public GameFactory(String rngAlgorithm) {
+        this(rngAlgorithm, List.of());
+    }
+
+    /**
+     * @param observers attached to every new game created by {@link #createGame} (e.g. metrics);
+     *                  they are shared by all games, so they must be thread-safe. Replays
+     *                  ({@link #createFromSave}) and kernels are not observed.
+     */
+    public GameFactory(String rngAlgorithm, List<GameObserver> observers) {
+        SeededDiceShaker.requireAlgorithm(rngAlgorithm);
+        this.rngAlgorithm = rngAlgorithm;
+        this.observers = List.copyOf(observers);
+    }
+
+    public String rngAlgorithm() {
+        return rngAlgorithm;
+    }
+
     public Game create2P(boolean singleDie, boolean exactEnd, boolean forfeitOnHit) {
         return createGame(18, 3, 2, singleDie, exactEnd, forfeitOnHit);
     }
@@ -30,44 +65,113 @@ public class GameFactory {
         // Decorator to record dice for save/replay.
         DiceShaker dice = new RecordingDiceShaker(baseDice);
 
-        Board board = new Board(mainSize, tailSize);
-        List<Player> playerList = buildPlayers(players);
+        return observed(build(mainSize, tailSize, players, exactEnd, forfeitOnHit, dice));
+    }
 
-        Rules rules = buildRules(exactEnd, forfeitOnHit);
+    /**
+     * Builds a game whose dice are driven by an explicit seed.
+     *
+     * <p>Rolls are not recorded: the seed alone reproduces the whole sequence,
+     * which keeps bulk runs (e.g. simulation) free of per-roll bookkeeping.
+     */
+    public Game createGame(int mainSize,
+                           int tailSize,
+                           int players,
+                           boolean singleDie,
+                           boolean exactEnd,
+                           boolean forfeitOnHit,
+                           long seed) {
 
-        return new Game(board, playerList, rules, dice);
+        return observed(build(mainSize, tailSize, players, exactEnd, forfeitOnHit, createDice(singleDie, seed)));
     }
 
-    public Game createFromSave(GameSave save) {
-        int[] rolls = save.rolls.stream().mapToInt(Integer::intValue).toArray();
-        DiceShaker dice = new FixedSeqShaker(rolls);
+    private Game observed(Game game) {
+        for (GameObserver observer : observers) {
+            game.addObserver(observer);
+        }
+        return game;
+    }
 
-        Board board = new Board(save.mainSize, save.tailSize);
-        List<Player> players = buildPlayers(save.players);
+    /**
+     * Seeded dice using this factory's RNG algorithm: the same seed always gives the same rolls.
+     */
+    public SeededDiceShaker createDice(boolean singleDie, long seed) {
+        return new SeededDiceShaker(rngAlgorithm, seed, singleDie);
+    }
 
-        Rules rules = buildRules(save.exactEnd, save.forfeitOnHit);
+    /**
+     * Rebuilds a saved game: seed saves recreate the original generator,
+     * roll-list saves play back the recorded rolls.
+     */
+    public Game createFromSave(GameSave save) {
+        DiceShaker dice;
+        if (save.seeded()) {
+            dice = new SeededDiceShaker(save.rngAlgorithm, save.seed, save.singleDie);
+        } else {
+            dice = new FixedSeqShaker(save.rolls);
+        }
 
-        return new Game(board, players, rules, dice);
+        return build(save.mainSize, save.tailSize, save.players, save.exactEnd, save.forfeitOnHit, dice);
     }
 
-    private static List<Player> buildPlayers(int players) {
-        List<Player> ps = new ArrayList<>();
+    /**
+     * Builds the allocation-free engine for the same configuration as {@link #createGame}.
+     * Players (and therefore homes and turn order) are identical to the object engine.
+     */
+    public GameKernel createKernel(int mainSize,
+                                   int tailSize,
+                                   int players,
+                                   boolean exactEnd,
+                                   boolean forfeitOnHit) {
+
+        int[] homes = buildPlayers(players, mainSize).stream().mapToInt(Player::getHomeIndex).toArray();
+        return new GameKernel(mainSize, tailSize, homes, exactEnd, forfeitOnHit);
+    }
 
-        if (players == 2) {
-            ps.add(new Player("Red", 1, "R"));
-            ps.add(new Player("Blue", 10, "B"));
-            return ps;
-        }
+    private static Game build(int mainSize,
+                              int tailSize,
+                              int players,
+                              boolean exactEnd,
+                              boolean forfeitOnHit,
+                              DiceShaker dice) {
 
-        if (players == 4) {
-            ps.add(new Player("Red", 1, "R"));
-            ps.add(new Player("Blue", 10, "B"));
-            ps.add(new Player("Green", 19, "G"));
-            ps.add(new Player("Yellow", 28, "Y"));
-            return ps;
+        Board board = new Board(mainSize, tailSize);
+        List<Player> playerList = buildPlayers(players, mainSize);
+
+        Rules rules = buildRules(exactEnd, forfeitOnHit);
+
+        return new Game(board, playerList, rules, dice);
+    }
+
+    /**
+     * Players in turn order, each with a colour and a home square.
+     *
+     * <p>Homes are spaced evenly round the ring, {@code 1 + i * mainSize / players}. Two and four
+     * players on the original 18 and 36 square boards keep the original homes 1, 10, 19 and 28,
+     * so games saved before other counts and sizes were allowed replay exactly as they did. These
+     * are the evenly spaced homes anyway, except for two players on the large board.
+     *
+     * <p>The first 16 players take the colours in {@link #COLOURS}; after that the colours
+     * repeat with a round number, "Red2" with tail letter "R2", and so on, so names stay unique.
+     */
+    static List<Player> buildPlayers(int players, int mainSize) {
+        if (players < 2) {
+            throw new IllegalArgumentException("players must be at least 2");
         }
 
-        throw new IllegalArgumentException("players must be 2 or 4");
+        // The original boards and player counts, whose homes saves were made with.
+        boolean legacyHomes = (players == 2 || players == 4) && (mainSize == 18 || mainSize == 36);
+
+        List<Player> ps = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            String colour = COLOURS[i % COLOURS.length];
+            String round = i < COLOURS.length ? "" : String.valueOf(i / COLOURS.length + 1);
+            int home = legacyHomes
+                    ? 1 + 9 * i
+                    : 1 + (int) ((long) i * mainSize / players);
+            ps.add(new Player(colour + round, home, colour.charAt(0) + round));
+        }
+        return ps;
     }
 
     private static Rules buildRules(boolean exactEnd, boolean forfeitOnHit) {
@@ -22,4 +22,9 @@ public interface GameOutputPort extends GameObserver {
     default void printState(String from, String to) { }
 
     default void setBoard(Board board) { }
+
+    /**
+     * Blocks until everything printed so far has been written out. Called when a game or replay ends.
+     */
+    default void flush() { }
 }
@@ -1,5 +1,7 @@
 package uk.ac.mmu.game.usecase;
 
+import uk.ac.mmu.game.domain.RollSequence;
+
 import java.util.List;
 import java.util.UUID;
 
@@ -7,9 +9,16 @@ import java.util.UUID;
  * Snapshot of a finished game sufficient to reproduce its output via replay.
  *
  * <p>Approach used:
- * store configuration + sequence of dice rolls, then replay using the real game engine.
+ * store configuration + the dice, then replay using the real game engine.
+ * The dice are stored in one of two ways (save kinds):
+ * <ul>
+ *   <li>roll list - every recorded roll ({@code rolls}); used for unseeded dice</li>
+ *   <li>seed - the RNG algorithm name and seed ({@code rngAlgorithm}, {@code seed});
+ *       constant size whatever the game length</li>
+ * </ul>
  *
- * <p>Jackson-friendly DTO (public fields + default constructor).
+ * <p>Jackson-friendly DTO (public fields + default constructor). The rolls are a primitive
+ * {@link RollSequence}; JSON adapters read and write it as a plain array of numbers.
  */
 public class GameSave {
     public UUID id;
@@ -19,7 +28,10 @@ public class GameSave {
     public boolean singleDie;
     public boolean exactEnd;
     public boolean forfeitOnHit;
-    public List<Integer> rolls;  // recorded roll sequence
+    public RollSequence rolls;   // recorded roll sequence (roll-list saves only)
+    public String rngAlgorithm;  // seed saves only, e.g. "L64X128MixRandom"
+    public Long seed;            // seed saves only
+    public Integer rollCount;    // seed saves only: rolls the game took (null in saves older than the field)
 
     public GameSave() { }
 
@@ -38,6 +50,40 @@ public class GameSave {
         this.singleDie = singleDie;
         this.exactEnd = exactEnd;
         this.forfeitOnHit = forfeitOnHit;
-        this.rolls = rolls;
+        this.rolls = rolls == null ? null : RollSequence.copyOf(rolls);
+    }
+
+    /**
+     * Creates a seed save: the dice are rebuilt from {@code rngAlgorithm} + {@code seed} on replay.
+     */
+    public static GameSave seeded(UUID id,
+                                  int mainSize,
+                                  int tailSize,
+                                  int players,
+                                  boolean singleDie,
+                                  boolean exactEnd,
+                                  boolean forfeitOnHit,
+                                  String rngAlgorithm,
+                                  long seed) {
+        GameSave save = new GameSave(id, mainSize, tailSize, players, singleDie, exactEnd, forfeitOnHit, null);
+        save.rngAlgorithm = rngAlgorithm;
+        save.seed = seed;
+        return save;
+    }
+
+    /**
+     * Rolls the game took: the roll list's length, or a seed save's {@link #rollCount}
+     * (0 if it predates that field).
+     */
+    public int rollsPlayed() {
+        if (rolls != null) return rolls.size();
+        return rollCount == null ? 0 : rollCount;
+    }
+
+    /**
+     * True for seed saves, false for roll-list saves.
+     */
+    public boolean seeded() {
+        return seed != null;
     }
 }
@@ -2,8 +2,9 @@ package uk.ac.mmu.game.usecase;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface GameSaveRepository {
+public interface GameSaveRepository extends AutoCloseable {
 
     UUID save(GameSave save) throws Exception;
 
@@ -18,6 +19,41 @@ public interface GameSaveRepository {
     /**
      * Returns every saved entry in storage in file order.
      * Used when the storage is append-only (games.json).
+     * An id saved more than once appears once, as its latest save; so in the listings below.
      */
     List<GameSave> listAll() throws Exception;
+
+    /**
+     * Every saved entry in storage order, read lazily so memory stays flat whatever the storage size.
+     * The stream holds the storage open: close it (try-with-resources).
+     * The default materialises {@link #listAll()}; file-backed repositories override it.
+     */
+    default Stream<GameSave> stream() throws Exception {
+        return listAll().stream();
+    }
+
+    /**
+     * Saves {@code skip} .. {@code skip + limit - 1} in storage order. Close the stream.
+     * Used by CLI for --list-saves --page.
+     * The default skips through {@link #stream()}; indexed repositories read only the page's records.
+     */
+    default Stream<GameSave> page(long skip, int limit) throws Exception {
+        return stream().skip(skip).limit(limit);
+    }
+
+    /**
+     * Summaries of the saves matching {@code query}, in storage order. Close the stream.
+     * Used by CLI for --query.
+     * The default reads every save; indexed repositories answer without reading the rolls.
+     */
+    default Stream<SaveSummary> query(SaveQuery query) throws Exception {
+        return stream().map(SaveSummary::of).filter(query::matches);
+    }
+
+    /**
+     * Releases the storage; implementations that buffer writes complete them first.
+     */
+    @Override
+    default void close() throws Exception {
+    }
 }
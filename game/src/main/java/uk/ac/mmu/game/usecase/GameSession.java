@@ -0,0 +1,71 @@
+package uk.ac.mmu.game.usecase;
+
+import uk.ac.mmu.game.domain.Game;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One game hosted by {@link GameSessionHost}.
+ *
+ * <p>The game is stepped only by the session's own virtual thread; other threads should read
+ * {@link #status()}, {@link #movesPlayed()} and {@link #completion()} rather than the Game itself
+ * while the session is running.
+ */
+public final class GameSession {
+
+    public enum Status {
+        /** Still being played. */
+        RUNNING,
+        /** Played to a winner. */
+        FINISHED,
+        /** Stopped at the host's per-session move cap without a winner. */
+        ABANDONED,
+        /** Stopped because the host was closed. */
+        CANCELLED
+    }
+
+    private final UUID id;
+    private final Game game;
+    private final CompletableFuture<GameSession> completion = new CompletableFuture<>();
+
+    private volatile Status status = Status.RUNNING;
+    private volatile int movesPlayed;
+
+    GameSession(UUID id, Game game) {
+        this.id = id;
+        this.game = game;
+    }
+
+    public UUID id() {
+        return id;
+    }
+
+    public Game game() {
+        return game;
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    public int movesPlayed() {
+        return movesPlayed;
+    }
+
+    /**
+     * Completes with this session once it stops running, whatever the reason.
+     */
+    public CompletableFuture<GameSession> completion() {
+        return completion;
+    }
+
+    void movePlayed() {
+        movesPlayed++; // single writer: the session's own thread
+    }
+
+    void complete(Status finalStatus) {
+        status = finalStatus;
+        completion.complete(this);
+    }
+}
@@ -0,0 +1,202 @@
+package uk.ac.mmu.game.usecase;
+
+import uk.ac.mmu.game.domain.Game;
+import uk.ac.mmu.game.domain.GameObserver;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Use case: host many live games in one JVM.
+ *
+ * Responsibilities:
+ * - Build each session's Game via GameFactory (seeded dice, so every session is replayable)
+ * - Step each session on its own virtual thread, so 10k+ sessions need no platform-thread pool
+ * - Route each session's events to that session's own observer only
+ * - Bound memory: at most maxSessions live games, each capped at maxMoves moves
+ *   (the timeline is the only per-game structure that grows)
+ * - Report live sessions and turn throughput
+ *
+ * Sessions share no mutable state apart from the session map and LongAdder counters,
+ * so stepping games never contends on a lock.
+ */
+public class GameSessionHost implements AutoCloseable {
+
+    private final GameFactory factory;
+    private final int maxMoves;
+    private final Duration turnDelay;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore capacity;
+    private final Map<UUID, GameSession> live = new ConcurrentHashMap<>();
+
+    private final LongAdder turns = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder finished = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * @param maxSessions most sessions that may be live at once
+     * @param maxMoves    moves after which a session is abandoned (bounds its timeline)
+     * @param turnDelay   pause between a session's moves, e.g. to pace games for watching
+     *                    (a sleeping virtual thread holds no carrier thread)
+     */
+    public GameSessionHost(GameFactory factory, int maxSessions, int maxMoves, Duration turnDelay) {
+        if (maxSessions <= 0) throw new IllegalArgumentException("maxSessions must be > 0");
+        if (maxMoves <= 0) throw new IllegalArgumentException("maxMoves must be > 0");
+        if (turnDelay == null || turnDelay.isNegative()) throw new IllegalArgumentException("turnDelay must be >= 0");
+
+        this.factory = factory;
+        this.maxMoves = maxMoves;
+        this.turnDelay = turnDelay;
+        this.capacity = new Semaphore(maxSessions);
+    }
+
+    /**
+     * Starts a new session and returns immediately; the game plays on its own virtual thread.
+     *
+     * @param observer receives this session's events (on the session's thread); may be null
+     * @throws IllegalStateException if the host is full or closed
+     */
+    public GameSession open(int mainSize,
+                            int tailSize,
+                            int players,
+                            boolean singleDie,
+                            boolean exactEnd,
+                            boolean forfeitOnHit,
+                            long seed,
+                            GameObserver observer) {
+
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("host is closed");
+        }
+        if (!capacity.tryAcquire()) {
+            throw new IllegalStateException("host is full (" + live.size() + " live sessions)");
+        }
+
+        GameSession session = null;
+        try {
+            Game game = factory.createGame(mainSize, tailSize, players, singleDie, exactEnd, forfeitOnHit, seed);
+            if (observer != null) {
+                game.addObserver(observer);
+            }
+            session = new GameSession(UUID.randomUUID(), game);
+            live.put(session.id(), session);
+
+            GameSession started = session;
+            executor.execute(() -> run(started));
+            opened.increment();
+            return session;
+        } catch (RuntimeException ex) {
+            // Bad configuration, or the host was closed concurrently.
+            if (session != null) live.remove(session.id());
+            capacity.release();
+            throw ex;
+        }
+    }
+
+    private void run(GameSession session) {
+        GameSession.Status status = GameSession.Status.CANCELLED;
+        try {
+            Game game = session.game();
+            while (!game.isOver() && session.movesPlayed() < maxMoves) {
+                game.playTurn();
+                session.movePlayed();
+                turns.increment();
+
+                if (!turnDelay.isZero()) {
+                    Thread.sleep(turnDelay);
+                }
+            }
+            status = game.isOver() ? GameSession.Status.FINISHED : GameSession.Status.ABANDONED;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (status == GameSession.Status.FINISHED) finished.increment();
+            if (status == GameSession.Status.ABANDONED) abandoned.increment();
+
+            live.remove(session.id());
+            capacity.release();
+            session.complete(status);
+        }
+    }
+
+    public int liveSessions() {
+        return live.size();
+    }
+
+    /**
+     * Read-only view of the sessions still running.
+     */
+    public Collection<GameSession> sessions() {
+        return Collections.unmodifiableCollection(live.values());
+    }
+
+    public long sessionsOpened() {
+        return opened.sum();
+    }
+
+    public long sessionsFinished() {
+        return finished.sum();
+    }
+
+    public long sessionsAbandoned() {
+        return abandoned.sum();
+    }
+
+    /**
+     * Moves played across every session since the host started.
+     */
+    public long turnsPlayed() {
+        return turns.sum();
+    }
+
+    /**
+     * Average moves per second across every session since the host started.
+     */
+    public double turnsPerSecond() {
+        long elapsed = System.nanoTime() - startNanos;
+        return elapsed == 0 ? 0.0 : turnsPlayed() * 1e9 / elapsed;
+    }
+
+    /**
+     * Waits until every session opened so far has stopped.
+     *
+     * @return true if none was left running when the timeout expired
+     */
+    public boolean awaitIdle(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (GameSession session : live.values()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return live.isEmpty();
+            try {
+                session.completion().get(remaining, TimeUnit.NANOSECONDS);
+            } catch (ExecutionException | TimeoutException ignored) {
+                // re-checked below
+            }
+        }
+        return live.isEmpty();
+    }
+
+    /**
+     * Stops accepting sessions, interrupts the running ones (they end as CANCELLED)
+     * and waits for their threads to exit.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+}
@@ -0,0 +1,100 @@
+package uk.ac.mmu.game.usecase;
+
+import java.util.List;
+
+/**
+ * Exact outcome probabilities for one configuration (see {@link OddsSolver}).
+ *
+ * <p>"Turns" is the game's total turn count (sum of every player's non-forfeited turns),
+ * the same measure {@link SimulationReport} uses. Turn statistics are conditional on the
+ * game finishing.
+ */
+public final class OddsResult {
+
+    private final List<String> playerNames;
+    private final double[] win;
+    private final double[] length;
+
+    OddsResult(List<String> playerNames, double[] win, double[] length) {
+        this.playerNames = List.copyOf(playerNames);
+        this.win = win.clone();
+        this.length = length.clone();
+    }
+
+    public List<String> playerNames() {
+        return playerNames;
+    }
+
+    public double winProbability(int playerIndex) {
+        return win[playerIndex];
+    }
+
+    public double finishProbability() {
+        double total = 0.0;
+        for (double w : win) total += w;
+        return Math.min(1.0, total);
+    }
+
+    /**
+     * Probability that nobody can ever reach END (within the solver's precision).
+     */
+    public double unfinishedProbability() {
+        double rest = 1.0 - finishProbability();
+        return rest < OddsSolver.EPSILON * 10 ? 0.0 : rest;
+    }
+
+    /**
+     * Probability that the game ends after exactly {@code turns} total turns.
+     */
+    public double turnsProbability(int turns) {
+        return turns < 0 || turns >= length.length ? 0.0 : length[turns];
+    }
+
+    public int maxTurns() {
+        return length.length - 1;
+    }
+
+    public double expectedTurns() {
+        double sum = 0.0;
+        for (int t = 0; t < length.length; t++) {
+            sum += t * length[t];
+        }
+        return sum / finishProbability();
+    }
+
+    /**
+     * Nearest-rank percentile of the total-turns distribution of finished games.
+     *
+     * @param p percentile in (0, 100]
+     */
+    public int percentileTurns(double p) {
+        if (p <= 0 || p > 100) throw new IllegalArgumentException("percentile must be in (0, 100]");
+
+        double target = p / 100.0 * finishProbability();
+        double seen = 0.0;
+        for (int t = 0; t < length.length; t++) {
+            seen += length[t];
+            if (seen >= target - 1e-12) return t;
+        }
+        return maxTurns();
+    }
+
+    /**
+     * Largest deviation, in standard errors, between these exact win probabilities and the
+     * win shares of a simulation of the same configuration. Values well below 4 mean the
+     * simulation and the solver agree.
+     */
+    public double maxWinShareZScore(SimulationReport report) {
+        if (report.playerNames().size() != win.length) {
+            throw new IllegalArgumentException("simulation has a different number of players");
+        }
+
+        double max = 0.0;
+        for (int i = 0; i < win.length; i++) {
+            double stdErr = Math.sqrt(win[i] * (1 - win[i]) / report.games());
+            double diff = Math.abs(report.winShare(i) - win[i]);
+            max = Math.max(max, stdErr == 0.0 ? (diff == 0.0 ? 0.0 : Double.POSITIVE_INFINITY) : diff / stdErr);
+        }
+        return max;
+    }
+}
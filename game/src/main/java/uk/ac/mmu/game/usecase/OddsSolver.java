@@ -0,0 +1,229 @@
+package uk.ac.mmu.game.usecase;
+
+import uk.ac.mmu.game.domain.Board;
+import uk.ac.mmu.game.domain.Player;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Use case: exact win odds and game-length distribution, without simulation.
+ *
+ * <p>Without forfeit-on-hit, players never affect each other's movement (BasicRules only
+ * reports hits), so each player's progress is an independent Markov chain over
+ * 0..endProgress driven by the single- or double-die roll distribution. All players share
+ * the same chain (home squares only relabel the ring), so it is solved once:
+ * <ul>
+ *   <li>F_k[c] - probability of reaching END on move k having counted c turns</li>
+ *   <li>A_k[c] - probability of still being short of END after k moves with c counted turns</li>
+ * </ul>
+ * Counted turns exclude exact-end forfeits, matching the game's turn counters.
+ *
+ * <p>Player i (turn order) wins on round k when it finishes on its k-th move while every
+ * earlier player has made k unfinished moves and every later player k-1. Convolving the
+ * counted-turn distributions of those events gives the total-turns distribution.
+ *
+ * <p>Iteration stops once the mass that can still reach END drops below {@link #EPSILON}.
+ * Mass that can never finish (double dice + exact end one square short of END) is reported
+ * as {@link OddsResult#unfinishedProbability()}.
+ *
+ * <p>Results are cached per configuration, up to {@link #CACHE_LIMIT} configurations; beyond
+ * that, new ones are solved but not kept. Cost grows with endProgress x moves², so the
+ * solver suits the normal board sizes rather than rings of thousands of squares.
+ */
+public class OddsSolver {
+
+    static final double EPSILON = 1e-13;
+
+    /** Distinct configurations kept; each result holds its whole game-length distribution. */
+    static final int CACHE_LIMIT = 64;
+
+    private record Key(int mainSize, int tailSize, int players, boolean singleDie, boolean exactEnd) { }
+
+    private final GameFactory factory;
+    private final Map<Key, OddsResult> cache = new ConcurrentHashMap<>();
+
+    public OddsSolver(GameFactory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * @throws IllegalArgumentException for forfeit-on-hit, where players interact and the
+     *                                  chains are no longer independent (use simulation)
+     */
+    public OddsResult solve(int mainSize,
+                            int tailSize,
+                            int players,
+                            boolean singleDie,
+                            boolean exactEnd,
+                            boolean forfeitOnHit) {
+
+        if (forfeitOnHit) {
+            throw new IllegalArgumentException("forfeit-on-hit makes players interact; exact odds are not available");
+        }
+
+        Key key = new Key(mainSize, tailSize, players, singleDie, exactEnd);
+        OddsResult result = cache.get(key);
+        if (result != null) return result;
+
+        result = compute(key);
+        if (cache.size() >= CACHE_LIMIT) return result;
+        OddsResult raced = cache.putIfAbsent(key, result);
+        return raced != null ? raced : result;
+    }
+
+    // Package-private for tests.
+    int cachedConfigurations() {
+        return cache.size();
+    }
+
+    private OddsResult compute(Key key) {
+        List<String> names = factory.createGame(key.mainSize(), key.tailSize(), key.players(),
+                key.singleDie(), key.exactEnd(), false, 0L)
+                .getPlayers().stream().map(Player::getName).toList();
+
+        int end = new Board(key.mainSize(), key.tailSize()).endProgress();
+        int n = names.size();
+        double[] rollP = rollDistribution(key.singleDie());
+        boolean[] canFinish = canFinish(end, rollP, key.exactEnd());
+
+        double[] win = new double[n];
+        double[] length = new double[16];
+
+        // cur[p][c]: probability of standing on p (< end) with c counted turns.
+        double[][] cur = new double[end][1];
+        cur[0][0] = 1.0;
+        double[] prevA = {1.0};
+
+        for (int k = 1; ; k++) {
+            double[][] next = new double[end][k + 1];
+            double[] f = new double[k + 1];
+
+            for (int p = 0; p < end; p++) {
+                double[] row = cur[p];
+                for (int c = 0; c < row.length; c++) {
+                    double m = row[c];
+                    if (m == 0.0) continue;
+
+                    for (int r = 1; r < rollP.length; r++) {
+                        if (rollP[r] == 0.0) continue;
+                        double q = m * rollP[r];
+                        int t = p + r;
+
+                        if (t < end) {
+                            next[t][c + 1] += q;
+                        } else if (t == end || !key.exactEnd()) {
+                            f[c + 1] += q;          // reaches END (overshoot clamps in basic rules)
+                        } else {
+                            next[p][c] += q;        // exact-end forfeit: stays, turn not counted
+                        }
+                    }
+                }
+            }
+
+            double[] a = new double[k + 1];
+            double liveMass = 0.0;
+            for (int p = 0; p < end; p++) {
+                for (int c = 0; c <= k; c++) {
+                    a[c] += next[p][c];
+                    if (canFinish[p]) liveMass += next[p][c];
+                }
+            }
+
+            length = accumulateRound(f, a, prevA, n, win, length);
+
+            cur = next;
+            prevA = a;
+            if (liveMass < EPSILON) break;
+        }
+
+        return new OddsResult(names, win, trim(length));
+    }
+
+    /**
+     * Adds the round's finishing events for every player to {@code win} and {@code length}.
+     *
+     * @return {@code length}, grown if needed
+     */
+    private static double[] accumulateRound(double[] f, double[] a, double[] prevA, int n,
+                                            double[] win, double[] length) {
+        double[][] before = powers(a, n);      // players ahead of i: k unfinished moves each
+        double[][] after = powers(prevA, n);   // players behind i: k-1 unfinished moves each
+
+        for (int i = 0; i < n; i++) {
+            double[] dist = convolve(f, convolve(before[i], after[n - 1 - i]));
+            if (dist.length > length.length) {
+                length = Arrays.copyOf(length, Math.max(dist.length, length.length * 2));
+            }
+            for (int t = 0; t < dist.length; t++) {
+                win[i] += dist[t];
+                length[t] += dist[t];
+            }
+        }
+        return length;
+    }
+
+    /**
+     * powers[j] = x convolved with itself j times (powers[0] = {1}).
+     */
+    private static double[][] powers(double[] x, int n) {
+        double[][] powers = new double[n][];
+        powers[0] = new double[]{1.0};
+        for (int j = 1; j < n; j++) {
+            powers[j] = convolve(powers[j - 1], x);
+        }
+        return powers;
+    }
+
+    private static double[] convolve(double[] x, double[] y) {
+        double[] out = new double[x.length + y.length - 1];
+        for (int i = 0; i < x.length; i++) {
+            if (x[i] == 0.0) continue;
+            for (int j = 0; j < y.length; j++) {
+                out[i + j] += x[i] * y[j];
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Probability of each roll value (index = roll).
+     */
+    static double[] rollDistribution(boolean singleDie) {
+        if (singleDie) {
+            double[] p = new double[7];
+            Arrays.fill(p, 1, 7, 1.0 / 6);
+            return p;
+        }
+        double[] p = new double[13];
+        for (int d1 = 1; d1 <= 6; d1++) {
+            for (int d2 = 1; d2 <= 6; d2++) {
+                p[d1 + d2] += 1.0 / 36;
+            }
+        }
+        return p;
+    }
+
+    /**
+     * canFinish[p]: END is reachable from progress p with some sequence of rolls.
+     */
+    private static boolean[] canFinish(int end, double[] rollP, boolean exactEnd) {
+        boolean[] can = new boolean[end];
+        for (int p = end - 1; p >= 0; p--) {
+            for (int r = 1; r < rollP.length && !can[p]; r++) {
+                if (rollP[r] == 0.0) continue;
+                int t = p + r;
+                can[p] = t == end || (t > end && !exactEnd) || (t < end && can[t]);
+            }
+        }
+        return can;
+    }
+
+    private static double[] trim(double[] length) {
+        int last = length.length - 1;
+        while (last > 0 && length[last] == 0.0) last--;
+        return Arrays.copyOf(length, last + 1);
+    }
+}
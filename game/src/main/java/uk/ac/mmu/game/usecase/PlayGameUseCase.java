@@ -3,6 +3,7 @@ package uk.ac.mmu.game.usecase;
 import uk.ac.mmu.game.domain.Game;
 import uk.ac.mmu.game.domain.MoveResult;
 import uk.ac.mmu.game.domain.RecordingDiceShaker;
+import uk.ac.mmu.game.domain.SeededDiceShaker;
 
 import java.util.UUID;
 
@@ -14,7 +15,7 @@ import java.util.UUID;
  * - Attach output observer (port)
  * - Run until GameOver
  * - Demonstrate GameOver state behaviour (attempt extra turns)
- * - Save a replay snapshot (config + dice rolls)
+ * - Save a replay snapshot (config + dice rolls, or config + seed for seeded dice)
  */
 public class PlayGameUseCase {
 
@@ -41,6 +42,45 @@ public class PlayGameUseCase {
                         boolean forfeitOnHit) throws Exception {
 
         Game game = factory.createGame(mainSize, tailSize, players, singleDie, exactEnd, forfeitOnHit);
+        run(game, mainSize, tailSize, players, singleDie, exactEnd, forfeitOnHit);
+    }
+
+    /**
+     * Plays a game with seeded dice; it is saved as algorithm + seed rather than a roll list.
+     */
+    public void execute(int mainSize,
+                        int tailSize,
+                        int players,
+                        boolean singleDie,
+                        boolean exactEnd,
+                        boolean forfeitOnHit,
+                        long seed) throws Exception {
+
+        Game game = factory.createGame(mainSize, tailSize, players, singleDie, exactEnd, forfeitOnHit, seed);
+        run(game, mainSize, tailSize, players, singleDie, exactEnd, forfeitOnHit);
+    }
+
+    private void run(Game game,
+                     int mainSize,
+                     int tailSize,
+                     int players,
+                     boolean singleDie,
+                     boolean exactEnd,
+                     boolean forfeitOnHit) throws Exception {
+        try {
+            playAndSave(game, mainSize, tailSize, players, singleDie, exactEnd, forfeitOnHit);
+        } finally {
+            output.flush();
+        }
+    }
+
+    private void playAndSave(Game game,
+                             int mainSize,
+                             int tailSize,
+                             int players,
+                             boolean singleDie,
+                             boolean exactEnd,
+                             boolean forfeitOnHit) throws Exception {
 
         // Output is a port (interface) and also a domain observer.
         game.addObserver(output);
@@ -68,8 +108,25 @@ public class PlayGameUseCase {
 
         mediator.event("Finished game");
 
-        // Save using recorded rolls (RecordingDiceShaker decorates the dice).
-        if (game.getDice() instanceof RecordingDiceShaker rec) {
+        // Seeded dice: algorithm + seed reproduce every roll.
+        if (game.getDice() instanceof SeededDiceShaker seeded) {
+            GameSave save = GameSave.seeded(
+                    null,
+                    mainSize,
+                    tailSize,
+                    players,
+                    singleDie,
+                    exactEnd,
+                    forfeitOnHit,
+                    seeded.algorithm(),
+                    seeded.seed()
+            );
+            save.rollCount = seeded.shaken(); // lets queries filter seed saves by length
+
+            UUID id = repository.save(save);
+            output.printConfig("Saved game id: " + id);
+        } else if (game.getDice() instanceof RecordingDiceShaker rec) {
+            // Save using recorded rolls (RecordingDiceShaker decorates the dice).
             GameSave save = new GameSave(
                     null,
                     mainSize,
@@ -2,6 +2,7 @@ package uk.ac.mmu.game.usecase;
 
 import uk.ac.mmu.game.domain.Game;
 import uk.ac.mmu.game.domain.MoveResult;
+import uk.ac.mmu.game.domain.Player;
 
 import java.util.UUID;
 
@@ -12,6 +13,9 @@ import java.util.UUID;
  * - load config + sequence of rolls
  * - rebuild a deterministic game using FixedSeqShaker
  * - run it through the normal game engine to reproduce the output
+ *
+ * Besides the full replay, a game can be fast-forwarded headlessly: no observers are
+ * attached while skipping, so the console (the expensive part) only sees the turns asked for.
  */
 public class ReplayGameUseCase {
 
@@ -31,6 +35,14 @@ public class ReplayGameUseCase {
     }
 
     public void replay(UUID id) throws Exception {
+        try {
+            replayAll(id);
+        } finally {
+            output.flush();
+        }
+    }
+
+    private void replayAll(UUID id) throws Exception {
         GameSave save = repository.load(id);
         Game game = factory.createFromSave(save);
 
@@ -58,4 +70,82 @@ public class ReplayGameUseCase {
 
         mediator.event("Finished replay " + id);
     }
+
+    /**
+     * Replays only a window of moves: moves before {@code fromTurn} are played with no observers
+     * attached, moves {@code fromTurn .. fromTurn + turns - 1} are rendered as usual, and the rest
+     * of the game is fast-forwarded silently before the final result is printed.
+     *
+     * @param fromTurn first move to render (1-based; moves include forfeited turns)
+     * @param turns    number of moves to render (Integer.MAX_VALUE = to the end)
+     */
+    public ReplayOutcome replay(UUID id, int fromTurn, int turns) throws Exception {
+        if (fromTurn < 1) throw new IllegalArgumentException("fromTurn must be >= 1");
+        if (turns < 0) throw new IllegalArgumentException("turns must be >= 0");
+        try {
+            return replayWindow(id, fromTurn, turns);
+        } finally {
+            output.flush();
+        }
+    }
+
+    private ReplayOutcome replayWindow(UUID id, int fromTurn, int turns) throws Exception {
+        GameSave save = repository.load(id);
+        Game game = factory.createFromSave(save);
+        output.setBoard(game.getBoard());
+
+        mediator.event("Replaying game " + id + " from move " + fromTurn);
+        output.printConfig(String.format(
+                "[REPLAY %s] Board positions=%d, Tail positions=%d, Players=%d, singleDie=%s, exactEnd=%s, forfeitOnHit=%s",
+                save.id, save.mainSize, save.tailSize, save.players, save.singleDie, save.exactEnd, save.forfeitOnHit
+        ));
+
+        fastForward(game, fromTurn - 1L);
+
+        long windowEnd = (long) fromTurn - 1 + turns;
+        game.addObserver(output);
+        fastForward(game, windowEnd);
+        game.removeObserver(output);
+
+        // The winner is printed by the observer if the winning move was rendered.
+        boolean winnerShown = game.isOver() && game.compactTimeline().size() <= windowEnd;
+        fastForward(game, Long.MAX_VALUE);
+
+        ReplayOutcome outcome = outcome(id, game);
+        if (outcome.finished() && !winnerShown) {
+            output.printWinner(outcome.winner(), outcome.totalTurns(), outcome.winnerTurns());
+        }
+
+        mediator.event("Finished replay " + id);
+        return outcome;
+    }
+
+    /**
+     * Replays a saved game with no output at all and returns only its outcome.
+     */
+    public ReplayOutcome replaySilently(UUID id) throws Exception {
+        Game game = factory.createFromSave(repository.load(id));
+        fastForward(game, Long.MAX_VALUE);
+        return outcome(id, game);
+    }
+
+    /**
+     * Plays until the game is over or {@code moves} moves have been played in total.
+     */
+    private static void fastForward(Game game, long moves) {
+        while (!game.isOver() && game.compactTimeline().size() < moves) {
+            game.playTurn();
+        }
+    }
+
+    private static ReplayOutcome outcome(UUID id, Game game) {
+        Player winner = game.winner().orElse(null);
+        return new ReplayOutcome(
+                id,
+                winner != null ? winner.getName() : null,
+                game.totalTurns(),
+                winner != null ? winner.getTurnsTaken() : 0,
+                game.compactTimeline().size()
+        );
+    }
 }
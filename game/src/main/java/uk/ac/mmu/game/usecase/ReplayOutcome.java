@@ -0,0 +1,18 @@
+package uk.ac.mmu.game.usecase;
+
+import java.util.UUID;
+
+/**
+ * Result of replaying a saved game.
+ *
+ * @param winner      winning player's name, or null if the save ends before anyone wins
+ * @param totalTurns  non-forfeited turns of all players
+ * @param winnerTurns non-forfeited turns of the winner (0 if unfinished)
+ * @param moves       all moves played, forfeits included (the timeline length)
+ */
+public record ReplayOutcome(UUID id, String winner, int totalTurns, int winnerTurns, int moves) {
+
+    public boolean finished() {
+        return winner != null;
+    }
+}
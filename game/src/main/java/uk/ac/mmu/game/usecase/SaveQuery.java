@@ -0,0 +1,96 @@
+package uk.ac.mmu.game.usecase;
+
+/**
+ * Filter over saved games' configuration and roll count (see {@link GameSaveRepository#query}).
+ * A null field matches any value; the roll bounds are inclusive.
+ *
+ * @param seeded   true for seed saves only, false for roll-list saves only
+ * @param minRolls fewest recorded rolls (seed saves record none)
+ * @param maxRolls most recorded rolls
+ */
+public record SaveQuery(
+        Integer players,
+        Integer mainSize,
+        Integer tailSize,
+        Boolean singleDie,
+        Boolean exactEnd,
+        Boolean forfeitOnHit,
+        Boolean seeded,
+        int minRolls,
+        int maxRolls
+) {
+
+    /** Matches every save. */
+    public static final SaveQuery ALL = new SaveQuery(null, null, null, null, null, null, null, 0, Integer.MAX_VALUE);
+
+    public SaveQuery {
+        if (minRolls < 0) throw new IllegalArgumentException("minRolls must be >= 0");
+        if (maxRolls < minRolls) throw new IllegalArgumentException("maxRolls must be >= minRolls");
+    }
+
+    /**
+     * Parses the --query form: comma-separated {@code key=value} pairs, e.g.
+     * {@code players=4,board=large,exactEnd=true,minRolls=300}. Keys: players, mainSize, tailSize,
+     * board (small = 18+3, large = 36+6), singleDie, exactEnd, forfeitOnHit, seeded, minRolls, maxRolls.
+     * A blank string matches every save.
+     */
+    public static SaveQuery parse(String text) {
+        Integer players = null;
+        Integer mainSize = null;
+        Integer tailSize = null;
+        Boolean singleDie = null;
+        Boolean exactEnd = null;
+        Boolean forfeitOnHit = null;
+        Boolean seeded = null;
+        int minRolls = 0;
+        int maxRolls = Integer.MAX_VALUE;
+
+        for (String term : text.split(",")) {
+            if (term.isBlank()) continue;
+            int eq = term.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("expected key=value in query: " + term);
+            String key = term.substring(0, eq).trim();
+            String value = term.substring(eq + 1).trim();
+            switch (key) {
+                case "players" -> players = Integer.parseInt(value);
+                case "mainSize" -> mainSize = Integer.parseInt(value);
+                case "tailSize" -> tailSize = Integer.parseInt(value);
+                case "board" -> {
+                    switch (value) {
+                        case "small" -> { mainSize = 18; tailSize = 3; }
+                        case "large" -> { mainSize = 36; tailSize = 6; }
+                        default -> throw new IllegalArgumentException("board must be small or large: " + value);
+                    }
+                }
+                case "singleDie" -> singleDie = parseBoolean(key, value);
+                case "exactEnd" -> exactEnd = parseBoolean(key, value);
+                case "forfeitOnHit" -> forfeitOnHit = parseBoolean(key, value);
+                case "seeded" -> seeded = parseBoolean(key, value);
+                case "minRolls" -> minRolls = Integer.parseInt(value);
+                case "maxRolls" -> maxRolls = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("unknown query key: " + key);
+            }
+        }
+        return new SaveQuery(players, mainSize, tailSize, singleDie, exactEnd, forfeitOnHit, seeded,
+                minRolls, maxRolls);
+    }
+
+    private static boolean parseBoolean(String key, String value) {
+        return switch (value) {
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw new IllegalArgumentException(key + " must be true or false: " + value);
+        };
+    }
+
+    public boolean matches(SaveSummary save) {
+        return (players == null || players == save.players())
+                && (mainSize == null || mainSize == save.mainSize())
+                && (tailSize == null || tailSize == save.tailSize())
+                && (singleDie == null || singleDie == save.singleDie())
+                && (exactEnd == null || exactEnd == save.exactEnd())
+                && (forfeitOnHit == null || forfeitOnHit == save.forfeitOnHit())
+                && (seeded == null || seeded == save.seeded())
+                && save.rolls() >= minRolls && save.rolls() <= maxRolls;
+    }
+}
@@ -0,0 +1,28 @@
+package uk.ac.mmu.game.usecase;
+
+import java.util.UUID;
+
+/**
+ * A save's configuration and dice count without the dice themselves, as answered by
+ * {@link GameSaveRepository#query}.
+ *
+ * @param seeded true for seed saves (see {@link GameSave}), which record no rolls
+ * @param rolls  number of rolls the game took (see {@link GameSave#rollsPlayed()})
+ */
+public record SaveSummary(
+        UUID id,
+        int mainSize,
+        int tailSize,
+        int players,
+        boolean singleDie,
+        boolean exactEnd,
+        boolean forfeitOnHit,
+        boolean seeded,
+        int rolls
+) {
+
+    public static SaveSummary of(GameSave save) {
+        return new SaveSummary(save.id, save.mainSize, save.tailSize, save.players, save.singleDie, save.exactEnd,
+                save.forfeitOnHit, save.seeded(), save.rollsPlayed());
+    }
+}
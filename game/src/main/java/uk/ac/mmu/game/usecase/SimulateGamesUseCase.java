@@ -0,0 +1,142 @@
+package uk.ac.mmu.game.usecase;
+
+import uk.ac.mmu.game.domain.Game;
+import uk.ac.mmu.game.domain.GameKernel;
+import uk.ac.mmu.game.domain.Player;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Use case: play a large batch of headless games and aggregate their outcomes.
+ *
+ * Responsibilities:
+ * - Build every game via GameFactory (same rules/board wiring as a normal game),
+ *   either as a full Game or as the primitive GameKernel
+ * - Derive each game's dice seed from the base seed and the game index
+ * - Split the batch across a fork-join pool and merge the per-worker tallies
+ *
+ * Because seeds depend only on the game index and tallies merge by summing,
+ * a run produces the same numbers whatever the thread count.
+ */
+public class SimulateGamesUseCase {
+
+    /** Games played sequentially by one fork-join leaf before it stops splitting. */
+    private static final long LEAF_GAMES = 1024;
+
+    private final GameFactory factory;
+
+    public SimulateGamesUseCase(GameFactory factory) {
+        this.factory = factory;
+    }
+
+    public SimulationReport simulate(SimulationConfig config) {
+        List<String> names = factory.createGame(
+                config.mainSize(), config.tailSize(), config.players(),
+                config.singleDie(), config.exactEnd(), config.forfeitOnHit(), config.seed()
+        ).getPlayers().stream().map(Player::getName).toList();
+
+        long start = System.nanoTime();
+
+        ForkJoinPool pool = new ForkJoinPool(config.effectiveParallelism());
+        SimulationTally tally;
+        try {
+            tally = pool.invoke(new Batch(config, names.size(), 0, config.games()));
+        } finally {
+            pool.shutdown();
+        }
+
+        return new SimulationReport(config, names, tally, System.nanoTime() - start);
+    }
+
+    /**
+     * Seed for game {@code index}: the base seed advanced by the golden-ratio gamma
+     * and passed through the SplittableRandom mixing function, so neighbouring
+     * indices get unrelated streams.
+     */
+    static long gameSeed(long baseSeed, long index) {
+        long z = baseSeed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private final class Batch extends RecursiveTask<SimulationTally> {
+
+        private final SimulationConfig config;
+        private final int players;
+        private final long from;
+        private final long to;
+
+        Batch(SimulationConfig config, int players, long from, long to) {
+            this.config = config;
+            this.players = players;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationTally compute() {
+            if (to - from <= LEAF_GAMES) {
+                return config.engine() == SimulationEngine.KERNEL ? playRangeOnKernel() : playRange();
+            }
+
+            long mid = (from + to) >>> 1;
+            Batch left = new Batch(config, players, from, mid);
+            Batch right = new Batch(config, players, mid, to);
+            left.fork();
+            SimulationTally rightTally = right.compute();
+            return left.join().merge(rightTally);
+        }
+
+        private SimulationTally playRange() {
+            SimulationTally tally = new SimulationTally(players);
+
+            for (long i = from; i < to; i++) {
+                Game game = factory.createGame(
+                        config.mainSize(), config.tailSize(), config.players(),
+                        config.singleDie(), config.exactEnd(), config.forfeitOnHit(),
+                        gameSeed(config.seed(), i)
+                );
+                game.addTurnObserver(tally);
+                game.addFinishedObserver(tally);
+
+                int moves = 0;
+                while (!game.isOver() && moves < config.maxMoves()) {
+                    game.playTurn();
+                    moves++;
+                }
+                if (!game.isOver()) {
+                    tally.recordUnfinished();
+                }
+            }
+            return tally;
+        }
+
+        private SimulationTally playRangeOnKernel() {
+            SimulationTally tally = new SimulationTally(players);
+            GameKernel kernel = factory.createKernel(
+                    config.mainSize(), config.tailSize(), config.players(),
+                    config.exactEnd(), config.forfeitOnHit()
+            );
+
+            for (long i = from; i < to; i++) {
+                kernel.reset();
+                int winner = kernel.play(factory.createDice(config.singleDie(), gameSeed(config.seed(), i)),
+                        config.maxMoves());
+
+                tally.moves += kernel.moves();
+                tally.hits += kernel.hits();
+                tally.overshoots += kernel.overshoots();
+                if (winner >= 0) {
+                    tally.recordGame(winner, kernel.totalTurns());
+                } else {
+                    tally.recordUnfinished();
+                }
+            }
+            return tally;
+        }
+
+    }
+}
@@ -0,0 +1,40 @@
+package uk.ac.mmu.game.usecase;
+
+/**
+ * Parameters for a headless batch simulation.
+ *
+ * @param games       number of games to play
+ * @param seed        base seed; every game derives its own seed from this and its index
+ * @param parallelism worker threads to use (0 = all available cores)
+ * @param maxMoves    moves after which a game is abandoned as unfinished; needed because
+ *                    some variants can stall forever (e.g. double dice + exact end with
+ *                    every player one square short of END)
+ * @param engine      engine that plays the games; both give identical results
+ */
+public record SimulationConfig(
+        int mainSize,
+        int tailSize,
+        int players,
+        boolean singleDie,
+        boolean exactEnd,
+        boolean forfeitOnHit,
+        long games,
+        long seed,
+        int parallelism,
+        int maxMoves,
+        SimulationEngine engine
+) {
+
+    public static final int DEFAULT_MAX_MOVES = 100_000;
+
+    public SimulationConfig {
+        if (games <= 0) throw new IllegalArgumentException("games must be > 0");
+        if (parallelism < 0) throw new IllegalArgumentException("parallelism must be >= 0");
+        if (maxMoves <= 0) throw new IllegalArgumentException("maxMoves must be > 0");
+        if (engine == null) throw new IllegalArgumentException("engine is required");
+    }
+
+    public int effectiveParallelism() {
+        return parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism;
+    }
+}
@@ -0,0 +1,13 @@
+package uk.ac.mmu.game.usecase;
+
+/**
+ * Engine used to play simulated games.
+ */
+public enum SimulationEngine {
+
+    /** The full object engine (Game + Rules decorators + observers), as used for normal play. */
+    GAME,
+
+    /** The allocation-free primitive engine (GameKernel); same results, no per-turn allocation. */
+    KERNEL
+}
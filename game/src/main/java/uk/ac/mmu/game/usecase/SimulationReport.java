@@ -0,0 +1,135 @@
+package uk.ac.mmu.game.usecase;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aggregated outcome of a batch simulation.
+ *
+ * <p>"Turns" means the game's total turn count as printed at the end of a normal game
+ * (the sum of every player's non-forfeited turns). Turn statistics cover finished games only;
+ * games abandoned at {@link SimulationConfig#maxMoves()} are counted separately.
+ */
+public final class SimulationReport {
+
+    private final SimulationConfig config;
+    private final List<String> playerNames;
+    private final long[] wins;
+    private final long games;
+    private final long unfinished;
+    private final long turnsSum;
+    private final int maxTurns;
+    private final long[] turnHistogram;
+    private final long moves;
+    private final long hits;
+    private final long overshoots;
+    private final long elapsedNanos;
+
+    SimulationReport(SimulationConfig config, List<String> playerNames, SimulationTally tally, long elapsedNanos) {
+        this.config = config;
+        this.playerNames = List.copyOf(playerNames);
+        this.wins = tally.wins.clone();
+        this.games = tally.games;
+        this.unfinished = tally.unfinished;
+        this.turnsSum = tally.turnsSum;
+        this.maxTurns = tally.maxTurns;
+        this.turnHistogram = Arrays.copyOf(tally.turnHistogram, tally.maxTurns + 1);
+        this.moves = tally.moves;
+        this.hits = tally.hits;
+        this.overshoots = tally.overshoots;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public SimulationConfig config() {
+        return config;
+    }
+
+    public List<String> playerNames() {
+        return playerNames;
+    }
+
+    /**
+     * Total games played, finished or not.
+     */
+    public long games() {
+        return games + unfinished;
+    }
+
+    public long finishedGames() {
+        return games;
+    }
+
+    public long unfinishedGames() {
+        return unfinished;
+    }
+
+    public long wins(int playerIndex) {
+        return wins[playerIndex];
+    }
+
+    /**
+     * Share of all games played (including unfinished ones) won by the given player.
+     */
+    public double winShare(int playerIndex) {
+        return games() == 0 ? 0.0 : (double) wins[playerIndex] / games();
+    }
+
+    public double meanTurns() {
+        return games == 0 ? 0.0 : (double) turnsSum / games;
+    }
+
+    /**
+     * Nearest-rank percentile of the total-turns distribution.
+     *
+     * @param p percentile in (0, 100]
+     */
+    public int percentileTurns(double p) {
+        if (p <= 0 || p > 100) throw new IllegalArgumentException("percentile must be in (0, 100]");
+        if (games == 0) return 0;
+
+        long rank = (long) Math.ceil(p / 100.0 * games);
+        long seen = 0;
+        for (int t = 0; t < turnHistogram.length; t++) {
+            seen += turnHistogram[t];
+            if (seen >= rank) return t;
+        }
+        return maxTurns;
+    }
+
+    public int maxTurns() {
+        return maxTurns;
+    }
+
+    /**
+     * Number of finished games that took exactly {@code turns} total turns.
+     */
+    public long gamesWithTurns(int turns) {
+        return turns < 0 || turns >= turnHistogram.length ? 0 : turnHistogram[turns];
+    }
+
+    public long moves() {
+        return moves;
+    }
+
+    /**
+     * Share of all moves (including forfeited ones) that reported a HIT.
+     */
+    public double hitRate() {
+        return moves == 0 ? 0.0 : (double) hits / moves;
+    }
+
+    /**
+     * Share of all moves (including forfeited ones) that overshot END.
+     */
+    public double overshootRate() {
+        return moves == 0 ? 0.0 : (double) overshoots / moves;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double gamesPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : games() * 1_000_000_000.0 / elapsedNanos;
+    }
+}
@@ -0,0 +1,87 @@
+package uk.ac.mmu.game.usecase;
+
+import uk.ac.mmu.game.domain.Game;
+import uk.ac.mmu.game.domain.GameObserver;
+import uk.ac.mmu.game.domain.MoveResult;
+import uk.ac.mmu.game.domain.Player;
+
+import java.util.Arrays;
+
+/**
+ * Mutable accumulator for simulation results.
+ *
+ * <p>Attached as an observer to every simulated game of one worker, then merged.
+ * Every field is a sum, a maximum or a histogram, so the merged totals do not
+ * depend on how the games were split between workers.
+ */
+final class SimulationTally implements GameObserver {
+
+    final long[] wins;
+    long games;
+    long unfinished;
+    long turnsSum;
+    int maxTurns;
+    long[] turnHistogram = new long[64];
+    long moves;
+    long hits;
+    long overshoots;
+
+    SimulationTally(int players) {
+        this.wins = new long[players];
+    }
+
+    @Override
+    public void onStateChanged(Game game, String from, String to) {
+        // Not needed for the aggregate.
+    }
+
+    @Override
+    public void onTurnPlayed(Game game, MoveResult result, Player currentPlayer) {
+        moves++;
+        if (result.hit()) hits++;
+        if (result.overshoot()) overshoots++;
+    }
+
+    @Override
+    public void onGameFinished(Game game, Player winner, int totalTurns, int winnerTurns) {
+        // The game stops on the winning move, so the turn order still points at the winner.
+        recordGame(game.getTurnOrder().currentIndex(), totalTurns);
+    }
+
+    void recordGame(int winnerIndex, int totalTurns) {
+        games++;
+        wins[winnerIndex]++;
+        turnsSum += totalTurns;
+        maxTurns = Math.max(maxTurns, totalTurns);
+
+        if (totalTurns >= turnHistogram.length) {
+            turnHistogram = Arrays.copyOf(turnHistogram, Math.max(totalTurns + 1, turnHistogram.length * 2));
+        }
+        turnHistogram[totalTurns]++;
+    }
+
+    void recordUnfinished() {
+        unfinished++;
+    }
+
+    SimulationTally merge(SimulationTally other) {
+        for (int i = 0; i < wins.length; i++) {
+            wins[i] += other.wins[i];
+        }
+        games += other.games;
+        unfinished += other.unfinished;
+        turnsSum += other.turnsSum;
+        maxTurns = Math.max(maxTurns, other.maxTurns);
+        moves += other.moves;
+        hits += other.hits;
+        overshoots += other.overshoots;
+
+        if (other.turnHistogram.length > turnHistogram.length) {
+            turnHistogram = Arrays.copyOf(turnHistogram, other.turnHistogram.length);
+        }
+        for (int t = 0; t < other.turnHistogram.length; t++) {
+            turnHistogram[t] += other.turnHistogram[t];
+        }
+        return this;
+    }
+}
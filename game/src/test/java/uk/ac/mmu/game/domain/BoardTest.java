@@ -58,4 +58,39 @@ class BoardTest {
         assertEquals(11, board.mainRingPosFor(blue, 1));
         assertEquals(9, board.mainRingPosFor(blue, 17)); // wrap around
     }
+
+    @Test
+    void geometryTablesMatchTheDirectMappingAndAreSharedAcrossBoardsAndPlayers() {
+        Board board = new Board(36, 6);
+        Player yellow = new Player("Yellow", 28, "Y");
+        BoardGeometry geometry = board.geometryFor(yellow);
+
+        for (int progress = 0; progress <= board.endProgress(); progress++) {
+            boolean onRing = progress < board.mainSize();
+            assertEquals(onRing ? ((28 - 1 + progress) % 36) + 1 : 0, geometry.square(progress));
+            assertEquals(onRing ? 0 : progress - 36 + 1, geometry.tailStep(progress));
+        }
+        assertEquals("Position 36", geometry.label(8));
+        assertEquals("Position 1", geometry.label(9));
+        assertEquals("Y6 (End)", geometry.label(board.endProgress()));
+        assertSame(geometry.label(5), board.labelFor(yellow, 5)); // built once, then reused
+
+        // Another board of the same size, and another player with the same home and colour, share it
+        Player otherYellow = new Player("Yellow", 28, "Y");
+        assertSame(geometry, new Board(36, 6).geometryFor(otherYellow));
+        // A different board size gets its own tables
+        Board small = new Board(18, 3);
+        assertNotSame(geometry, small.geometryFor(yellow));
+        assertEquals("Y3 (End)", small.labelFor(yellow, small.endProgress()));
+    }
+
+    @Test
+    void progressOutsideTheBoardIsStillMappedDirectly() {
+        Board board = new Board(18, 3);
+        Player red = new Player("Red", 1, "R");
+
+        assertEquals(1, board.mainRingPosFor(red, 18)); // wraps, as the modulo always did
+        assertEquals("Tail Position R4", board.labelFor(red, 21));
+        assertEquals(0, board.geometryFor(red).square(25));
+    }
 }
@@ -0,0 +1,78 @@
+package uk.ac.mmu.game.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactTimelineTest {
+
+    private static final List<String> NAMES = List.of("Red", "Blue", "Green", "Yellow");
+
+    @Test
+    void packedMovesDecodeToEqualRecords() {
+        CompactTimeline timeline = new CompactTimeline(NAMES);
+
+        MoveResult plain = new MoveResult("Red", 7, 0, 7, false, false, false, "", null, null);
+        MoveResult hit = new MoveResult("Blue", 3, 4, 7, true, false, false, "", "Green", 17);
+        MoveResult forfeit = new MoveResult("Yellow", 12, 30, 30, true, false, false, "", "Red", 22);
+        MoveResult win = new MoveResult("Green", 9, 38, 41, false, true, true, "", null, null);
+
+        timeline.add(plain, 0);
+        timeline.add(hit, 1);
+        timeline.add(forfeit, 3);
+        timeline.add(win, -1); // no hint: resolved by name
+
+        assertEquals(List.of(plain, hit, forfeit, win), timeline.asList());
+        for (int i = 0; i < timeline.size(); i++) {
+            assertFalse(PackedMove.isEscape(timeline.packed(i)), "move " + i + " should be packed");
+        }
+
+        assertEquals(3, timeline.roll(1));
+        assertEquals(7, timeline.toProgress(1));
+        assertEquals("Yellow", timeline.playerName(2));
+        assertTrue(timeline.won(3));
+        assertTrue(timeline.overshoot(3));
+    }
+
+    @Test
+    void movesThatDoNotFitAreKeptVerbatim() {
+        CompactTimeline timeline = new CompactTimeline(NAMES);
+
+        MoveResult noted = new MoveResult("Red", 2, 0, 2, false, false, false, "custom", null, null);
+        MoveResult bigRoll = new MoveResult("Red", 40, 0, 40, false, false, false, "", null, null);
+        MoveResult stranger = new MoveResult("Purple", 2, 0, 2, false, false, false, "", null, null);
+        MoveResult hugeBoard = new MoveResult("Blue", 6, 2_000_000, 2_000_006, false, false, false, "", null, null);
+
+        timeline.add(noted, 0);
+        timeline.add(bigRoll, 0);
+        timeline.add(stranger, 0);
+        timeline.add(hugeBoard, 1);
+
+        assertEquals(List.of(noted, bigRoll, stranger, hugeBoard), timeline.asList());
+        assertTrue(PackedMove.isEscape(timeline.packed(0)));
+        assertEquals(40, timeline.roll(1));
+        assertEquals("Purple", timeline.playerName(2));
+        assertEquals(2_000_006, timeline.toProgress(3));
+    }
+
+    @Test
+    void gameTimelineIsAnUnmodifiableSnapshot() {
+        Board board = new Board(18, 3);
+        Game game = new Game(board,
+                List.of(new Player("Red", 1, "R"), new Player("Blue", 10, "B")),
+                new BasicRules(), new FixedSeqShaker(12, 12, 7, 8));
+
+        List<MoveResult> before = game.timeline();
+        assertTrue(before.isEmpty());
+
+        MoveResult first = game.playTurn();
+        assertTrue(before.isEmpty()); // taken before the move, so it does not change
+        List<MoveResult> after = game.timeline();
+        assertEquals(List.of(first), after);
+        assertEquals(1, game.compactTimeline().size());
+
+        assertThrows(UnsupportedOperationException.class, () -> after.add(first));
+    }
+}
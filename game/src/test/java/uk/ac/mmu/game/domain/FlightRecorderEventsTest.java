@@ -0,0 +1,76 @@
+package uk.ac.mmu.game.domain;
+
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderEventsTest {
+
+    @TempDir
+    Path dir;
+
+    private static Game playedGame() {
+        Rules rules = new ForfeitOnHitDecorator(new ExactEndDecorator(new BasicRules()));
+        Game game = new Game(new Board(18, 3),
+                List.of(new Player("Red", 1, "R"), new Player("Blue", 10, "B")),
+                rules, new SeededDiceShaker(7L, true));
+        while (!game.isOver()) game.playTurn();
+        return game;
+    }
+
+    private List<RecordedEvent> record(String... eventNames) throws Exception {
+        Path file = dir.resolve("game.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : eventNames) recording.enable(name);
+            recording.start();
+            playedGame();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private static long count(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).count();
+    }
+
+    @Test
+    void eventsAreDisabledByDefault() throws Exception {
+        assertFalse(EventType.getEventType(TurnEvent.class).isEnabled());
+        assertFalse(EventType.getEventType(StateTransitionEvent.class).isEnabled());
+        assertFalse(EventType.getEventType(RulesEvaluationEvent.class).isEnabled());
+
+        List<RecordedEvent> events = record();
+
+        assertEquals(0, events.stream().filter(e -> e.getEventType().getName().startsWith("uk.ac.mmu.game")).count());
+    }
+
+    @Test
+    void enabledRecordingCapturesTurnsTransitionsAndEveryRulesLayer() throws Exception {
+        List<RecordedEvent> events = record(
+                "uk.ac.mmu.game.Turn", "uk.ac.mmu.game.StateTransition", "uk.ac.mmu.game.RulesEvaluation");
+
+        int moves = playedGame().timeline().size(); // same seed, same game
+        assertEquals(moves, count(events, "uk.ac.mmu.game.Turn"));
+        assertEquals(2, count(events, "uk.ac.mmu.game.StateTransition")); // Ready->InPlay->GameOver
+
+        // The outer decorator runs every turn; inner layers only when the outer one delegates.
+        List<RecordedEvent> rules = events.stream()
+                .filter(e -> e.getEventType().getName().equals("uk.ac.mmu.game.RulesEvaluation")).toList();
+        assertEquals(moves, rules.stream().filter(e -> e.getString("rules").equals("ForfeitOnHitDecorator")).count());
+        assertTrue(rules.stream().anyMatch(e -> e.getString("rules").equals("BasicRules")));
+
+        RecordedEvent lastTurn = events.stream()
+                .filter(e -> e.getEventType().getName().equals("uk.ac.mmu.game.Turn"))
+                .filter(e -> e.getBoolean("won")).findFirst().orElseThrow();
+        assertEquals(20, lastTurn.getInt("toProgress"));
+    }
+}
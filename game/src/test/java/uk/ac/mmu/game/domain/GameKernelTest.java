@@ -0,0 +1,125 @@
+package uk.ac.mmu.game.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Differential tests: GameKernel must play exactly the same game as Game + Rules decorators
+ * when both are fed the same roll sequence.
+ */
+class GameKernelTest {
+
+    private static final int MAX_MOVES = 2_000;
+
+    private static List<Player> players(int count) {
+        List<Player> ps = new ArrayList<>();
+        ps.add(new Player("Red", 1, "R"));
+        ps.add(new Player("Blue", 10, "B"));
+        if (count == 4) {
+            ps.add(new Player("Green", 19, "G"));
+            ps.add(new Player("Yellow", 28, "Y"));
+        }
+        return ps;
+    }
+
+    private static Rules rules(boolean exactEnd, boolean forfeitOnHit) {
+        Rules rules = new BasicRules();
+        if (exactEnd) rules = new ExactEndDecorator(rules);
+        if (forfeitOnHit) rules = new ForfeitOnHitDecorator(rules);
+        return rules;
+    }
+
+    private static void assertSameGame(int mainSize, int tailSize, int playerCount,
+                                       boolean singleDie, boolean exactEnd, boolean forfeitOnHit, long seed) {
+        String ctx = String.format("board=%d+%d players=%d single=%s exact=%s forfeit=%s seed=%d",
+                mainSize, tailSize, playerCount, singleDie, exactEnd, forfeitOnHit, seed);
+
+        List<Player> ps = players(playerCount);
+        Game game = new Game(new Board(mainSize, tailSize), ps, rules(exactEnd, forfeitOnHit),
+                new SeededDiceShaker(seed, singleDie));
+        GameKernel kernel = new GameKernel(mainSize, tailSize,
+                ps.stream().mapToInt(Player::getHomeIndex).toArray(), exactEnd, forfeitOnHit);
+        DiceShaker kernelDice = new SeededDiceShaker(seed, singleDie);
+
+        long hits = 0;
+        long overshoots = 0;
+        for (int m = 0; m < MAX_MOVES && !game.isOver(); m++) {
+            MoveResult expected = game.playTurn();
+            int flags = kernel.step(kernelDice.shake());
+
+            assertEquals(expected.fromProgress(), kernel.lastFrom(), ctx + " move " + m);
+            assertEquals(expected.toProgress(), kernel.lastTo(), ctx + " move " + m);
+            assertEquals(expected.hit(), (flags & GameKernel.HIT) != 0, ctx + " move " + m);
+            assertEquals(expected.overshoot(), (flags & GameKernel.OVERSHOOT) != 0, ctx + " move " + m);
+            assertEquals(expected.won(), (flags & GameKernel.WON) != 0, ctx + " move " + m);
+            assertEquals(expected.forfeited(), (flags & GameKernel.FORFEITED) != 0, ctx + " move " + m);
+
+            if (expected.hit()) hits++;
+            if (expected.overshoot()) overshoots++;
+        }
+
+        assertEquals(game.isOver(), kernel.isOver(), ctx);
+        assertEquals(game.timeline().size(), kernel.moves(), ctx);
+        assertEquals(hits, kernel.hits(), ctx);
+        assertEquals(overshoots, kernel.overshoots(), ctx);
+
+        int totalTurns = 0;
+        for (int i = 0; i < ps.size(); i++) {
+            assertEquals(ps.get(i).getProgress(), kernel.progress(i), ctx);
+            assertEquals(ps.get(i).getTurnsTaken(), kernel.turnsTaken(i), ctx);
+            totalTurns += ps.get(i).getTurnsTaken();
+        }
+        assertEquals(totalTurns, kernel.totalTurns(), ctx);
+
+        if (game.isOver()) {
+            assertEquals(game.winner().orElseThrow(), ps.get(kernel.winner()), ctx);
+        }
+    }
+
+    @Test
+    void matchesObjectEngineForEveryRuleCombination() {
+        boolean[] flags = {false, true};
+        for (boolean singleDie : flags) {
+            for (boolean exactEnd : flags) {
+                for (boolean forfeitOnHit : flags) {
+                    for (long seed = 0; seed < 50; seed++) {
+                        assertSameGame(18, 3, 2, singleDie, exactEnd, forfeitOnHit, seed);
+                        assertSameGame(36, 6, 4, singleDie, exactEnd, forfeitOnHit, seed);
+                        assertSameGame(18, 3, 4, singleDie, exactEnd, forfeitOnHit, seed);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void playsDocumentedExampleLikeGame() {
+        // Basic game example: dice {12,12,7,8} - Blue wins
+        GameKernel kernel = new GameKernel(18, 3, new int[]{1, 10}, false, false);
+
+        int winner = kernel.play(new FixedSeqShaker(12, 12, 7, 8), 100);
+
+        assertEquals(1, winner);
+        assertEquals(4, kernel.totalTurns());
+        assertEquals(2, kernel.turnsTaken(1));
+    }
+
+    @Test
+    void resetStartsAFreshGame() {
+        GameKernel kernel = new GameKernel(18, 3, new int[]{1, 10}, true, true);
+        kernel.play(new SeededDiceShaker(3L, true), MAX_MOVES);
+
+        kernel.reset();
+
+        assertFalse(kernel.isOver());
+        assertEquals(-1, kernel.winner());
+        assertEquals(0, kernel.moves());
+        assertEquals(0, kernel.progress(0));
+        assertEquals(0, kernel.progress(1));
+        assertEquals(0, kernel.currentPlayer());
+    }
+}
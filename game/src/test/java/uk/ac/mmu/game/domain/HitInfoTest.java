@@ -50,4 +50,71 @@ class HitInfoTest {
         HitInfo info = HitInfo.detect(board, red, board.mainSize(), List.of(red, blue));
         assertFalse(info.hit(), "Hits should not happen on tail positions");
     }
+
+    @Test
+    void indexedDetectionFollowsMovesMadeByTheRules() {
+        Board board = new Board(18, 3);
+        Player red = new Player("Red", 1, "R");
+        Player blue = new Player("Blue", 10, "B");
+        Game game = new Game(board, List.of(red, blue), new BasicRules(), new FixedSeqShaker(1));
+        RingOccupancy occupancy = game.getRingOccupancy();
+
+        // Blue sits on its home square (absolute 10) -> Red landing on progress 9 hits it.
+        HitInfo info = HitInfo.detect(board, red, 9, occupancy);
+        assertTrue(info.hit());
+        assertEquals("Blue", info.victimName());
+        assertEquals(10, info.victimPosAbs());
+
+        new BasicRules().apply(board, blue, 3, occupancy); // absolute 13
+        assertFalse(HitInfo.detect(board, red, 9, occupancy).hit());
+        assertEquals(HitInfo.of("Blue", 13), HitInfo.detect(board, red, 12, occupancy));
+
+        new BasicRules().apply(board, blue, board.mainSize() - 3, occupancy); // into the tail: off the ring
+        assertFalse(HitInfo.detect(board, red, 12, occupancy).hit());
+    }
+
+    @Test
+    void indexedDetectionReportsFirstOccupantInTurnOrder() {
+        Board board = new Board(18, 3);
+        Player p1 = new Player("P1", 1, "R");
+        Player p2 = new Player("P2", 1, "B");
+        Player p3 = new Player("P3", 1, "G");
+        p2.setProgress(5);
+        p3.setProgress(5);
+        RingOccupancy occupancy = new Game(board, List.of(p1, p2, p3), new BasicRules(), new FixedSeqShaker(1))
+                .getRingOccupancy();
+
+        assertEquals("P2", HitInfo.detect(board, p1, 5, occupancy).victimName());
+
+        p2.setProgress(6);
+        occupancy.moved(p2);
+        assertEquals("P3", HitInfo.detect(board, p1, 5, occupancy).victimName());
+
+        p2.setProgress(5); // rejoins the square but stays ahead of P3 in turn order
+        occupancy.moved(p2);
+        assertEquals("P2", HitInfo.detect(board, p1, 5, occupancy).victimName());
+        assertEquals("P3", HitInfo.detect(board, p2, 5, occupancy).victimName());
+    }
+
+    @Test
+    void listDetectionScansThePlayersItIsGiven() {
+        Board board = new Board(18, 3);
+        Player red = new Player("Red", 1, "R");
+        Player blue = new Player("Blue", 10, "B");
+        new Game(board, List.of(red, blue), new BasicRules(), new FixedSeqShaker(1));
+
+        assertTrue(HitInfo.detect(board, red, 9, List.of(red, blue)).hit());
+        assertFalse(HitInfo.detect(board, red, 9, List.of(red)).hit(), "only the given players are checked");
+    }
+
+    @Test
+    void indexRejectsUnknownPlayersAndOtherBoards() {
+        Board board = new Board(18, 3);
+        Player red = new Player("Red", 1, "R");
+        RingOccupancy occupancy = new RingOccupancy(board, List.of(red));
+
+        assertThrows(IllegalArgumentException.class, () -> occupancy.moved(new Player("Blue", 10, "B")));
+        assertThrows(IllegalArgumentException.class,
+                () -> HitInfo.detect(new Board(18, 3), red, 3, occupancy));
+    }
 }
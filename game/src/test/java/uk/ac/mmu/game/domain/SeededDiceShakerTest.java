@@ -0,0 +1,59 @@
+package uk.ac.mmu.game.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeededDiceShakerTest {
+
+    private static int[] roll(DiceShaker dice, int count) {
+        int[] rolls = new int[count];
+        for (int i = 0; i < count; i++) {
+            rolls[i] = dice.shake();
+        }
+        return rolls;
+    }
+
+    @Test
+    void sameAlgorithmAndSeedGiveSameRolls() {
+        for (String algorithm : new String[]{"L64X128MixRandom", "SplittableRandom", "Xoshiro256PlusPlus"}) {
+            assertArrayEquals(
+                    roll(new SeededDiceShaker(algorithm, 99L, false), 500),
+                    roll(new SeededDiceShaker(algorithm, 99L, false), 500),
+                    algorithm);
+        }
+    }
+
+    @Test
+    void rollsStayInDiceRange() {
+        for (int r : roll(new SeededDiceShaker(1L, true), 1_000)) {
+            assertTrue(r >= 1 && r <= 6, "single die roll " + r);
+        }
+        for (int r : roll(new SeededDiceShaker(1L, false), 1_000)) {
+            assertTrue(r >= 2 && r <= 12, "double dice roll " + r);
+        }
+    }
+
+    @Test
+    void splitStreamsAreReproducibleAndIndependent() {
+        SeededDiceShaker parentA = new SeededDiceShaker(5L, true);
+        SeededDiceShaker parentB = new SeededDiceShaker(5L, true);
+
+        SeededDiceShaker childA = parentA.split();
+        SeededDiceShaker childB = parentB.split();
+        SeededDiceShaker sibling = parentA.split();
+
+        assertEquals(childA.seed(), childB.seed());
+        assertEquals("L64X128MixRandom", childA.algorithm());
+        assertArrayEquals(roll(childA, 200), roll(childB, 200));
+        assertArrayEquals(roll(new SeededDiceShaker(childA.seed(), true), 200),
+                roll(new SeededDiceShaker(childB.seed(), true), 200));
+        assertNotEquals(childA.seed(), sibling.seed());
+    }
+
+    @Test
+    void unknownAlgorithmIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SeededDiceShaker("NoSuchRandom", 1L, true));
+        assertThrows(IllegalArgumentException.class, () -> SeededDiceShaker.requireAlgorithm(" "));
+    }
+}
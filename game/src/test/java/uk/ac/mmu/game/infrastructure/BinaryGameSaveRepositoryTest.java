@@ -0,0 +1,299 @@
+package uk.ac.mmu.game.infrastructure;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.ac.mmu.game.domain.Game;
+import uk.ac.mmu.game.domain.SeededDiceShaker;
+import uk.ac.mmu.game.usecase.GameFactory;
+import uk.ac.mmu.game.usecase.GameSave;
+import uk.ac.mmu.game.usecase.SaveQuery;
+import uk.ac.mmu.game.usecase.SaveSummary;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryGameSaveRepositoryTest {
+
+    @TempDir
+    Path dir;
+
+    /** A roll-list save of a real game; no exact end, as double dice can never roll the 1 it may need. */
+    private static GameSave rollListSave(long seed) {
+        Game game = new GameFactory().createGame(36, 6, 4, false, false, true, seed);
+        while (!game.isOver()) game.playTurn();
+
+        SeededDiceShaker dice = new SeededDiceShaker(seed, false);
+        List<Integer> rolls = new ArrayList<>();
+        for (int i = 0; i < game.timeline().size(); i++) {
+            rolls.add(dice.shake());
+        }
+        return new GameSave(UUID.randomUUID(), 36, 6, 4, false, false, true, rolls);
+    }
+
+    private static void assertSameSave(GameSave expected, GameSave actual) {
+        assertEquals(expected.id, actual.id);
+        assertEquals(expected.mainSize, actual.mainSize);
+        assertEquals(expected.tailSize, actual.tailSize);
+        assertEquals(expected.players, actual.players);
+        assertEquals(expected.singleDie, actual.singleDie);
+        assertEquals(expected.exactEnd, actual.exactEnd);
+        assertEquals(expected.forfeitOnHit, actual.forfeitOnHit);
+        assertEquals(expected.rolls, actual.rolls);
+        assertEquals(expected.rngAlgorithm, actual.rngAlgorithm);
+        assertEquals(expected.seed, actual.seed);
+        assertEquals(expected.rollCount, actual.rollCount);
+    }
+
+    @Test
+    void roundTripsBothSaveKindsInFileOrder() throws Exception {
+        GameSave odd = new GameSave(UUID.randomUUID(), 18, 3, 2, false, false, true, List.of(12, 2, 7));
+        GameSave even = new GameSave(UUID.randomUUID(), 36, 6, 4, true, true, false, List.of(1, 6, 3, 5));
+        GameSave empty = new GameSave(UUID.randomUUID(), 18, 3, 2, true, false, false, List.of());
+        GameSave seeded = GameSave.seeded(UUID.randomUUID(), 36, 6, 4, true, true, true, "SplittableRandom", -5L);
+        seeded.rollCount = 41;
+
+        Path file = dir.resolve("games.bin");
+        BinaryGameSaveRepository repository = new BinaryGameSaveRepository(file);
+        for (GameSave save : List.of(odd, even, empty, seeded)) {
+            repository.save(save);
+        }
+        repository.close();
+
+        BinaryGameSaveRepository reopened = new BinaryGameSaveRepository(file);
+        assertEquals(List.of(odd.id, even.id, empty.id, seeded.id), reopened.listIds());
+        List<GameSave> all = reopened.listAll();
+        assertSameSave(odd, all.get(0));
+        assertSameSave(seeded, all.get(3));
+        for (GameSave save : List.of(odd, even, empty, seeded)) {
+            assertSameSave(save, reopened.load(save.id));
+        }
+        assertThrows(IllegalArgumentException.class, () -> reopened.load(UUID.randomUUID()));
+        try (Stream<GameSave> page = reopened.page(1, 2)) {
+            assertEquals(List.of(even.id, empty.id), page.map(s -> s.id).toList());
+        }
+    }
+
+    @Test
+    void convertedFileIsAFifthOfTheJsonAndConvertingTwiceAddsNothing() throws Exception {
+        Path json = dir.resolve("games.json");
+        Path bin = dir.resolve("games.bin");
+        JsonLinesGameSaveRepository jsonRepository = new JsonLinesGameSaveRepository(json);
+        List<GameSave> saves = new ArrayList<>();
+        for (long seed = 0; seed < 200; seed++) {
+            GameSave save = rollListSave(seed);
+            jsonRepository.save(save);
+            saves.add(save);
+        }
+        jsonRepository.flush();
+
+        SaveFormatConverter converter = new SaveFormatConverter(json, bin);
+        SaveFormatConverter.Result first = converter.jsonToBinary();
+        SaveFormatConverter.Result second = converter.jsonToBinary();
+
+        assertEquals(200, first.converted());
+        assertEquals(0, second.converted());
+        assertEquals(200, second.skipped());
+        assertTrue(first.jsonBytes() >= 4.5 * first.binaryBytes(),
+                first.jsonBytes() + " vs " + first.binaryBytes());
+
+        BinaryGameSaveRepository binary = new BinaryGameSaveRepository(bin);
+        assertEquals(jsonRepository.listIds(), binary.listIds());
+        assertSameSave(saves.get(123), binary.load(saves.get(123).id));
+    }
+
+    @Test
+    void recordCutShortByACrashIsIgnored() throws Exception {
+        Path file = dir.resolve("games.bin");
+        BinaryGameSaveRepository repository = new BinaryGameSaveRepository(file);
+        UUID kept = repository.save(rollListSave(1));
+        repository.flush();
+        long length = Files.size(file);
+        repository.save(rollListSave(2));
+        repository.close();
+
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, (int) length + 10), StandardOpenOption.TRUNCATE_EXISTING);
+
+        BinaryGameSaveRepository reopened = new BinaryGameSaveRepository(file);
+        assertEquals(List.of(kept), reopened.listIds());
+        assertEquals(kept, reopened.load(kept).id);
+    }
+
+    @Test
+    void rejectsRollsThatDoNotFitANibbleAndForeignFiles() throws Exception {
+        BinaryGameSaveRepository repository = new BinaryGameSaveRepository(dir.resolve("games.bin"));
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.save(new GameSave(null, 18, 3, 2, false, false, false, List.of(3, 16))));
+
+        Path json = dir.resolve("games.json");
+        Files.writeString(json, "{\"id\":null}\n");
+        assertThrows(IllegalStateException.class, () -> new BinaryGameSaveRepository(json));
+    }
+
+    @Test
+    void streamAndPageAgreeOnTheLatestSaveOfAnId() throws Exception {
+        try (BinaryGameSaveRepository repository = new BinaryGameSaveRepository(dir.resolve("games.bin"))) {
+            for (long seed : new long[] {1, 2, 11, 3}) {
+                UUID id = new UUID(0, seed % 10);
+                repository.save(GameSave.seeded(id, 18, 3, 2, true, false, false, "SplittableRandom", seed));
+            }
+
+            List<Long> latest = List.of(2L, 11L, 3L);
+            try (Stream<GameSave> saves = repository.stream()) {
+                assertEquals(latest, saves.map(s -> s.seed).toList());
+            }
+            try (Stream<GameSave> page = repository.page(0, 10)) {
+                assertEquals(latest, page.map(s -> s.seed).toList());
+            }
+            assertEquals(latest, repository.listAll().stream().map(s -> s.seed).toList());
+            assertEquals(List.of(new UUID(0, 2), new UUID(0, 1), new UUID(0, 3)), repository.listIds());
+            assertEquals(11L, repository.load(new UUID(0, 1)).seed);
+        }
+    }
+
+    @Test
+    void streamDecodesOneRecordAtATimeAndStopsAtATornTail() throws Exception {
+        Path file = dir.resolve("games.bin");
+        BinaryGameSaveRepository repository = new BinaryGameSaveRepository(file);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ids.add(repository.save(GameSave.seeded(null, 18, 3, 2, true, false, false, "SplittableRandom", i)));
+        }
+        repository.flush();
+        Files.write(file, new byte[]{40, 1, 2}, StandardOpenOption.APPEND); // a record cut short
+
+        try (Stream<GameSave> saves = repository.stream()) {
+            assertEquals(ids.subList(90, 100), saves.skip(90).map(s -> s.id).toList());
+        }
+        try (Stream<GameSave> saves = repository.stream()) {
+            assertEquals(7L, saves.skip(7).findFirst().orElseThrow().seed);
+        }
+
+        // The next writer fences the torn bytes off with a void record instead of shrinking the file.
+        long tornSize = Files.size(file);
+        try (BinaryGameSaveRepository next = new BinaryGameSaveRepository(file)) {
+            ids.add(next.save(GameSave.seeded(null, 18, 3, 2, true, false, false, "SplittableRandom", 100)));
+            next.flush();
+            assertTrue(Files.size(file) > tornSize);
+            assertEquals(ids, next.listIds());
+            assertEquals(100L, next.load(ids.get(100)).seed);
+        }
+        try (BinaryGameSaveRepository reopened = new BinaryGameSaveRepository(file);
+             Stream<GameSave> saves = reopened.stream()) {
+            assertEquals(ids, saves.map(s -> s.id).toList());
+        }
+    }
+
+    @Test
+    void queryFiltersOnIndexedSummariesAndSurvivesAnIndexRebuild() throws Exception {
+        Path file = dir.resolve("games.bin");
+        List<GameSave> saves = new ArrayList<>();
+        try (BinaryGameSaveRepository repository = new BinaryGameSaveRepository(file)) {
+            for (int i = 0; i < 40; i++) {
+                GameSave save = i % 4 == 0
+                        ? GameSave.seeded(null, 18, 3, 2, true, false, false, "SplittableRandom", i)
+                        : new GameSave(null, 36, 6, 4, false, i % 2 == 0, true, List.of(3, 5, 2, 6, 1, 4).subList(0, i % 7));
+                repository.save(save);
+                saves.add(save);
+            }
+            SaveQuery query = SaveQuery.parse("players=4,minRolls=3");
+            try (Stream<SaveSummary> found = repository.query(query)) {
+                assertEquals(saves.stream().map(SaveSummary::of).filter(query::matches).toList(), found.toList());
+            }
+        }
+
+        // Rebuilt from the records' headers and roll counts.
+        Files.delete(file.resolveSibling("games.bin.idx"));
+        SaveQuery seeded = SaveQuery.parse("seeded=true,board=small");
+        try (BinaryGameSaveRepository reopened = new BinaryGameSaveRepository(file);
+             Stream<SaveSummary> found = reopened.query(seeded)) {
+            assertEquals(saves.stream().filter(GameSave::seeded).map(s -> s.id).toList(),
+                    found.map(SaveSummary::id).toList());
+        }
+    }
+
+    @Test
+    void seedSavesAreFilteredOnTheRollCountTheGameTook() throws Exception {
+        Path file = dir.resolve("games.bin");
+        GameSave shortGame = GameSave.seeded(null, 18, 3, 2, true, false, false, "SplittableRandom", 1L);
+        shortGame.rollCount = 12;
+        GameSave longGame = GameSave.seeded(null, 18, 3, 2, true, false, false, "SplittableRandom", 2L);
+        longGame.rollCount = 90;
+        GameSave legacy = GameSave.seeded(null, 18, 3, 2, true, false, false, "SplittableRandom", 3L);
+        try (BinaryGameSaveRepository repository = new BinaryGameSaveRepository(file)) {
+            for (GameSave save : List.of(shortGame, longGame, legacy)) {
+                repository.save(save);
+            }
+            try (Stream<SaveSummary> found = repository.query(SaveQuery.parse("seeded=true,minRolls=50"))) {
+                assertEquals(List.of(longGame.id), found.map(SaveSummary::id).toList());
+            }
+        }
+
+        Files.delete(file.resolveSibling("games.bin.idx"));
+        try (BinaryGameSaveRepository reopened = new BinaryGameSaveRepository(file);
+             Stream<SaveSummary> found = reopened.query(SaveQuery.parse("seeded=true,minRolls=10"))) {
+            assertEquals(List.of(shortGame.id, longGame.id), found.map(SaveSummary::id).toList());
+            assertSameSave(longGame, reopened.load(longGame.id));
+            assertNull(reopened.load(legacy.id).rollCount);
+        }
+    }
+
+    @Test
+    void anyBoardSizeAndPlayerCountRoundTripsAndIsQueried() throws Exception {
+        Path file = dir.resolve("games.bin");
+        GameSave huge = new GameSave(UUID.randomUUID(), 70_000, 300, 64, true, false, false, List.of(2, 12));
+        GameSave crowded = GameSave.seeded(UUID.randomUUID(), 200, 6, 64, false, true, false, "SplittableRandom", 9L);
+        try (BinaryGameSaveRepository repository = new BinaryGameSaveRepository(file)) {
+            repository.save(huge);
+            repository.save(crowded);
+            assertSameSave(huge, repository.load(huge.id));
+            assertSameSave(crowded, repository.load(crowded.id));
+
+            // 64 players is in the index summary; the 70000-square board is read back from the record.
+            try (Stream<SaveSummary> found = repository.query(SaveQuery.parse("players=64"))) {
+                assertEquals(List.of(huge.id, crowded.id), found.map(SaveSummary::id).toList());
+            }
+            try (Stream<SaveSummary> found = repository.query(SaveQuery.parse("players=64,seeded=true"))) {
+                assertEquals(List.of(crowded.id), found.map(SaveSummary::id).toList());
+            }
+        }
+    }
+
+    @Test
+    void recordsWrittenWithFixedWidthSizesStillLoad() throws Exception {
+        UUID id = new UUID(7, 7);
+        ByteBuffer record = ByteBuffer.allocate(1 + 1 + 16 + 5 + 1 + 2)
+                .put((byte) 25)                     // body length
+                .put((byte) (16 | 2))               // rolls present, exactEnd
+                .putLong(7).putLong(7)
+                .putShort((short) 36).putShort((short) 6).put((byte) 4)
+                .put((byte) 3).put((byte) 0x5C).put((byte) 0x20);
+        Path file = dir.resolve("games.bin");
+        Files.write(file, new byte[] {'G', 'S', 'B', '1'});
+        Files.write(file, record.array(), StandardOpenOption.APPEND);
+
+        try (BinaryGameSaveRepository repository = new BinaryGameSaveRepository(file)) {
+            GameSave old = repository.load(id);
+            assertEquals(36, old.mainSize);
+            assertEquals(6, old.tailSize);
+            assertEquals(4, old.players);
+            assertTrue(old.exactEnd);
+            assertEquals(List.of(5, 12, 2), old.rolls);
+
+            GameSave next = GameSave.seeded(null, 36, 6, 4, true, true, false, "SplittableRandom", 1L);
+            repository.save(next);
+            try (Stream<SaveSummary> found = repository.query(SaveQuery.parse("board=large,exactEnd=true"))) {
+                assertEquals(List.of(id, next.id), found.map(SaveSummary::id).toList());
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package uk.ac.mmu.game.infrastructure;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.ac.mmu.game.usecase.GameFactory;
+import uk.ac.mmu.game.usecase.GameSave;
+import uk.ac.mmu.game.usecase.ReplayGameUseCase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferedConsoleOutputAdapterTest {
+
+    @TempDir
+    Path dir;
+
+    private static final UUID GAME = new UUID(0, 1);
+
+    /** The appendix game: double dice, small board, Blue lands on the end with its second roll. */
+    private static final String FULL = """
+            [Mediator] Replaying game 00000000-0000-0000-0000-000000000001
+            [REPLAY 00000000-0000-0000-0000-000000000001] Board positions=18, Tail positions=3, Players=2, \
+            singleDie=false, exactEnd=false, forfeitOnHit=false
+            Game state Ready -> InPlay
+            Red turn 1 rolls 12
+            Red moves from Home (Position 1) to Position 13
+            Blue turn 1 rolls 12
+            Blue moves from Home (Position 10) to Position 4
+            Red turn 2 rolls 7
+            Red moves from Position 13 to Tail Position R2
+            Blue turn 2 rolls 8
+            Blue moves from Position 4 to B3 (End)
+            Game state InPlay -> GameOver
+
+            Blue wins in 2 turns!
+            Total turns 4
+            Game over
+            Game over
+            [Mediator] Finished replay 00000000-0000-0000-0000-000000000001
+            """.replace("\n", System.lineSeparator());
+
+    private JsonLinesGameSaveRepository savedGame() throws Exception {
+        JsonLinesGameSaveRepository repository = new JsonLinesGameSaveRepository(dir.resolve("games.json"));
+        repository.save(new GameSave(GAME, 18, 3, 2, false, false, false, List.of(12, 12, 7, 8)));
+        return repository;
+    }
+
+    /**
+     * Replays {@code id} through the buffered adapter and a mediator sharing it, returning the text printed.
+     */
+    private static String bufferedOutput(JsonLinesGameSaveRepository repository, UUID id, OutputMode mode)
+            throws Exception {
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        try (AsyncConsoleWriter writer = new AsyncConsoleWriter(new PrintStream(captured, false, StandardCharsets.UTF_8))) {
+            BufferedConsoleOutputAdapter output = new BufferedConsoleOutputAdapter(writer);
+            output.setMode(mode);
+            new ReplayGameUseCase(repository, new GameFactory(), output, new ConsoleGameEventMediator(output))
+                    .replay(id);
+            // replay() flushes before returning: everything is out without closing the writer
+            return captured.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void fullOutputPrintsEveryTurnAndStateChange() throws Exception {
+        try (JsonLinesGameSaveRepository repository = savedGame()) {
+            assertEquals(FULL, bufferedOutput(repository, GAME, OutputMode.FULL));
+        }
+    }
+
+    @Test
+    void summaryOnlyKeepsTheSummaryLinesAndQuietPrintsNothing() throws Exception {
+        try (JsonLinesGameSaveRepository repository = savedGame()) {
+            String expected = """
+                    [Mediator] Replaying game 00000000-0000-0000-0000-000000000001
+                    [REPLAY 00000000-0000-0000-0000-000000000001] Board positions=18, Tail positions=3, Players=2, \
+                    singleDie=false, exactEnd=false, forfeitOnHit=false
+
+                    Blue wins in 2 turns!
+                    Total turns 4
+                    Game over
+                    Game over
+                    [Mediator] Finished replay 00000000-0000-0000-0000-000000000001
+                    """.replace("\n", System.lineSeparator());
+            assertEquals(expected, bufferedOutput(repository, GAME, OutputMode.SUMMARY));
+            assertEquals("", bufferedOutput(repository, GAME, OutputMode.QUIET));
+        }
+    }
+
+    @Test
+    void reportLinesArePrintedInEveryMode() {
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        try (AsyncConsoleWriter writer = new AsyncConsoleWriter(new PrintStream(captured, false, StandardCharsets.UTF_8))) {
+            BufferedConsoleOutputAdapter output = new BufferedConsoleOutputAdapter(writer);
+            output.setMode(OutputMode.QUIET);
+            output.printGameOver();
+            output.println("Saved games (all entries):");
+            output.printf("%d) %s%n", 1, "x");
+            output.flush();
+        }
+        assertEquals("Saved games (all entries):" + System.lineSeparator() + "1) x" + System.lineSeparator(),
+                captured.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void batchesReachTheStreamInOrderAndFlushWaitsForThem() {
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        StringBuilder expected = new StringBuilder();
+        try (AsyncConsoleWriter writer = new AsyncConsoleWriter(new PrintStream(captured, false, StandardCharsets.UTF_8))) {
+            for (int i = 0; expected.length() < AsyncConsoleWriter.BATCH_CHARS * 20; i++) {
+                String line = "line " + i + " \u00e9" + System.lineSeparator(); // non-ASCII: encoded with the stream's charset
+                writer.write(line);
+                expected.append(line);
+            }
+            writer.flush();
+            assertEquals(expected.toString(), captured.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void textWrittenAfterCloseGoesStraightToTheStream() {
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        AsyncConsoleWriter writer = new AsyncConsoleWriter(new PrintStream(captured, false, StandardCharsets.UTF_8));
+        writer.write("queued ");
+        writer.close();
+        writer.write("direct");
+        writer.flush();
+
+        assertEquals("queued direct", captured.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,585 @@
+package uk.ac.mmu.game.infrastructure;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.ac.mmu.game.domain.Game;
+import uk.ac.mmu.game.domain.RollSequence;
+import uk.ac.mmu.game.domain.SeededDiceShaker;
+import uk.ac.mmu.game.usecase.GameEventMediator;
+import uk.ac.mmu.game.usecase.GameFactory;
+import uk.ac.mmu.game.usecase.GameSave;
+import uk.ac.mmu.game.usecase.ReplayGameUseCase;
+import uk.ac.mmu.game.usecase.SaveQuery;
+import uk.ac.mmu.game.usecase.SaveSummary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonLinesGameSaveRepositoryTest {
+
+    private static final GameEventMediator SILENT_MEDIATOR = message -> { };
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Replays {@code id} from {@code repository} through the real console adapter and returns the bytes printed.
+     */
+    private static byte[] replayOutput(JsonLinesGameSaveRepository repository, UUID id) throws Exception {
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        try (AsyncConsoleWriter writer = new AsyncConsoleWriter(new PrintStream(captured, false, StandardCharsets.UTF_8))) {
+            new ReplayGameUseCase(repository, new GameFactory(), new BufferedConsoleOutputAdapter(writer),
+                    SILENT_MEDIATOR).replay(id);
+        }
+        return captured.toByteArray();
+    }
+
+    @Test
+    void seedSaveReplaysByteIdenticalToRollListSave() throws Exception {
+        long seed = 20240611L;
+        Game played = new GameFactory().createGame(36, 6, 4, true, true, true, seed);
+        while (!played.isOver()) {
+            played.playTurn();
+        }
+
+        // Every move consumes exactly one roll, so the roll list is the first N values of the stream.
+        SeededDiceShaker dice = new SeededDiceShaker(seed, true);
+        List<Integer> rolls = new ArrayList<>();
+        for (int i = 0; i < played.timeline().size(); i++) {
+            rolls.add(dice.shake());
+        }
+
+        UUID id = UUID.randomUUID();
+        JsonLinesGameSaveRepository rollRepo = new JsonLinesGameSaveRepository(dir.resolve("rolls/games.json"));
+        JsonLinesGameSaveRepository seedRepo = new JsonLinesGameSaveRepository(dir.resolve("seed/games.json"));
+        rollRepo.save(new GameSave(id, 36, 6, 4, true, true, true, rolls));
+        seedRepo.save(GameSave.seeded(id, 36, 6, 4, true, true, true, SeededDiceShaker.DEFAULT_ALGORITHM, seed));
+
+        byte[] fromRolls = replayOutput(rollRepo, id);
+        byte[] fromSeed = replayOutput(seedRepo, id);
+
+        assertTrue(fromRolls.length > 0);
+        assertArrayEquals(fromRolls, fromSeed);
+    }
+
+    @Test
+    void seedSavesOmitRollsAndOldRollListLinesStillLoad() throws Exception {
+        Path file = dir.resolve("games.json");
+        UUID legacyId = UUID.randomUUID();
+        Files.writeString(file, "{\"id\":\"" + legacyId + "\",\"mainSize\":18,\"tailSize\":3,\"players\":2,"
+                + "\"singleDie\":false,\"exactEnd\":false,\"forfeitOnHit\":false,\"rolls\":[12,12,7,8]}"
+                + System.lineSeparator());
+
+        JsonLinesGameSaveRepository repository = new JsonLinesGameSaveRepository(file);
+        UUID seededId = repository.save(GameSave.seeded(null, 18, 3, 2, true, false, false, "SplittableRandom", 7L));
+
+        repository.flush();
+        String seedLine = Files.readAllLines(file).get(1);
+        assertFalse(seedLine.contains("rolls"), seedLine);
+        assertTrue(seedLine.contains("\"rngAlgorithm\":\"SplittableRandom\""), seedLine);
+        assertTrue(seedLine.contains("\"seed\":7"), seedLine);
+
+        GameSave legacy = repository.load(legacyId);
+        assertFalse(legacy.seeded());
+        assertEquals(List.of(12, 12, 7, 8), legacy.rolls);
+
+        GameSave seeded = repository.load(seededId);
+        assertTrue(seeded.seeded());
+        assertNull(seeded.rolls);
+        assertEquals(7L, seeded.seed);
+        assertEquals(List.of(legacyId, seededId), repository.listIds());
+    }
+
+    private static String rollLine(UUID id, String rolls) {
+        return "{\"id\":\"" + id + "\",\"mainSize\":18,\"tailSize\":3,\"players\":2,"
+                + "\"singleDie\":false,\"exactEnd\":false,\"forfeitOnHit\":false,\"rolls\":" + rolls + "}";
+    }
+
+    @Test
+    void rollListLinesKeepTheirShapeThroughThePrimitiveRollCodec() throws Exception {
+        Path file = dir.resolve("games.json");
+        Files.writeString(file, rollLine(new UUID(5, 0), "[12,12,7,8]") + "\n"
+                + rollLine(new UUID(5, 1), "[12,\"x\"]") + "\n"
+                + rollLine(new UUID(5, 2), "[12,300]") + "\n");
+
+        JsonLinesGameSaveRepository repository = new JsonLinesGameSaveRepository(file);
+        GameSave loaded = repository.load(new UUID(5, 0));
+        assertInstanceOf(RollSequence.class, loaded.rolls);
+        assertEquals(List.of(12, 12, 7, 8), loaded.rolls);
+        assertEquals(List.of(new UUID(5, 0)), repository.listIds()); // a non-number or out-of-range roll is malformed
+
+        loaded.id = new UUID(5, 3);
+        repository.save(loaded);
+        repository.flush();
+        assertEquals(rollLine(new UUID(5, 3), "[12,12,7,8]"), Files.readAllLines(file).get(3));
+    }
+
+    @Test
+    void ioEventsReportBytesAndLinesScanned() throws Exception {
+        Path file = dir.resolve("games.json");
+        JsonLinesGameSaveRepository repository = new JsonLinesGameSaveRepository(file);
+        Path jfr = dir.resolve("io.jfr");
+
+        UUID last;
+        try (Recording recording = new Recording()) {
+            recording.enable("uk.ac.mmu.game.SaveRepositoryIo");
+            recording.start();
+            repository.save(GameSave.seeded(null, 18, 3, 2, true, false, false, "SplittableRandom", 1L));
+            repository.save(GameSave.seeded(null, 18, 3, 2, true, false, false, "SplittableRandom", 2L));
+            last = repository.save(GameSave.seeded(null, 18, 3, 2, true, false, false, "SplittableRandom", 3L));
+            repository.load(last);
+            recording.stop();
+            recording.dump(jfr);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(jfr);
+        List<RecordedEvent> saves = events.stream().filter(e -> "save".equals(e.getString("operation"))).toList();
+        RecordedEvent load = events.stream().filter(e -> "load".equals(e.getString("operation"))).findFirst().orElseThrow();
+
+        assertEquals(3, saves.size());
+        assertEquals(Files.size(file), saves.stream().mapToLong(e -> e.getLong("bytes")).sum());
+        // Loads go through the index: one positioned read of exactly the last line.
+        assertEquals(Files.readAllLines(file).get(2).length() + System.lineSeparator().length(), load.getLong("bytes"));
+        assertEquals(0, load.getLong("linesScanned"));
+        assertEquals(1, load.getInt("entries"));
+    }
+
+    private static Path indexOf(Path file) {
+        return file.resolveSibling(file.getFileName() + ".idx");
+    }
+
+    private static List<UUID> saveMany(JsonLinesGameSaveRepository repository, int count) throws Exception {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(repository.save(GameSave.seeded(new UUID(0, i), 18, 3, 2, true, false, false, "SplittableRandom", i)));
+        }
+        repository.flush();
+        return ids;
+    }
+
+    @Test
+    void indexSurvivesGrowthAndReopening() throws Exception {
+        Path file = dir.resolve("games.json");
+        List<UUID> ids = saveMany(new JsonLinesGameSaveRepository(file), 3000); // several table resizes
+
+        assertTrue(Files.exists(indexOf(file)));
+        JsonLinesGameSaveRepository reopened = new JsonLinesGameSaveRepository(file);
+        for (int i = 0; i < ids.size(); i += 97) {
+            assertEquals((long) i, reopened.load(ids.get(i)).seed);
+        }
+        assertThrows(IllegalArgumentException.class, () -> reopened.load(UUID.randomUUID()));
+    }
+
+    @Test
+    void missingIndexIsRebuiltFromTheSaveFile() throws Exception {
+        Path file = dir.resolve("games.json");
+        List<UUID> ids = saveMany(new JsonLinesGameSaveRepository(file), 50);
+        Files.delete(indexOf(file));
+
+        JsonLinesGameSaveRepository repository = new JsonLinesGameSaveRepository(file);
+
+        assertTrue(Files.exists(indexOf(file)));
+        assertEquals(49L, repository.load(ids.get(49)).seed);
+        assertEquals(0L, repository.load(ids.get(0)).seed);
+    }
+
+    @Test
+    void linesAppendedBehindTheIndexAreFoundAndDuplicatesResolveToTheLatest() throws Exception {
+        Path file = dir.resolve("games.json");
+        JsonLinesGameSaveRepository repository = new JsonLinesGameSaveRepository(file);
+        UUID id = saveMany(repository, 3).get(1);
+
+        // Another writer appends without updating the index: a duplicate of id, a bad line and a new save.
+        UUID appended = UUID.randomUUID();
+        Files.writeString(file, "{\"id\":\"" + id + "\",\"mainSize\":36,\"tailSize\":6,\"players\":4,"
+                + "\"singleDie\":true,\"exactEnd\":false,\"forfeitOnHit\":false,\"rngAlgorithm\":\"SplittableRandom\",\"seed\":99}\n"
+                + "not json\n"
+                + "{\"id\":\"" + appended + "\",\"mainSize\":18,\"tailSize\":3,\"players\":2,"
+                + "\"singleDie\":true,\"exactEnd\":false,\"forfeitOnHit\":false,\"rngAlgorithm\":\"SplittableRandom\",\"seed\":42}\n",
+                StandardOpenOption.APPEND);
+
+        assertEquals(42L, repository.load(appended).seed);
+        assertEquals(99L, repository.load(id).seed);
+        assertEquals(42L, new JsonLinesGameSaveRepository(file).load(appended).seed);
+    }
+
+    @Test
+    void replacedSaveFileInvalidatesTheIndex() throws Exception {
+        Path file = dir.resolve("games.json");
+        List<UUID> ids = saveMany(new JsonLinesGameSaveRepository(file), 20);
+
+        // Same ids, different line lengths and order: every indexed offset is now wrong.
+        List<String> lines = new ArrayList<>(Files.readAllLines(file));
+        java.util.Collections.reverse(lines);
+        Files.writeString(file, "\n\n" + String.join("\n", lines) + "\n");
+
+        JsonLinesGameSaveRepository repository = new JsonLinesGameSaveRepository(file);
+        assertEquals(3L, repository.load(ids.get(3)).seed);
+        assertEquals(19L, repository.load(ids.get(19)).seed);
+    }
+
+    @Test
+    void longerReplacementWithOtherIdsIsReindexedFromTheStart() throws Exception {
+        Path file = dir.resolve("games.json");
+        List<UUID> old = saveMany(new JsonLinesGameSaveRepository(file), 3);
+
+        // A different log, longer than the indexed one: catching up from the old covered length
+        // would skip its first records.
+        List<UUID> ids = new ArrayList<>();
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            ids.add(UUID.randomUUID());
+            lines.append(seedLine(ids.get(i), 100 + i));
+        }
+        Files.writeString(file, lines);
+
+        JsonLinesGameSaveRepository repository = new JsonLinesGameSaveRepository(file);
+        assertEquals(ids, repository.page(0, 100).map(s -> s.id).toList());
+        assertEquals(100L, repository.load(ids.get(0)).seed);
+        assertThrows(IllegalArgumentException.class, () -> repository.load(old.get(0)));
+    }
+
+    @Test
+    void corruptIndexFileIsRebuilt() throws Exception {
+        Path file = dir.resolve("games.json");
+        List<UUID> ids = saveMany(new JsonLinesGameSaveRepository(file), 10);
+        Files.write(indexOf(file), new byte[100]);
+
+        assertEquals(7L, new JsonLinesGameSaveRepository(file).load(ids.get(7)).seed);
+    }
+
+    @Test
+    void streamReadsLazilyInFileOrderAndSkipsMalformedLines() throws Exception {
+        Path file = dir.resolve("games.json");
+        JsonLinesGameSaveRepository repository = new JsonLinesGameSaveRepository(file);
+        List<UUID> ids = saveMany(repository, 100);
+        Files.writeString(file, "not json\n\n", StandardOpenOption.APPEND);
+        repository.save(GameSave.seeded(new UUID(0, 100), 18, 3, 2, true, false, false, "SplittableRandom", 100));
+
+        try (Stream<GameSave> saves = repository.stream()) {
+            assertEquals(ids.subList(40, 50), saves.skip(40).limit(10).map(s -> s.id).toList());
+        }
+        try (Stream<GameSave> saves = repository.stream()) {
+            assertEquals(repository.listIds(), saves.map(s -> s.id).toList());
+        }
+        assertEquals(101, repository.listIds().size());
+    }
+
+    private static JsonLinesGameSaveRepository segmented(Path file, SaveLogPolicy policy) {
+        return new JsonLinesGameSaveRepository(file, WriteBehindAppender.Durability.NONE, Duration.ofSeconds(1), policy);
+    }
+
+    private static String seedLine(UUID id, long seed) {
+        return "{\"id\":\"" + id + "\",\"mainSize\":18,\"tailSize\":3,\"players\":2,\"singleDie\":true,"
+                + "\"exactEnd\":false,\"forfeitOnHit\":false,\"rngAlgorithm\":\"SplittableRandom\",\"seed\":" + seed + "}\n";
+    }
+
+    @Test
+    void fullActiveFileIsSealedIntoSegmentsThatStillLoadAndListInOrder() throws Exception {
+        Path file = dir.resolve("games.json");
+        // About 22 lines per segment: two sealed segments, too few for a background merge.
+        try (JsonLinesGameSaveRepository repository = segmented(file, new SaveLogPolicy(4_000, null, 0))) {
+            List<UUID> ids = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                ids.add(repository.save(GameSave.seeded(new UUID(1, i), 18, 3, 2, true, false, false, "SplittableRandom", i)));
+                repository.flush(); // the active file is checked for sealing as written saves are indexed
+            }
+            assertTrue(Files.exists(dir.resolve("games.000001.json")));
+            assertTrue(Files.exists(dir.resolve("games.000001.json.idx")));
+            assertTrue(Files.size(file) < 4_000);
+
+            assertEquals(ids, repository.listIds());
+            try (Stream<GameSave> saves = repository.stream()) {
+                assertEquals(ids, saves.map(s -> s.id).toList());
+            }
+            assertEquals(0L, repository.load(ids.get(0)).seed);
+            assertEquals(59L, repository.load(ids.get(59)).seed);
+
+            // Pages seek through the indexes and span segment boundaries.
+            for (int first = 0; first < 65; first += 7) {
+                try (Stream<GameSave> page = repository.page(first, 7)) {
+                    assertEquals(ids.subList(Math.min(first, 60), Math.min(first + 7, 60)),
+                            page.map(s -> s.id).toList());
+                }
+            }
+        }
+
+        // A fresh repository finds the sealed segments on disk.
+        try (JsonLinesGameSaveRepository reopened = segmented(file, new SaveLogPolicy(4_000, null, 0))) {
+            assertEquals(30L, reopened.load(new UUID(1, 30)).seed);
+        }
+    }
+
+    @Test
+    void streamPageQueryAndListAllAgreeOnTheLatestSaveOfAnId() throws Exception {
+        Path file = dir.resolve("games.json");
+        Files.writeString(dir.resolve("games.000001.json"),
+                seedLine(new UUID(0, 1), 1) + seedLine(new UUID(0, 2), 2) + seedLine(new UUID(0, 1), 11));
+        Files.writeString(dir.resolve("games.000002.json"), seedLine(new UUID(0, 3), 3) + seedLine(new UUID(0, 2), 22));
+        Files.writeString(file, seedLine(new UUID(0, 4), 4) + seedLine(new UUID(0, 3), 33));
+
+        try (JsonLinesGameSaveRepository repository = segmented(file, SaveLogPolicy.DEFAULT)) {
+            List<Long> latest = List.of(11L, 22L, 4L, 33L); // each id where its latest line stands
+            try (Stream<GameSave> saves = repository.stream()) {
+                assertEquals(latest, saves.map(s -> s.seed).toList());
+            }
+            for (int first = 0; first < 5; first++) {
+                try (Stream<GameSave> page = repository.page(first, 2)) {
+                    assertEquals(latest.subList(Math.min(first, 4), Math.min(first + 2, 4)),
+                            page.map(s -> s.seed).toList());
+                }
+            }
+            assertEquals(latest, repository.listAll().stream().map(s -> s.seed).toList());
+            assertEquals(List.of(new UUID(0, 1), new UUID(0, 2), new UUID(0, 4), new UUID(0, 3)), repository.listIds());
+            try (Stream<SaveSummary> summaries = repository.query(SaveQuery.parse("players=2"))) {
+                assertEquals(List.of(new UUID(0, 1), new UUID(0, 2), new UUID(0, 4), new UUID(0, 3)),
+                        summaries.map(SaveSummary::id).toList());
+            }
+            assertEquals(11L, repository.load(new UUID(0, 1)).seed);
+            assertEquals(22L, repository.load(new UUID(0, 2)).seed);
+            assertEquals(33L, repository.load(new UUID(0, 3)).seed);
+        }
+    }
+
+    @Test
+    void compactionMergesSegmentsDroppingDuplicatesAndCorruptLines() throws Exception {
+        Path file = dir.resolve("games.json");
+        Files.writeString(dir.resolve("games.000001.json"),
+                seedLine(new UUID(0, 1), 1) + "not json\n" + seedLine(new UUID(0, 2), 2));
+        Files.writeString(dir.resolve("games.000002.json"),
+                seedLine(new UUID(0, 1), 99) + seedLine(new UUID(0, 3), 3) + "{\"id\":\"torn");
+
+        try (JsonLinesGameSaveRepository repository = segmented(file, SaveLogPolicy.DEFAULT)) {
+            assertEquals(99L, repository.load(new UUID(0, 1)).seed); // the latest copy wins before and after
+            saveMany(repository, 1);
+
+            SaveLogCompactor.Result result = repository.compact();
+
+            assertEquals(2, result.segmentsBefore());
+            assertEquals(1, result.segmentsAfter());
+            assertEquals(3, result.kept());
+            assertEquals(1, result.duplicates());
+            assertEquals(2, result.malformed());
+            assertFalse(Files.exists(dir.resolve("games.000001.json")));
+            assertEquals(List.of(seedLine(new UUID(0, 2), 2), seedLine(new UUID(0, 1), 99), seedLine(new UUID(0, 3), 3)),
+                    Files.readAllLines(dir.resolve("games.000002.json")).stream().map(line -> line + "\n").toList());
+
+            assertEquals(99L, repository.load(new UUID(0, 1)).seed);
+            assertEquals(3L, repository.load(new UUID(0, 3)).seed);
+            assertEquals(0L, repository.load(new UUID(0, 0)).seed);
+            assertEquals(List.of(new UUID(0, 2), new UUID(0, 1), new UUID(0, 3), new UUID(0, 0)), repository.listIds());
+            assertEquals(1, repository.compact().segmentsAfter()); // nothing left to do
+        }
+    }
+
+    @Test
+    void retentionKeepsOnlyTheNewestSealedSaves() throws Exception {
+        Path file = dir.resolve("games.json");
+        Files.writeString(dir.resolve("games.000001.json"), seedLine(new UUID(0, 1), 1) + seedLine(new UUID(0, 2), 2));
+        Files.writeString(dir.resolve("games.000002.json"), seedLine(new UUID(0, 3), 3));
+        Files.writeString(dir.resolve("games.000003.json"), seedLine(new UUID(0, 4), 4));
+        Files.setLastModifiedTime(dir.resolve("games.000001.json"),
+                java.nio.file.attribute.FileTime.from(java.time.Instant.now().minus(Duration.ofDays(10))));
+
+        SaveLogCompactor.Result result = new SaveLogCompactor(file, new SaveLogPolicy(1 << 20, Duration.ofDays(7), 1))
+                .compact();
+
+        assertEquals(3, result.expired()); // two too old, then one over the count
+        assertEquals(List.of(seedLine(new UUID(0, 4), 4).strip()), Files.readAllLines(dir.resolve("games.000003.json")));
+        try (JsonLinesGameSaveRepository repository = segmented(file, SaveLogPolicy.DEFAULT)) {
+            assertEquals(List.of(new UUID(0, 4)), repository.listIds());
+            assertThrows(IllegalArgumentException.class, () -> repository.load(new UUID(0, 3)));
+        }
+    }
+
+    @Test
+    void backgroundPassesMergeSizeTiersAndNeverRewriteACappedSegment() throws Exception {
+        Path file = dir.resolve("games.json");
+        SaveLogPolicy policy = new SaveLogPolicy(1_000, null, 0); // merged segments capped at 16,000 bytes
+        List<UUID> ids = new ArrayList<>();
+        for (int segment = 1; segment <= 20; segment++) {
+            StringBuilder lines = new StringBuilder();
+            for (int i = 0; i < 5; i++) {
+                UUID id = new UUID(segment, i);
+                ids.add(id);
+                lines.append(seedLine(id, i));
+            }
+            assertTrue(lines.length() < 1_000);
+            Files.writeString(dir.resolve(String.format("games.%06d.json", segment)), lines);
+        }
+        SaveLogCompactor compactor = new SaveLogCompactor(file, policy);
+
+        SaveLogCompactor.Result first = compactor.compactTiers(); // five runs of four sealed segments
+        assertEquals(20, first.segmentsBefore());
+        assertEquals(5, first.segmentsAfter());
+        assertEquals(100, first.kept());
+
+        SaveLogCompactor.Result second = compactor.compactTiers(); // four of those, the fifth left alone
+        assertEquals(2, second.segmentsAfter());
+        assertEquals(80, second.kept());
+        assertTrue(Files.size(dir.resolve("games.000016.json")) <= 16_000);
+
+        // Nothing fits together any more: both passes leave the log as it is.
+        assertEquals(0, compactor.compactTiers().kept());
+        SaveLogCompactor.Result full = compactor.compact();
+        assertEquals(2, full.segmentsAfter());
+        assertEquals(0, full.kept());
+        assertEquals(full.bytesBefore(), full.bytesAfter());
+
+        try (JsonLinesGameSaveRepository repository = segmented(file, policy)) {
+            assertEquals(ids, repository.listIds());
+        }
+    }
+
+    @Test
+    void writersSharingTheFileFollowEachOthersRotationsAndBackgroundMerges() throws Exception {
+        Path file = dir.resolve("games.json");
+        SaveLogPolicy policy = new SaveLogPolicy(3_000, null, 0);
+        List<UUID> ids = new ArrayList<>();
+        try (JsonLinesGameSaveRepository first = segmented(file, policy);
+             JsonLinesGameSaveRepository second = segmented(file, policy)) {
+            for (int i = 0; i < 400; i++) {
+                JsonLinesGameSaveRepository writer = i % 2 == 0 ? first : second;
+                ids.add(writer.save(GameSave.seeded(new UUID(2, i), 18, 3, 2, true, false, false, "SplittableRandom", i)));
+                if (i % 25 == 0) writer.flush();
+            }
+            first.flush();
+            second.flush();
+
+            for (int i = 0; i < ids.size(); i += 7) {
+                assertEquals((long) i, first.load(ids.get(i)).seed);
+                assertEquals((long) i, second.load(ids.get(i)).seed);
+            }
+        }
+        // Closing waits for background merges; every save is still there exactly once.
+        try (JsonLinesGameSaveRepository reopened = segmented(file, policy)) {
+            assertEquals(ids.stream().sorted().toList(), reopened.listIds().stream().sorted().toList());
+        }
+    }
+
+    @Test
+    void queryAnswersFromTheIndexSummariesInSaveOrderAcrossSegments() throws Exception {
+        Path file = dir.resolve("games.json");
+        SaveLogPolicy policy = new SaveLogPolicy(16_000, null, 0);
+        SaveQuery query = SaveQuery.parse("players=4,exactEnd=true,minRolls=10");
+        List<SaveSummary> expected = new ArrayList<>();
+
+        try (JsonLinesGameSaveRepository repository = segmented(file, policy)) {
+            for (int i = 0; i < 150; i++) {
+                List<Integer> rolls = new ArrayList<>();
+                for (int r = 0; r < i % 40; r++) {
+                    rolls.add(1 + r % 6);
+                }
+                GameSave save = new GameSave(new UUID(2, i), 36, 6, i % 2 == 0 ? 4 : 2, true, i % 3 == 0, false, rolls);
+                repository.save(save);
+                repository.flush();
+                if (query.matches(SaveSummary.of(save))) expected.add(SaveSummary.of(save));
+            }
+            // Written by someone else, with a board too big for the summary column: read to be filtered.
+            Files.writeString(file, "{\"id\":\"" + new UUID(3, 0) + "\",\"mainSize\":70000,\"tailSize\":6,\"players\":4,"
+                    + "\"singleDie\":true,\"exactEnd\":true,\"forfeitOnHit\":false,\"rolls\":[1,2,3,4,5,6,1,2,3,4,5]}\n",
+                    StandardOpenOption.APPEND);
+            expected.add(new SaveSummary(new UUID(3, 0), 70000, 6, 4, true, true, false, false, 11));
+            assertTrue(Files.exists(dir.resolve("games.000001.json")));
+
+            try (Stream<SaveSummary> found = repository.query(query)) {
+                assertEquals(expected, found.toList());
+            }
+            try (Stream<GameSave> all = repository.stream()) {
+                assertEquals(expected, all.map(SaveSummary::of).filter(query::matches).toList());
+            }
+        }
+
+        // The summaries are kept in the index files, so a fresh repository reads no lines to answer.
+        try (JsonLinesGameSaveRepository reopened = segmented(file, policy);
+             Stream<SaveSummary> found = reopened.query(SaveQuery.parse("board=large,seeded=false,maxRolls=2"))) {
+            assertEquals(List.of(new UUID(2, 0), new UUID(2, 1), new UUID(2, 2), new UUID(2, 40), new UUID(2, 41),
+                    new UUID(2, 42), new UUID(2, 80), new UUID(2, 81), new UUID(2, 82), new UUID(2, 120),
+                    new UUID(2, 121), new UUID(2, 122)), found.map(SaveSummary::id).toList());
+        }
+    }
+
+    @Test
+    void seedSavesAreQueriedOnTheRollCountTheGameTook() throws Exception {
+        Path file = dir.resolve("games.json");
+        Game played = new GameFactory().createGame(18, 3, 2, true, false, false, 5L);
+        while (!played.isOver()) {
+            played.playTurn();
+        }
+        int rolls = played.timeline().size();
+        GameSave save = GameSave.seeded(null, 18, 3, 2, true, false, false, SeededDiceShaker.DEFAULT_ALGORITHM, 5L);
+        save.rollCount = rolls;
+
+        try (JsonLinesGameSaveRepository repository = new JsonLinesGameSaveRepository(file)) {
+            UUID id = repository.save(save);
+            repository.flush();
+            assertTrue(Files.readString(file).contains("\"rollCount\":" + rolls));
+            assertEquals(rolls, repository.load(id).rollCount);
+            try (Stream<SaveSummary> found = repository.query(SaveQuery.parse("seeded=true,minRolls=" + rolls))) {
+                assertEquals(List.of(id), found.map(SaveSummary::id).toList());
+            }
+        }
+
+        // Rebuilt from the lines, the summary takes the count from "rollCount" too.
+        Files.delete(dir.resolve("games.json.idx"));
+        try (JsonLinesGameSaveRepository reopened = new JsonLinesGameSaveRepository(file)) {
+            try (Stream<SaveSummary> found = reopened.query(SaveQuery.parse("minRolls=" + rolls))) {
+                assertEquals(1, found.count());
+            }
+            try (Stream<SaveSummary> found = reopened.query(SaveQuery.parse("minRolls=" + (rolls + 1)))) {
+                assertEquals(0, found.count());
+            }
+        }
+    }
+
+    @Test
+    void parallelScanSplitsFilesAtNewlinesAndKeepsFileOrder() throws Exception {
+        Path first = dir.resolve("a.json");
+        Path second = dir.resolve("b.json");
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            lines.append(seedLine(new UUID(4, i), i));
+            if (i % 50 == 0) lines.append("\nnot json\n");
+        }
+        Files.writeString(first, lines);
+        String lastLine = seedLine(new UUID(4, 500), 500);
+        Files.writeString(second, lastLine.substring(0, lastLine.length() - 1)); // no trailing newline
+
+        // 200-byte chunks: most lines straddle a nominal boundary, so every chunk end is moved to a newline.
+        ParallelLineScanner scanner = new ParallelLineScanner(4, 200);
+        ParallelLineScanner.LineParser<UUID> ids = (bytes, start, length) -> {
+            JsonLinesGameSaveRepository.LineSummary line = JsonLinesGameSaveRepository.readSummary(bytes, start, length);
+            return line == null ? null : line.id();
+        };
+        ParallelLineScanner.Result<UUID> read = scanner.scan(Stream.of(first, dir.resolve("missing.json"), second)
+                .map(ParallelLineScanner.Extent::whole).toList(), ids);
+
+        List<UUID> expected = new ArrayList<>();
+        for (int i = 0; i <= 500; i++) {
+            expected.add(new UUID(4, i));
+        }
+        assertEquals(expected, read.items());
+        assertEquals(Files.size(first) + Files.size(second), read.bytes());
+        assertEquals(500 + 2 * 10 + 1, read.lines());
+
+        // A file being appended to is read only up to the length its owner saw.
+        long seen = Files.size(first);
+        Files.writeString(first, seedLine(new UUID(4, 501), 501) + "{\"id\":\"half wri", StandardOpenOption.APPEND);
+        assertEquals(expected.subList(0, 500),
+                scanner.scan(List.of(new ParallelLineScanner.Extent(first, seen)), ids).items());
+    }
+}
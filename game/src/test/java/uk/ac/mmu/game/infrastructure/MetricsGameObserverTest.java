@@ -0,0 +1,108 @@
+package uk.ac.mmu.game.infrastructure;
+
+import org.junit.jupiter.api.Test;
+import uk.ac.mmu.game.domain.BasicRules;
+import uk.ac.mmu.game.domain.ExactEndDecorator;
+import uk.ac.mmu.game.domain.ForfeitOnHitDecorator;
+import uk.ac.mmu.game.domain.Game;
+import uk.ac.mmu.game.domain.MoveResult;
+import uk.ac.mmu.game.usecase.GameFactory;
+import uk.ac.mmu.game.usecase.GameSave;
+import uk.ac.mmu.game.usecase.GameSaveRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsGameObserverTest {
+
+    @Test
+    void recordsTurnsHitsForfeitsAndLengthPerVariant() {
+        MetricsRegistry registry = new MetricsRegistry();
+        GameFactory factory = new GameFactory("L64X128MixRandom", List.of(new MetricsGameObserver(registry)));
+
+        long turns = 0, hits = 0, forfeits = 0, overshoots = 0;
+        for (long seed = 0; seed < 20; seed++) {
+            Game game = factory.createGame(18, 3, 2, true, true, true, seed);
+            while (!game.isOver()) game.playTurn();
+            for (MoveResult r : game.timeline()) {
+                turns++;
+                if (r.hit()) hits++;
+                if (r.forfeited()) forfeits++;
+                if (r.overshoot()) overshoots++;
+            }
+        }
+
+        String v = "basic+exact-end+forfeit-on-hit";
+        assertEquals(turns, registry.counter("game_turns_total", "", "variant", v).get());
+        assertEquals(hits, registry.counter("game_hits_total", "", "variant", v).get());
+        assertEquals(forfeits, registry.counter("game_forfeits_total", "", "variant", v).get());
+        assertEquals(overshoots, registry.counter("game_overshoots_total", "", "variant", v).get());
+        assertEquals(20, registry.counter("game_finished_total", "", "variant", v).get());
+        assertEquals(20, registry.histogram("game_length_turns", "", MetricsRegistry.TURN_BUCKETS, "variant", v).count());
+        assertTrue(registry.scrape().contains("# TYPE game_turns_per_second gauge"));
+    }
+
+    @Test
+    void variantNamesTheWholeDecoratorChain() {
+        assertEquals("basic", MetricsGameObserver.variant(new BasicRules()));
+        assertEquals("basic+forfeit-on-hit", MetricsGameObserver.variant(new ForfeitOnHitDecorator(new BasicRules())));
+        assertEquals("basic+exact-end+forfeit-on-hit",
+                MetricsGameObserver.variant(new ForfeitOnHitDecorator(new ExactEndDecorator(new BasicRules()))));
+        assertEquals("basic+forfeit-on-hit+exact-end",
+                MetricsGameObserver.variant(new ExactEndDecorator(new ForfeitOnHitDecorator(new BasicRules()))));
+    }
+
+    @Test
+    void gamesWithDifferentChainsAreCountedApart() {
+        MetricsRegistry registry = new MetricsRegistry();
+        GameFactory factory = new GameFactory("L64X128MixRandom", List.of(new MetricsGameObserver(registry)));
+
+        for (boolean exactEnd : new boolean[]{false, true}) {
+            Game game = factory.createGame(18, 3, 2, true, exactEnd, false, 1L);
+            while (!game.isOver()) game.playTurn();
+        }
+
+        assertEquals(1, registry.counter("game_finished_total", "", "variant", "basic").get());
+        assertEquals(1, registry.counter("game_finished_total", "", "variant", "basic+exact-end").get());
+    }
+
+    @Test
+    void meteredRepositoryTimesEveryOperation() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        GameSaveRepository inner = new GameSaveRepository() {
+            @Override
+            public UUID save(GameSave save) {
+                return UUID.randomUUID();
+            }
+
+            @Override
+            public GameSave load(UUID id) {
+                throw new IllegalArgumentException("Game id not found: " + id);
+            }
+
+            @Override
+            public List<UUID> listIds() {
+                return List.of();
+            }
+
+            @Override
+            public List<GameSave> listAll() {
+                return List.of();
+            }
+        };
+        GameSaveRepository repository = new MeteredGameSaveRepository(inner, registry);
+
+        repository.save(new GameSave());
+        repository.save(new GameSave());
+        repository.listIds();
+        assertThrows(IllegalArgumentException.class, () -> repository.load(UUID.randomUUID()));
+
+        double[] b = MetricsRegistry.LATENCY_BUCKETS;
+        assertEquals(2, registry.histogram("game_save_repository_seconds", "", b, "op", "save").count());
+        assertEquals(1, registry.histogram("game_save_repository_seconds", "", b, "op", "list_ids").count());
+        assertEquals(1, registry.histogram("game_save_repository_seconds", "", b, "op", "load").count());
+        assertEquals(1, registry.counter("game_save_repository_errors_total", "", "op", "load").get());
+    }
+}
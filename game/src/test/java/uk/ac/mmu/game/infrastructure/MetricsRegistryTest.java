@@ -0,0 +1,67 @@
+package uk.ac.mmu.game.infrastructure;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    @Test
+    void countersAreExposedInPrometheusFormat() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("game_hits_total", "Hits.", "variant", "basic").add(3);
+        registry.counter("game_hits_total", "Hits.", "variant", "basic+exact-end").inc();
+
+        assertEquals("""
+                # HELP game_hits_total Hits.
+                # TYPE game_hits_total counter
+                game_hits_total{variant="basic"} 3
+                game_hits_total{variant="basic+exact-end"} 1
+                """, registry.scrape());
+    }
+
+    @Test
+    void sameNameAndLabelsReturnTheSameCounter() {
+        MetricsRegistry registry = new MetricsRegistry();
+
+        assertSame(registry.counter("c", "help", "op", "save"), registry.counter("c", "help", "op", "save"));
+        assertNotSame(registry.counter("c", "help", "op", "save"), registry.counter("c", "help", "op", "load"));
+    }
+
+    @Test
+    void histogramBucketsAreCumulative() {
+        MetricsRegistry registry = new MetricsRegistry();
+        MetricsRegistry.Histogram h = registry.histogram("len", "Length.", new double[]{10, 20});
+        h.observe(5);
+        h.observe(10);
+        h.observe(15);
+        h.observe(100);
+
+        assertEquals("""
+                # HELP len Length.
+                # TYPE len histogram
+                len_bucket{le="10"} 2
+                len_bucket{le="20"} 3
+                len_bucket{le="+Inf"} 4
+                len_sum 130
+                len_count 4
+                """, registry.scrape());
+        assertEquals(4, h.count());
+    }
+
+    @Test
+    void labelValuesAreEscaped() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("c", "help", "v", "a\"b\\c").inc();
+
+        assertTrue(registry.scrape().contains("c{v=\"a\\\"b\\\\c\"} 1"));
+    }
+
+    @Test
+    void rejectsTypeClash() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("m", "help");
+
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("m", "help", new double[]{1}));
+    }
+}
@@ -0,0 +1,244 @@
+package uk.ac.mmu.game.infrastructure;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.ac.mmu.game.usecase.GameSave;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindAppenderTest {
+
+    @TempDir
+    Path dir;
+
+    private static byte[] record(String text) {
+        return (text + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static WriteBehindAppender appender(Path file, WriteBehindAppender.Durability durability,
+                                                Duration forceInterval) throws IOException {
+        return new WriteBehindAppender(file, JsonLinesGameSaveRepository::lastLineEnd, 0, durability, forceInterval);
+    }
+
+    @Test
+    void concurrentAppendsLandWhereTheirBatchesSay() throws Exception {
+        Path file = dir.resolve("log");
+        Map<Long, byte[]> byPosition = new ConcurrentHashMap<>();
+
+        try (WriteBehindAppender appender = appender(file, WriteBehindAppender.Durability.NONE, Duration.ofSeconds(1))) {
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                threads.add(Thread.ofPlatform().start(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        byte[] bytes = record("thread " + thread + " record " + i);
+                        try {
+                            byPosition.put(appender.append(bytes), bytes);
+                        } catch (IOException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                }));
+            }
+            for (Thread thread : threads) thread.join();
+            appender.flush();
+
+            byte[] contents = Files.readAllBytes(file);
+            assertEquals(byPosition.values().stream().mapToLong(b -> b.length).sum(), contents.length);
+            List<WriteBehindAppender.Batch> batches = appender.takeWritten();
+            byPosition.forEach((position, bytes) -> {
+                WriteBehindAppender.Batch batch = batches.stream().filter(b -> b.contains(position)).findFirst().orElseThrow();
+                int offset = (int) batch.fileOffsetOf(position);
+                assertArrayEquals(bytes, Arrays.copyOfRange(contents, offset, offset + bytes.length));
+            });
+            assertTrue(appender.takeWritten().isEmpty());
+        }
+    }
+
+    @Test
+    void closeWritesEverythingQueuedAndRejectsLaterAppends() throws Exception {
+        Path file = dir.resolve("log");
+        WriteBehindAppender appender = appender(file, WriteBehindAppender.Durability.PERIODIC, Duration.ofMinutes(1));
+        for (int i = 0; i < 1_000; i++) {
+            appender.append(record("r" + i));
+        }
+        appender.close();
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1_000, lines.size());
+        assertEquals("r999", lines.get(999));
+        assertThrows(IOException.class, () -> appender.append(record("late")));
+    }
+
+    @Test
+    void closeReportsAWriterFailure() throws Exception {
+        Path file = dir.resolve("log");
+        Files.writeString(file, "someone else's line\n");
+        WriteBehindAppender.TailCheck failing = (channel, from, size) -> {
+            throw new IOException("disk gone");
+        };
+        WriteBehindAppender appender = new WriteBehindAppender(file, failing, 0,
+                WriteBehindAppender.Durability.NONE, Duration.ofSeconds(1));
+
+        appender.append(record("lost"));
+
+        IOException thrown = assertThrows(IOException.class, appender::close);
+        assertEquals("disk gone", thrown.getCause().getMessage());
+        assertThrows(IOException.class, () -> appender.append(record("after close")));
+    }
+
+    @Test
+    void closeWaitsForTheWriterWhenInterrupted() throws Exception {
+        Path file = dir.resolve("log");
+        WriteBehindAppender appender = appender(file, WriteBehindAppender.Durability.NONE, Duration.ofSeconds(1));
+        for (int i = 0; i < 1000; i++) {
+            appender.append(record("record " + i));
+        }
+
+        Thread.currentThread().interrupt();
+        try {
+            appender.close();
+            assertTrue(Thread.currentThread().isInterrupted(), "the interrupt is kept for the caller");
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(1000, Files.readAllLines(file).size());
+    }
+
+    @Test
+    void appendsAfterAnotherWriterUseTheRealEndOfFile() throws Exception {
+        Path file = dir.resolve("log");
+        Files.write(file, record("existing"));
+
+        try (WriteBehindAppender appender = appender(file, WriteBehindAppender.Durability.BATCH, Duration.ofSeconds(1))) {
+            assertEquals(0, appender.append(record("first")));
+            appender.flush();
+
+            Files.write(file, record("external"), StandardOpenOption.APPEND);
+            long position = appender.append(record("second"));
+            appender.flush();
+
+            assertEquals(6, position);
+            assertEquals(List.of(new WriteBehindAppender.Batch(0, 9, 6, 0), new WriteBehindAppender.Batch(6, 24, 7, 0)),
+                    appender.takeWritten());
+            assertEquals(List.of("existing", "first", "external", "second"), Files.readAllLines(file));
+            assertEquals(0, appender.tornTailsRepaired());
+        }
+    }
+
+    @Test
+    void rotationIsFollowedThroughTheLockGenerationWithoutFileKeys() throws Exception {
+        Path file = dir.resolve("log");
+
+        try (WriteBehindAppender appender = appender(file, WriteBehindAppender.Durability.BATCH, Duration.ofSeconds(1))) {
+            appender.append(record("before"));
+            appender.flush();
+
+            // Rotate as sealing does: rename the file away, start a new one, bump the generation.
+            SaveFileLock lock = SaveFileLock.forFile(file);
+            lock.withLock(() -> {
+                Files.move(file, dir.resolve("log.1"));
+                Files.createFile(file);
+                lock.nextGeneration();
+                return null;
+            });
+            appender.append(record("after"));
+            appender.flush();
+
+            assertEquals(List.of(new WriteBehindAppender.Batch(0, 0, 7, 0), new WriteBehindAppender.Batch(7, 0, 6, 1)),
+                    appender.takeWritten());
+            assertEquals(List.of("before"), Files.readAllLines(dir.resolve("log.1")));
+            assertEquals(List.of("after"), Files.readAllLines(file));
+        }
+    }
+
+    @Test
+    void detachedAppenderReopensTheFileAtThePathOnItsNextBatch() throws Exception {
+        Path file = dir.resolve("log");
+
+        try (WriteBehindAppender appender = appender(file, WriteBehindAppender.Durability.PERIODIC, Duration.ofMillis(1))) {
+            appender.append(record("before"));
+            appender.flush();
+
+            SaveFileLock.forFile(file).withLock(() -> {
+                appender.detach();
+                Files.move(file, dir.resolve("log.1"));
+                return null;
+            });
+            Thread.sleep(20); // a periodic force after the detach must not fail the writer
+            appender.append(record("after"));
+            appender.flush();
+
+            assertEquals(List.of("before"), Files.readAllLines(dir.resolve("log.1")));
+            assertEquals(List.of("after"), Files.readAllLines(file));
+        }
+    }
+
+    @Test
+    void tornRecordLeftByADeadWriterIsBlankedOutWithoutShrinkingTheFile() throws Exception {
+        Path file = dir.resolve("log");
+        Files.write(file, record("complete"));
+        Files.write(file, "{\"half a rec".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        try (WriteBehindAppender appender = appender(file, WriteBehindAppender.Durability.NONE, Duration.ofSeconds(1))) {
+            appender.append(record("next"));
+            appender.flush();
+
+            assertEquals(List.of("complete", " ".repeat(12), "next"), Files.readAllLines(file));
+            assertEquals(1, appender.tornTailsRepaired());
+        }
+    }
+
+    @Test
+    void repositoriesSharingAFileNeverInterleaveAndSeeEachOthersSaves() throws Exception {
+        Path file = dir.resolve("games.json");
+        Map<UUID, Integer> saved = new ConcurrentHashMap<>();
+
+        try (JsonLinesGameSaveRepository first = new JsonLinesGameSaveRepository(file);
+             JsonLinesGameSaveRepository second = new JsonLinesGameSaveRepository(file)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                JsonLinesGameSaveRepository repository = t % 2 == 0 ? first : second;
+                threads.add(Thread.ofPlatform().start(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        GameSave save = new GameSave(null, 18, 3, 2, true, false, false, List.of(i % 6 + 1));
+                        try {
+                            saved.put(repository.save(save), i % 6 + 1);
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                }));
+            }
+            for (Thread thread : threads) thread.join();
+            first.flush();
+            second.flush();
+
+            List<String> lines = Files.readAllLines(file);
+            assertEquals(4_000, lines.size());
+            ObjectMapper mapper = new ObjectMapper().registerModule(new RollSequenceJsonModule());
+            for (String line : lines) {
+                assertNotNull(mapper.readValue(line, GameSave.class).id, line);
+            }
+            // Each repository finds the other's saves too (by catching up on a miss).
+            for (Map.Entry<UUID, Integer> entry : saved.entrySet()) {
+                assertEquals(List.of(entry.getValue()), first.load(entry.getKey()).rolls);
+                assertEquals(List.of(entry.getValue()), second.load(entry.getKey()).rolls);
+            }
+        }
+    }
+}
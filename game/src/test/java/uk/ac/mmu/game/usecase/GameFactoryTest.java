@@ -5,6 +5,10 @@ import uk.ac.mmu.game.domain.Game;
 import uk.ac.mmu.game.domain.Player;
 import uk.ac.mmu.game.domain.RecordingDiceShaker;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class GameFactoryTest {
@@ -48,4 +52,76 @@ class GameFactoryTest {
         assertEquals("Red", game.getPlayers().get(0).getName());
         assertEquals("Yellow", game.getPlayers().get(3).getName());
     }
+
+    @Test
+    void seededGamesAreReproducible() {
+        GameFactory factory = new GameFactory("SplittableRandom");
+
+        Game first = factory.createGame(36, 6, 4, false, true, false, 1234L);
+        Game second = factory.createGame(36, 6, 4, false, true, false, 1234L);
+
+        for (int i = 0; i < 50 && !first.isOver(); i++) {
+            assertEquals(first.playTurn(), second.playTurn());
+        }
+        assertEquals(first.timeline(), second.timeline());
+    }
+
+    @Test
+    void twoAndFourPlayersKeepTheOriginalHomes() {
+        assertEquals(List.of(1, 10), homes(GameFactory.buildPlayers(2, 36)));
+        assertEquals(List.of(1, 10, 19, 28), homes(GameFactory.buildPlayers(4, 18)));
+    }
+
+    @Test
+    void fourPlayersOnALargeRingAreEvenlySpaced() {
+        assertEquals(List.of(1, 25_001, 50_001, 75_001), homes(GameFactory.buildPlayers(4, 100_000)));
+        assertEquals(List.of(1, 50_001), homes(GameFactory.buildPlayers(2, 100_000)));
+    }
+
+    @Test
+    void anyPlayerCountGetsEvenlySpacedHomesAndUniqueNames() {
+        List<Player> players = GameFactory.buildPlayers(64, 100_000);
+
+        assertEquals(64, players.size());
+        Set<String> names = new HashSet<>();
+        Set<String> letters = new HashSet<>();
+        for (int i = 0; i < players.size(); i++) {
+            Player p = players.get(i);
+            assertEquals(1 + i * 100_000 / 64, p.getHomeIndex());
+            assertTrue(names.add(p.getName()), p.getName());
+            assertTrue(letters.add(p.getColourLetter()), p.getColourLetter());
+        }
+        assertEquals("Red", players.get(0).getName());
+        assertEquals("Red2", players.get(16).getName());
+        assertEquals("R2", players.get(16).getColourLetter());
+
+        assertEquals(List.of(1, 7, 13), homes(GameFactory.buildPlayers(3, 18)));
+    }
+
+    @Test
+    void fewerThanTwoPlayersIsRejected() {
+        GameFactory factory = new GameFactory();
+        assertThrows(IllegalArgumentException.class, () -> factory.createGame(18, 3, 1, true, false, false));
+    }
+
+    @Test
+    void manyPlayerGameKeepsWinnerAndTotalTurnsAsItGoes() {
+        Game game = new GameFactory().createGame(2000, 6, 64, false, false, true, 99L);
+        while (!game.isOver()) {
+            game.playTurn();
+        }
+
+        Player winner = game.winner().orElseThrow();
+        assertEquals(game.getBoard().endProgress(), winner.getProgress());
+        assertEquals(game.getPlayers().stream().mapToInt(Player::getTurnsTaken).sum(), game.totalTurns());
+    }
+
+    @Test
+    void unknownRngAlgorithmIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new GameFactory("NoSuchRandom"));
+    }
+
+    private static List<Integer> homes(List<Player> players) {
+        return players.stream().map(Player::getHomeIndex).toList();
+    }
 }
@@ -0,0 +1,124 @@
+package uk.ac.mmu.game.usecase;
+
+import org.junit.jupiter.api.Test;
+import uk.ac.mmu.game.domain.*;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSessionHostTest {
+
+    /** Counts the events of one session and remembers which games they came from. */
+    private static final class CountingObserver implements GameObserver {
+        final List<Game> games = new ArrayList<>();
+        int turns;
+        int finishes;
+
+        @Override
+        public void onStateChanged(Game game, String from, String to) {
+            games.add(game);
+        }
+
+        @Override
+        public void onTurnPlayed(Game game, MoveResult result, Player currentPlayer) {
+            games.add(game);
+            turns++;
+        }
+
+        @Override
+        public void onGameFinished(Game game, Player winner, int totalTurns, int winnerTurns) {
+            games.add(game);
+            finishes++;
+        }
+    }
+
+    @Test
+    void sustainsTenThousandConcurrentSessions() throws Exception {
+        int sessions = 10_000;
+        int platformThreadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        try (GameSessionHost host = new GameSessionHost(new GameFactory(), sessions, 10_000, Duration.ofMillis(1))) {
+            List<GameSession> opened = new ArrayList<>();
+            for (int i = 0; i < sessions; i++) {
+                opened.add(host.open(36, 6, 4, true, false, false, i, null));
+            }
+
+            // Paced games overlap: most of them are still live once all are opened.
+            assertTrue(host.liveSessions() > sessions / 2, "live=" + host.liveSessions());
+            assertTrue(ManagementFactory.getThreadMXBean().getThreadCount() < platformThreadsBefore + 64);
+
+            assertTrue(host.awaitIdle(Duration.ofMinutes(2)));
+            assertEquals(0, host.liveSessions());
+            assertEquals(sessions, host.sessionsOpened());
+            assertEquals(sessions, host.sessionsFinished());
+            assertEquals(opened.stream().mapToLong(GameSession::movesPlayed).sum(), host.turnsPlayed());
+            assertTrue(host.turnsPerSecond() > 0);
+            opened.forEach(s -> assertEquals(GameSession.Status.FINISHED, s.status()));
+        }
+    }
+
+    @Test
+    void routesEventsToTheSessionsOwnObserver() throws Exception {
+        try (GameSessionHost host = new GameSessionHost(new GameFactory(), 10, 10_000, Duration.ZERO)) {
+            CountingObserver first = new CountingObserver();
+            CountingObserver second = new CountingObserver();
+
+            GameSession a = host.open(18, 3, 2, true, false, false, 1L, first);
+            GameSession b = host.open(18, 3, 2, true, false, false, 2L, second);
+            assertTrue(host.awaitIdle(Duration.ofSeconds(10)));
+
+            assertEquals(a.movesPlayed(), first.turns);
+            assertEquals(b.movesPlayed(), second.turns);
+            assertEquals(1, first.finishes);
+            assertEquals(1, second.finishes);
+            assertTrue(first.games.stream().allMatch(g -> g == a.game()));
+            assertTrue(second.games.stream().allMatch(g -> g == b.game()));
+        }
+    }
+
+    @Test
+    void sessionPlaysTheSameGameAsTheFactory() throws Exception {
+        GameFactory factory = new GameFactory();
+        Game expected = factory.createGame(36, 6, 4, false, true, true, 99L);
+        while (!expected.isOver()) expected.playTurn();
+
+        try (GameSessionHost host = new GameSessionHost(factory, 1, 10_000, Duration.ZERO)) {
+            GameSession session = host.open(36, 6, 4, false, true, true, 99L, null);
+            session.completion().get();
+
+            assertEquals(expected.timeline(), session.game().timeline());
+            assertEquals(expected.winner().orElseThrow().getName(), session.game().winner().orElseThrow().getName());
+        }
+    }
+
+    @Test
+    void abandonsSessionAtMoveCap() throws Exception {
+        try (GameSessionHost host = new GameSessionHost(new GameFactory(), 1, 3, Duration.ZERO)) {
+            GameSession session = host.open(36, 6, 2, true, false, false, 5L, null);
+            session.completion().get();
+
+            assertEquals(GameSession.Status.ABANDONED, session.status());
+            assertEquals(3, session.movesPlayed());
+            assertEquals(3, session.game().timeline().size());
+            assertEquals(1, host.sessionsAbandoned());
+        }
+    }
+
+    @Test
+    void rejectsSessionsBeyondCapacityAndCancelsOnClose() throws Exception {
+        GameSessionHost host = new GameSessionHost(new GameFactory(), 1, 10_000, Duration.ofSeconds(30));
+        GameSession session = host.open(18, 3, 2, true, false, false, 1L, null);
+
+        assertThrows(IllegalStateException.class, () -> host.open(18, 3, 2, true, false, false, 2L, null));
+
+        host.close();
+        session.completion().get();
+        assertEquals(GameSession.Status.CANCELLED, session.status());
+        assertEquals(0, host.liveSessions());
+        assertThrows(IllegalStateException.class, () -> host.open(18, 3, 2, true, false, false, 3L, null));
+    }
+}
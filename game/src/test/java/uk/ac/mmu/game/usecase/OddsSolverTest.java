@@ -0,0 +1,88 @@
+package uk.ac.mmu.game.usecase;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OddsSolverTest {
+
+    private final OddsSolver solver = new OddsSolver(new GameFactory());
+
+    @Test
+    void tinyBoardMatchesHandCalculation() {
+        // end = 2, single die: any roll >= 2 finishes at once; a 1 leaves the player one short.
+        OddsResult odds = solver.solve(2, 1, 2, true, false, false);
+
+        assertEquals(31.0 / 36, odds.winProbability(0), 1e-12);
+        assertEquals(5.0 / 36, odds.winProbability(1), 1e-12);
+        assertEquals(30.0 / 36, odds.turnsProbability(1), 1e-12);
+        assertEquals(5.0 / 36, odds.turnsProbability(2), 1e-12);
+        assertEquals(1.0 / 36, odds.turnsProbability(3), 1e-12);
+        assertEquals(43.0 / 36, odds.expectedTurns(), 1e-12);
+        assertEquals(0.0, odds.unfinishedProbability());
+    }
+
+    @Test
+    void probabilitiesAreConsistent() {
+        OddsResult odds = solver.solve(36, 6, 4, true, true, false);
+
+        double wins = 0;
+        for (int i = 0; i < 4; i++) wins += odds.winProbability(i);
+        double lengths = 0;
+        for (int t = 0; t <= odds.maxTurns(); t++) lengths += odds.turnsProbability(t);
+
+        assertEquals(1.0, wins, 1e-9);
+        assertEquals(1.0, lengths, 1e-9);
+        assertTrue(odds.winProbability(0) > odds.winProbability(3), "moving first is an advantage");
+        assertTrue(odds.percentileTurns(50) <= odds.percentileTurns(99));
+    }
+
+    @Test
+    void agreesWithSimulation() {
+        SimulateGamesUseCase simulation = new SimulateGamesUseCase(new GameFactory());
+        boolean[] flags = {false, true};
+
+        for (boolean singleDie : flags) {
+            for (boolean exactEnd : flags) {
+                if (exactEnd && !singleDie) continue; // can stall forever; covered below
+
+                OddsResult odds = solver.solve(18, 3, 2, singleDie, exactEnd, false);
+                SimulationReport sim = simulation.simulate(new SimulationConfig(
+                        18, 3, 2, singleDie, exactEnd, false, 100_000, 11L, 0,
+                        SimulationConfig.DEFAULT_MAX_MOVES, SimulationEngine.KERNEL));
+
+                String ctx = "singleDie=" + singleDie + " exactEnd=" + exactEnd;
+                assertTrue(odds.maxWinShareZScore(sim) < 4.5, ctx + " z=" + odds.maxWinShareZScore(sim));
+                assertEquals(odds.expectedTurns(), sim.meanTurns(), 0.05, ctx);
+            }
+        }
+    }
+
+    @Test
+    void doubleDiceExactEndCanStallForever() {
+        OddsResult odds = solver.solve(18, 3, 2, false, true, false);
+
+        assertTrue(odds.unfinishedProbability() > 0);
+        assertEquals(1.0, odds.finishProbability() + odds.unfinishedProbability(), 1e-9);
+    }
+
+    @Test
+    void resultsAreCachedPerConfiguration() {
+        assertSame(solver.solve(18, 3, 2, true, false, false), solver.solve(18, 3, 2, true, false, false));
+        assertNotSame(solver.solve(18, 3, 2, true, false, false), solver.solve(18, 3, 2, true, true, false));
+    }
+
+    @Test
+    void cacheStopsGrowingAtItsLimitButStillSolves() {
+        for (int i = 0; i < OddsSolver.CACHE_LIMIT + 8; i++) {
+            OddsResult odds = solver.solve(4 + i % 16, 1 + i / 16, 2, true, false, false);
+            assertEquals(1.0, odds.finishProbability(), 1e-9);
+        }
+        assertEquals(OddsSolver.CACHE_LIMIT, solver.cachedConfigurations());
+    }
+
+    @Test
+    void forfeitOnHitIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(18, 3, 2, true, false, true));
+    }
+}
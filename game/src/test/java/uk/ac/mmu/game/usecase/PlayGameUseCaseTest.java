@@ -119,4 +119,30 @@ class PlayGameUseCaseTest {
         // Assert factory was used
         verify(factory, times(1)).createGame(18, 3, 2, false, false, false);
     }
+
+    @Test
+    void seededGameIsSavedAsAlgorithmAndSeed() throws Exception {
+        Board board = new Board(18, 3);
+        Game game = new Game(board,
+                List.of(new Player("Red", 1, "R"), new Player("Blue", 10, "B")),
+                new BasicRules(), new SeededDiceShaker("SplittableRandom", 99L, false));
+
+        GameFactory factory = mock(GameFactory.class);
+        when(factory.createGame(anyInt(), anyInt(), anyInt(), anyBoolean(), anyBoolean(), anyBoolean(), anyLong()))
+                .thenReturn(game);
+
+        InMemoryGameSaveRepository repo = new InMemoryGameSaveRepository();
+        PlayGameUseCase useCase = new PlayGameUseCase(factory, new SilentOutputPort(), repo, new RecordingMediator());
+
+        useCase.execute(18, 3, 2, false, false, false, 99L);
+
+        GameSave saved = repo.lastSaved();
+        assertTrue(saved.seeded());
+        assertEquals("SplittableRandom", saved.rngAlgorithm);
+        assertEquals(99L, saved.seed);
+        assertNull(saved.rolls, "Seed saves do not store the roll list");
+        assertEquals(game.timeline().size(), saved.rollCount, "One roll per move, none after game over");
+        assertEquals(game.timeline().size(), saved.rollsPlayed());
+        verify(factory, times(1)).createGame(18, 3, 2, false, false, false, 99L);
+    }
 }
@@ -64,6 +64,79 @@ class ReplayGameUseCaseTest {
         @Override public void onGameFinished(uk.ac.mmu.game.domain.Game game, uk.ac.mmu.game.domain.Player winner, int totalTurns, int winnerTurns) { }
     }
 
+    /** Captures what would be rendered: one entry per turn, and every winner line. */
+    private static final class CapturingOutputPort implements GameOutputPort {
+        final List<uk.ac.mmu.game.domain.MoveResult> turns = new ArrayList<>();
+        final List<String> winners = new ArrayList<>();
+
+        @Override public void printTurn(uk.ac.mmu.game.domain.MoveResult result, int turnsForPlayer, uk.ac.mmu.game.domain.Player playerCtx) { }
+        @Override public void printWinner(String playerName, int totalTurns, int winnerTurns) { winners.add(playerName + "/" + totalTurns); }
+        @Override public void onStateChanged(uk.ac.mmu.game.domain.Game game, String from, String to) { }
+        @Override public void onTurnPlayed(uk.ac.mmu.game.domain.Game game, uk.ac.mmu.game.domain.MoveResult result, uk.ac.mmu.game.domain.Player currentPlayer) { turns.add(result); }
+        @Override public void onGameFinished(uk.ac.mmu.game.domain.Game game, uk.ac.mmu.game.domain.Player winner, int totalTurns, int winnerTurns) { printWinner(winner.getName(), totalTurns, winnerTurns); }
+    }
+
+    private static GameSave longSeededGame() {
+        return GameSave.seeded(UUID.randomUUID(), 36, 6, 4, true, true, true, "L64X128MixRandom", 11L);
+    }
+
+    private static List<uk.ac.mmu.game.domain.MoveResult> fullTimeline(GameSave save) {
+        uk.ac.mmu.game.domain.Game game = new GameFactory().createFromSave(save);
+        while (!game.isOver()) game.playTurn();
+        return game.timeline();
+    }
+
+    @Test
+    void windowedReplayRendersOnlyTheRequestedMovesThenTheResult() throws Exception {
+        GameSave save = longSeededGame();
+        List<uk.ac.mmu.game.domain.MoveResult> full = fullTimeline(save);
+        CapturingOutputPort output = new CapturingOutputPort();
+        ReplayGameUseCase useCase = new ReplayGameUseCase(
+                new InMemoryGameSaveRepository(save), new GameFactory(), output, new RecordingMediator());
+
+        ReplayOutcome outcome = useCase.replay(save.id, 5, 3);
+
+        assertEquals(full.subList(4, 7), output.turns);
+        assertEquals(1, output.winners.size());
+        assertEquals(outcome.winner() + "/" + outcome.totalTurns(), output.winners.get(0));
+        assertEquals(full.size(), outcome.moves());
+    }
+
+    @Test
+    void windowThatContainsTheWinningMovePrintsTheWinnerOnce() throws Exception {
+        GameSave save = longSeededGame();
+        int moves = fullTimeline(save).size();
+        CapturingOutputPort output = new CapturingOutputPort();
+        ReplayGameUseCase useCase = new ReplayGameUseCase(
+                new InMemoryGameSaveRepository(save), new GameFactory(), output, new RecordingMediator());
+
+        useCase.replay(save.id, moves - 1, Integer.MAX_VALUE);
+
+        assertEquals(2, output.turns.size());
+        assertEquals(1, output.winners.size());
+    }
+
+    @Test
+    void silentReplayReturnsTheOutcomeWithoutAnyOutput() throws Exception {
+        GameSave save = longSeededGame();
+        CapturingOutputPort output = new CapturingOutputPort();
+        RecordingMediator mediator = new RecordingMediator();
+        ReplayGameUseCase useCase = new ReplayGameUseCase(
+                new InMemoryGameSaveRepository(save), new GameFactory(), output, mediator);
+
+        ReplayOutcome outcome = useCase.replaySilently(save.id);
+
+        uk.ac.mmu.game.domain.Game expected = new GameFactory().createFromSave(save);
+        while (!expected.isOver()) expected.playTurn();
+        assertTrue(outcome.finished());
+        assertEquals(expected.winner().orElseThrow().getName(), outcome.winner());
+        assertEquals(expected.winner().orElseThrow().getTurnsTaken(), outcome.winnerTurns());
+        assertEquals(expected.timeline().size(), outcome.moves());
+        assertTrue(output.turns.isEmpty());
+        assertTrue(output.winners.isEmpty());
+        assertTrue(mediator.events.isEmpty());
+    }
+
     @Test
     void replayLoadsSnapshotAndEmitsStartAndFinishEvents() throws Exception {
         UUID id = UUID.randomUUID();
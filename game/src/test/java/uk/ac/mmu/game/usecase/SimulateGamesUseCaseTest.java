@@ -0,0 +1,79 @@
+package uk.ac.mmu.game.usecase;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulateGamesUseCaseTest {
+
+    private static SimulationConfig config(int parallelism) {
+        return config(parallelism, SimulationEngine.GAME);
+    }
+
+    private static SimulationConfig config(int parallelism, SimulationEngine engine) {
+        return new SimulationConfig(18, 3, 2, true, true, true, 5_000, 42L, parallelism,
+                SimulationConfig.DEFAULT_MAX_MOVES, engine);
+    }
+
+    private static void assertSameReport(SimulationReport expected, SimulationReport actual) {
+        assertEquals(expected.wins(0), actual.wins(0));
+        assertEquals(expected.wins(1), actual.wins(1));
+        assertEquals(expected.meanTurns(), actual.meanTurns());
+        assertEquals(expected.maxTurns(), actual.maxTurns());
+        assertEquals(expected.unfinishedGames(), actual.unfinishedGames());
+        assertEquals(expected.moves(), actual.moves());
+        assertEquals(expected.hitRate(), actual.hitRate());
+        assertEquals(expected.overshootRate(), actual.overshootRate());
+        for (int t = 0; t <= expected.maxTurns(); t++) {
+            assertEquals(expected.gamesWithTurns(t), actual.gamesWithTurns(t), "histogram bucket " + t);
+        }
+    }
+
+    @Test
+    void resultsDoNotDependOnThreadCount() {
+        SimulateGamesUseCase useCase = new SimulateGamesUseCase(new GameFactory());
+
+        SimulationReport single = useCase.simulate(config(1));
+        SimulationReport parallel = useCase.simulate(config(4));
+
+        assertSameReport(single, parallel);
+    }
+
+    @Test
+    void kernelEngineMatchesGameEngine() {
+        SimulateGamesUseCase useCase = new SimulateGamesUseCase(new GameFactory());
+
+        assertSameReport(useCase.simulate(config(2, SimulationEngine.GAME)),
+                useCase.simulate(config(2, SimulationEngine.KERNEL)));
+    }
+
+    @Test
+    void stalledGamesAreCountedAsUnfinished() {
+        // Double dice + exact end: a player one square short of END can never finish.
+        SimulationConfig cfg = new SimulationConfig(18, 3, 2, false, true, false, 200, 7L, 2, 500, SimulationEngine.GAME);
+
+        SimulationReport report = new SimulateGamesUseCase(new GameFactory()).simulate(cfg);
+
+        assertEquals(200, report.games());
+        assertEquals(200, report.finishedGames() + report.unfinishedGames());
+        assertEquals(report.finishedGames(), report.wins(0) + report.wins(1));
+    }
+
+    @Test
+    void reportAggregatesEveryGame() {
+        SimulationReport report = new SimulateGamesUseCase(new GameFactory()).simulate(config(2));
+
+        assertEquals(5_000, report.games());
+        assertEquals(5_000, report.wins(0) + report.wins(1));
+        assertEquals(1.0, report.winShare(0) + report.winShare(1), 1e-9);
+        assertEquals(java.util.List.of("Red", "Blue"), report.playerNames());
+
+        assertTrue(report.percentileTurns(50) <= report.percentileTurns(90));
+        assertTrue(report.percentileTurns(90) <= report.percentileTurns(99));
+        assertEquals(report.maxTurns(), report.percentileTurns(100));
+        assertTrue(report.meanTurns() > 0 && report.meanTurns() <= report.maxTurns());
+
+        assertTrue(report.hitRate() > 0 && report.hitRate() < 1);
+        assertTrue(report.overshootRate() > 0 && report.overshootRate() < 1);
+    }
+}